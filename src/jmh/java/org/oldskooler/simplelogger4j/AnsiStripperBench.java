@@ -0,0 +1,45 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.ansi.AnsiStripper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Stripping ANSI escapes from a line, as a String and in place in a reused StringBuilder. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnsiStripperBench {
+    @Param({
+            "\u001B[90m[2025-09-11 10:11:12.345]\u001B[0m [\u001B[33mWARN\u001B[0m] [\u001B[36mmain\u001B[0m] Hello, World! The quick brown fox",
+            "[2025-09-11 10:11:12.345] [WARN] [main] Hello, World! The quick brown fox jumps over the lazy dog"
+    })
+    public String line;
+
+    private final StringBuilder buf = new StringBuilder(256);
+
+    @Benchmark
+    public String stripString() {
+        return AnsiStripper.strip(line);
+    }
+
+    @Benchmark
+    public int stripInPlace() {
+        buf.setLength(0);
+        buf.append(line);
+        AnsiStripper.strip(buf, 0);
+        return buf.length();
+    }
+}
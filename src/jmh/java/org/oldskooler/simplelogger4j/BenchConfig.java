@@ -0,0 +1,35 @@
+package org.oldskooler.simplelogger4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Writes a config file for a benchmark. The bus is set up once per JVM, so every benchmark that
+ * logs runs in its own fork, and each fork writes its own config.
+ */
+final class BenchConfig {
+    /** Where benchmarks write log files: {@code -Djmh.logDir=...}, by default {@code /dev/shm} (tmpfs) if it exists. */
+    static final File LOG_DIR = new File(System.getProperty("jmh.logDir",
+            new File("/dev/shm").isDirectory() ? "/dev/shm" : System.getProperty("java.io.tmpdir")));
+
+    private BenchConfig() {
+    }
+
+    /** A config logging {@code %{level} %{message}} to one file in {@link #LOG_DIR}, with the given extra elements. */
+    static String write(String name, String fileType, String extra) throws IOException {
+        File dir = Files.createTempDirectory(LOG_DIR.toPath(), "sl4j-jmh-" + name).toFile();
+        dir.deleteOnExit();
+        File log = new File(dir, name + ".log");
+        log.deleteOnExit();
+        File xml = new File(dir, name + ".xml");
+        xml.deleteOnExit();
+        String cfg = "<config><minLevel>INFO</minLevel><pattern>[%{timestamp}] [%{level}] [%{thread}] %{message}</pattern>" + extra
+                + "<appenders><console enabled=\"false\"/>"
+                + "<file type=\"" + fileType + "\" append=\"false\" path=\"" + log.getAbsolutePath() + "\"/>"
+                + "</appenders></config>";
+        Files.write(xml.toPath(), cfg.getBytes(StandardCharsets.UTF_8));
+        return xml.getAbsolutePath();
+    }
+}
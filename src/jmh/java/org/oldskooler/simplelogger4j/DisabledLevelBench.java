@@ -0,0 +1,62 @@
+package org.oldskooler.simplelogger4j;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls below the logger's level, which should cost a cached level check and allocate nothing
+ * (see the GC profiler's {@code gc.alloc.rate.norm}), including the varargs overload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisabledLevelBench {
+    private SimpleLog log;
+    private final Object a = "alice";
+    private final Object b = 42;
+    private final Object c = 3.5d;
+
+    @Setup
+    public void setup() throws Exception {
+        log = LoggerFactory.getLogger(BenchConfig.write("disabled", "channel", "<levels><logger name=\"bench\" level=\"ERROR\"/></levels>"), "bench.Disabled");
+    }
+
+    @Benchmark
+    public boolean isDebugEnabled() {
+        return log.isDebugEnabled();
+    }
+
+    @Benchmark
+    public void debugNoArgs() {
+        log.debug("request handled");
+    }
+
+    @Benchmark
+    public void infoTwoArgs() {
+        log.info("request {} handled in {} ms", a, b);
+    }
+
+    @Benchmark
+    public void infoThreeArgs() {
+        log.info("request {} handled by {} in {} ms", a, b, c);
+    }
+
+    /** Four arguments go through the varargs overload, so the array must be scalar-replaced. */
+    @Benchmark
+    public void infoVarargs() {
+        log.info("request {} handled by {} in {} ms for {}", a, b, c, a);
+    }
+}
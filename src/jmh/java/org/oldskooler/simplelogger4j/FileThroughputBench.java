@@ -0,0 +1,45 @@
+package org.oldskooler.simplelogger4j;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput: logging calls through the queue, writer and pattern into a file on tmpfs
+ * ({@code /dev/shm} unless {@code -Djmh.logDir} says otherwise), per file appender type. The
+ * overflow policy is BLOCK, so once the queue is full callers go at the writer's pace and the
+ * score is the rate events reach the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileThroughputBench {
+    @Param({"stream", "channel", "mmap"})
+    public String fileType;
+
+    private SimpleLog log;
+
+    @Setup
+    public void setup() throws Exception {
+        log = LoggerFactory.getLogger(BenchConfig.write("throughput-" + fileType, fileType,
+                "<queueSize>8192</queueSize><overflow policy=\"BLOCK\" timeoutMs=\"60000\"/>"), "bench.Throughput");
+    }
+
+    @Benchmark
+    public void info() {
+        log.info("request {} handled in {} ms", "alice", 42);
+    }
+}
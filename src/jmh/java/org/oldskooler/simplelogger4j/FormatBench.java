@@ -0,0 +1,59 @@
+package org.oldskooler.simplelogger4j;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Substituting {@code {}} placeholders with 0 to 5 arguments, the work the writer does for every
+ * parameterised message: into a new String, and into a reused buffer as in garbage-free mode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBench {
+    @Param({"0", "1", "2", "3", "4", "5"})
+    public int argCount;
+
+    private static final Object[] VALUES = {42, "alice", 3.5d, 'x', 1234567890123L};
+
+    private String template;
+    private Object[] args;
+    private final StringBuilder buf = new StringBuilder(256);
+
+    @Setup
+    public void setup() {
+        StringBuilder t = new StringBuilder("Request handled");
+        args = new Object[argCount];
+        for (int i = 0; i < argCount; i++) {
+            t.append(i == 0 ? ": " : ", ").append("arg").append(i).append("={}");
+            args[i] = VALUES[i];
+        }
+        template = t.toString();
+    }
+
+    @Benchmark
+    public String format() {
+        return ParameterFormatter.format(template, args);
+    }
+
+    @Benchmark
+    public int formatTo() {
+        buf.setLength(0);
+        ParameterFormatter.formatTo(buf, template, args);
+        return buf.length();
+    }
+}
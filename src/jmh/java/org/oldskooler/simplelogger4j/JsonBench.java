@@ -0,0 +1,93 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.appenders.ChannelFileAppender;
+import org.oldskooler.simplelogger4j.appenders.JsonAppender;
+import org.oldskooler.simplelogger4j.formatters.StringFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The writer's work for one templated event, ending up in a file in {@link BenchConfig#LOG_DIR}:
+ * rendered through a {@link CompiledPattern} and encoded as a text line, as the file appenders
+ * get it, against encoded straight to a JSON line by {@link JsonAppender}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBench {
+    private static final String TEMPLATE = "request {} from {} handled in {} ms";
+
+    @Param({"false", "true"})
+    public boolean withThrowable;
+
+    private final StringFormatter formatter = new StringFormatter();
+    private final Object[] args = {"GET /orders/42", "alice", 17};
+    private final StringBuilder plain = new StringBuilder(256);
+    private PrintJob job;
+    private CompiledPattern plan;
+    private ChannelFileAppender text;
+    private JsonAppender json;
+    private File dir;
+
+    @Setup
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory(BenchConfig.LOG_DIR.toPath(), "sl4j-jmh-json").toFile();
+        text = new ChannelFileAppender(new File(dir, "bench.log"), false, 65536);
+        json = new JsonAppender(new File(dir, "bench.jsonl"), false, 65536, Collections.singletonMap("service", "orders"), false);
+        plan = CompiledPattern.compile("%{timestamp} [%{level}] [%{thread}] %{name} #%{sequence} %{message}",
+                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS"), null);
+        job = new PrintJob("com.example.OrderService", 42L, LogLevel.INFO, null, "main", System.currentTimeMillis(),
+                withThrowable ? new IllegalStateException("timeout", new RuntimeException("connection reset")) : null, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        text.close();
+        json.close();
+        for (File f : dir.listFiles()) f.delete();
+        dir.delete();
+    }
+
+    /** Rendering formats the message in place of the template, so each invocation starts from the template again. */
+    private PrintJob templated() {
+        job.message = null;
+        job.template = TEMPLATE;
+        job.args = args;
+        job.formatter = formatter;
+        return job;
+    }
+
+    @Benchmark
+    public int patternText() {
+        PrintJob j = templated();
+        plain.setLength(0);
+        plan.render(j, plain, null);
+        text.println(plain.toString());
+        if (j.throwable != null) text.printStackTrace(j.throwable);
+        return plain.length();
+    }
+
+    @Benchmark
+    public int jsonLine() {
+        return json.append(templated());
+    }
+}
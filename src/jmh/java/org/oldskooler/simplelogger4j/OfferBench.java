@@ -0,0 +1,75 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.formatters.StringFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link LoggerBus#offer} from 1, 4, 16 and 64 threads at once, per queue type and in garbage-free
+ * mode; the higher counts show how claims contend on the queue's tail. The policy is DROP, so a
+ * full queue costs a failed offer rather than a wait; compare the score with {@code dropped} to see
+ * how much of it reached the writer. JMH's {@code -t} overrides the thread counts, e.g.
+ * {@code -Pjmh.args="-t 256"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OfferBench {
+    @Param({"MPSC", "BLOCKING"})
+    public String queueType;
+
+    @Param({"false", "true"})
+    public boolean garbageFree;
+
+    private final Formatter formatter = new StringFormatter();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object[] args = {"alice", 42};
+
+    @Setup
+    public void setup() throws Exception {
+        String xml = BenchConfig.write("offer", "channel", "<queueType>" + queueType + "</queueType><queueSize>65536</queueSize>"
+                + "<garbageFree>" + garbageFree + "</garbageFree><overflow policy=\"DROP\"/>");
+        LoggerFactory.getLogger(xml, "bench.Offer");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void offerOneThread(Blackhole bh) {
+        bh.consume(LoggerBus.offer("bench.Offer", LogLevel.INFO, "request {} handled in {} ms", args, null, formatter, dropped));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void offerFourThreads(Blackhole bh) {
+        bh.consume(LoggerBus.offer("bench.Offer", LogLevel.INFO, "request {} handled in {} ms", args, null, formatter, dropped));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void offerSixteenThreads(Blackhole bh) {
+        bh.consume(LoggerBus.offer("bench.Offer", LogLevel.INFO, "request {} handled in {} ms", args, null, formatter, dropped));
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void offerSixtyFourThreads(Blackhole bh) {
+        bh.consume(LoggerBus.offer("bench.Offer", LogLevel.INFO, "request {} handled in {} ms", args, null, formatter, dropped));
+    }
+}
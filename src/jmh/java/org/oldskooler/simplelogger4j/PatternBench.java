@@ -0,0 +1,71 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.ansi.AnsiColour;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering one event: {@link PatternEngine}, which interprets the pattern every time, against a
+ * {@link CompiledPattern} plan rendering into reused buffers as the writer does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternBench {
+    @Param({
+            "[%{timestamp:BRIGHT_BLACK}] [%{level:LEVEL}] [%{thread:CYAN}] %{message}",
+            "[%{timestamp:datetime('HH:mm:ss')|padRight(12)}] [%{level:LEVEL|padRight(8)}] (%{name:CYAN}) #%{sequence:BRIGHT_BLACK} %{message}",
+            "%{level} %{message}"
+    })
+    public String pattern;
+
+    private final DateTimeFormatter tf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private final Map<LogLevel, AnsiColour> palette = new EnumMap<>(LogLevel.class);
+    private PrintJob job;
+    private CompiledPattern plan;
+    private final StringBuilder plain = new StringBuilder(256);
+    private final StringBuilder coloured = new StringBuilder(256);
+
+    @Setup
+    public void setup() {
+        palette.put(LogLevel.WARN, AnsiColour.BRIGHT_YELLOW);
+        job = new PrintJob("com.example.Demo", 42L, LogLevel.WARN, "Hello, World! The quick brown fox jumps over the lazy dog",
+                "main", System.currentTimeMillis(), null, false);
+        plan = CompiledPattern.compile(pattern, tf, palette);
+    }
+
+    @Benchmark
+    public String engineRenderPlain() {
+        return PatternEngine.renderPlain(pattern, tf, job);
+    }
+
+    @Benchmark
+    public String engineRenderColoured() {
+        return PatternEngine.renderColoured(pattern, tf, job, palette);
+    }
+
+    @Benchmark
+    public int compiledRenderBoth() {
+        plain.setLength(0);
+        coloured.setLength(0);
+        plan.render(job, plain, coloured);
+        return plain.length() + coloured.length();
+    }
+}
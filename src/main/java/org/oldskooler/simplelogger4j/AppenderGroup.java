@@ -0,0 +1,289 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.appenders.Appender;
+import org.oldskooler.simplelogger4j.appenders.AsyncAppender;
+import org.oldskooler.simplelogger4j.appenders.AsyncSettings;
+import org.oldskooler.simplelogger4j.appenders.ConsoleAppender;
+import org.oldskooler.simplelogger4j.appenders.EventAppender;
+import org.oldskooler.simplelogger4j.appenders.JsonAppender;
+import org.oldskooler.simplelogger4j.binary.BinaryAppender;
+import org.oldskooler.simplelogger4j.metrics.AppenderMetrics;
+import org.oldskooler.simplelogger4j.metrics.LoggerMetrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The appenders one writer sends rendered lines to ({@link EventAppender}s get the event itself),
+ * and the flush policy from LogConfig: after
+ * {@code flushBytes}, when the oldest unflushed event is {@code flushIntervalMs} old, when the
+ * writer runs out of events ({@code flushOnIdle}), and straight away for levels at or above
+ * {@code flushImmediateLevel}. Not thread-safe: the owning writer holds its write lock.
+ */
+final class AppenderGroup {
+    private final List<Appender> appenders = new ArrayList<>();
+    /** Per appender: the {@link LogConfig#appenderKey settings} it was built from. */
+    private final List<String> keys = new ArrayList<>();
+    /** Per appender: whether it gets the coloured line (console, possibly behind an AsyncAppender). */
+    private final boolean[] wantsColour;
+    /** Per appender: its metrics, kept by kind and shard suffix; null when metrics are off. */
+    private final AppenderMetrics[] meters;
+    /** Per appender: whether it is an {@link EventAppender}, called by {@link #writeEvent} rather than {@link #write}. */
+    private final boolean[] takesEvents;
+    final boolean hasEventAppenders;
+    /** False when every appender takes events, so nothing needs rendering. */
+    final boolean hasTextAppenders;
+    /** Whether any appender wants the coloured line; otherwise only plain text is rendered. */
+    final boolean renderColour;
+    /** Renders stack traces once for all text appenders; null when each prints them in full itself. */
+    private final TraceDeduplicator traces;
+    private final int flushEvery;
+    private final long flushBytes;
+    private final long flushIntervalNanos;
+    private final boolean flushOnIdle;
+    private final int flushPriority;
+    // State since the last flush
+    private long unflushedBytes;
+    private int unflushedEvents;
+    private long unflushedSince;
+    /** Bytes the event appenders took for the event being written, counted with it. */
+    private long eventBytes;
+    private volatile long flushCount;
+
+    /** @param suffix appended to the names of async appender threads, to tell shards apart */
+    AppenderGroup(LogConfig c, String suffix) throws IOException {
+        this(c, suffix, null);
+    }
+
+    /**
+     * Builds the group for a reloaded config on the writer thread. Appenders of {@code previous}
+     * whose settings are unchanged are carried over as they are; the others are drained and closed,
+     * each before its replacement is opened, so a file is never open twice. An appender that fails
+     * to open is reported and left out rather than failing the reload.
+     */
+    AppenderGroup(LogConfig c, String suffix, AppenderGroup previous) throws IOException {
+        flushEvery = Math.max(0, c.getFlushEvery());
+        flushBytes = Math.max(1, c.getFlushBytes());
+        flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, c.getFlushIntervalMs()));
+        flushOnIdle = c.isFlushOnIdle();
+        flushPriority = c.getFlushImmediateLevel().getPriority();
+        traces = TraceDeduplicator.wanted(c) ? new TraceDeduplicator(c) : null;
+
+        if(previous != null) previous.flushAll();
+        if(c.isConsoleEnabled()) add(c.appenderKey("console"), previous, () -> async(new ConsoleAppender(c), c.getConsoleAsync(), "console" + suffix));
+        if(c.isFileEnabled()) add(c.appenderKey("file"), previous, () -> async(c.getFileType().create(c), c.getFileAsync(), "file" + suffix));
+        if(c.isRollingEnabled()) add(c.appenderKey("rollingFile"), previous, () -> async(c.getRollingType().createRolling(c), c.getRollingAsync(), "rollingFile" + suffix));
+        if(c.isBinaryEnabled() && !c.isShardMerge()) add(c.appenderKey("binary"), previous, () -> new BinaryAppender(c));
+        if(c.isJsonEnabled() && !c.isShardMerge()) add(c.appenderKey("json"), previous, () -> new JsonAppender(c));
+        if(appenders.isEmpty()) add("console|default|" + c.isConsoleColour(), previous, () -> new ConsoleAppender(c));
+        if(previous != null) previous.close();
+        LoggerMetrics metrics = LoggerBus.getMetrics();
+        if(metrics != null) {
+            meters = new AppenderMetrics[appenders.size()];
+            for(int i = 0; i < meters.length; i++) {
+                meters[i] = metrics.appender(keys.get(i).substring(0, keys.get(i).indexOf('|')) + suffix);
+                meters[i].countBytesOf(appenders.get(i));
+            }
+        } else {
+            meters = null;
+        }
+        wantsColour = new boolean[appenders.size()];
+        takesEvents = new boolean[appenders.size()];
+        boolean colour = false;
+        boolean events = false;
+        boolean text = false;
+        for(int i = 0; i < wantsColour.length; i++) {
+            Appender a = appenders.get(i);
+            takesEvents[i] = a instanceof EventAppender;
+            events |= takesEvents[i];
+            text |= !takesEvents[i];
+            if(a instanceof AsyncAppender) a = ((AsyncAppender) a).getDelegate();
+            wantsColour[i] = c.isConsoleColour() && a instanceof ConsoleAppender;
+            colour |= wantsColour[i];
+        }
+        renderColour = colour;
+        hasEventAppenders = events;
+        hasTextAppenders = text;
+    }
+
+    private interface Opener {
+        Appender open() throws IOException;
+    }
+
+    private void add(String key, AppenderGroup previous, Opener opener) throws IOException {
+        if(previous != null) {
+            int same = previous.keys.indexOf(key);
+            if(same >= 0) {
+                appenders.add(previous.appenders.remove(same));
+                keys.add(previous.keys.remove(same));
+                return;
+            }
+            previous.closeKind(key.substring(0, key.indexOf('|') + 1));
+        }
+        try {
+            appenders.add(opener.open());
+            keys.add(key);
+        } catch(IOException | RuntimeException e) {
+            if(previous == null) throw e;
+            System.err.println("Logger reload: could not open " + key.substring(0, key.indexOf('|')) + " appender; leaving it out. Reason: " + e.getMessage());
+        }
+    }
+
+    /** Closes and removes the appender whose key starts with {@code prefix}, if any. */
+    private void closeKind(String prefix) {
+        for(int i = 0; i < keys.size(); i++) {
+            if(keys.get(i).startsWith(prefix)) {
+                close(appenders.remove(i));
+                keys.remove(i);
+                return;
+            }
+        }
+    }
+
+    /** Whether a group built from {@code c} renders coloured lines, known before it is built. */
+    static boolean rendersColour(LogConfig c) {
+        return c.isConsoleColour() && (c.isConsoleEnabled() || (!c.isFileEnabled() && !c.isRollingEnabled() && !eventAppenders(c)));
+    }
+
+    /** Events cannot go through the merge stage, which takes rendered lines, so merged shards have no event appenders. */
+    private static boolean eventAppenders(LogConfig c) {
+        return (c.isBinaryEnabled() || c.isJsonEnabled()) && !c.isShardMerge();
+    }
+
+    private static Appender async(Appender a, AsyncSettings settings, String name) {
+        return settings == null ? a : new AsyncAppender(a, settings, name);
+    }
+
+    List<Appender> getAppenders() {
+        return appenders;
+    }
+
+    /**
+     * Hands the event to the event appenders. Called before the message is formatted for the
+     * text appenders, while the template and arguments are still there; when there are no text
+     * appenders this is the whole write, and the flush policy is applied. Returns as {@link #write}.
+     */
+    long writeEvent(PrintJob j) {
+        long now = meters == null ? 0 : System.nanoTime();
+        for(int i = 0; i < appenders.size(); i++) {
+            if(!takesEvents[i]) continue;
+            EventAppender a = (EventAppender) appenders.get(i);
+            if(meters == null) {
+                eventBytes += a.append(j);
+                continue;
+            }
+            int bytes;
+            try {
+                bytes = a.append(j);
+            } catch(RuntimeException e) {
+                meters[i].recordError();
+                throw e;
+            }
+            long end = System.nanoTime();
+            meters[i].recordWrite(end - now);
+            now = end;
+            eventBytes += bytes;
+        }
+        if(!hasTextAppenders) written(0, j.level.getPriority());
+        return now;
+    }
+
+    /**
+     * Writes one rendered event to the text appenders, then flushes if the level, byte count or
+     * event count calls for it. With metrics on, each appender's time runs from where the previous
+     * one's ended, and the end of the last is returned so the caller need not read the clock again;
+     * otherwise returns 0. The lines may be buffers the caller reuses once this returns.
+     */
+    long write(CharSequence plain, CharSequence coloured, Throwable throwable, int priority) {
+        long now = meters == null ? 0 : System.nanoTime();
+        String trace = throwable != null && traces != null ? traces.render(throwable) : null;
+        for(int i = 0; i < appenders.size(); i++) {
+            if(takesEvents[i]) continue;
+            Appender a = appenders.get(i);
+            CharSequence line = wantsColour[i] && coloured != null ? coloured : plain;
+            if(meters == null) {
+                a.println(line, throwable, trace);
+                continue;
+            }
+            try {
+                a.println(line, throwable, trace);
+            } catch(RuntimeException e) {
+                meters[i].recordError();
+                throw e;
+            }
+            long end = System.nanoTime();
+            meters[i].recordWrite(end - now);
+            now = end;
+        }
+        written(plain.length() + 1, priority);
+        return now;
+    }
+
+    private void written(int bytes, int priority) {
+        if(unflushedEvents++ == 0) unflushedSince = System.nanoTime();
+        unflushedBytes += bytes + eventBytes;
+        eventBytes = 0;
+        if(priority >= flushPriority
+                || unflushedBytes >= flushBytes
+                || (flushEvery > 0 && unflushedEvents >= flushEvery)) {
+            flushAll();
+        }
+    }
+
+    /** Flushes if anything is unflushed and the writer is idle or the interval has passed. */
+    void flushIfDue(boolean idle) {
+        if(unflushedEvents > 0 && ((flushOnIdle && idle) || intervalElapsed())) flushAll();
+    }
+
+    /** How long the writer may wait for the next event: until the time trigger is due, at most 100 ms. */
+    long pollNanos() {
+        long max = TimeUnit.MILLISECONDS.toNanos(100);
+        if(unflushedEvents == 0 || flushIntervalNanos == 0) return max;
+        long due = unflushedSince + flushIntervalNanos - System.nanoTime();
+        return Math.max(0, Math.min(max, due));
+    }
+
+    private boolean intervalElapsed() {
+        return flushIntervalNanos > 0 && System.nanoTime() - unflushedSince >= flushIntervalNanos;
+    }
+
+    void flushAll() {
+        for(int i = 0; i < appenders.size(); i++) {
+            Appender a = appenders.get(i);
+            if(meters == null) {
+                a.flush();
+                continue;
+            }
+            long t0 = System.nanoTime();
+            try {
+                a.flush();
+            } catch(RuntimeException e) {
+                meters[i].recordError();
+                throw e;
+            }
+            meters[i].recordFlush(System.nanoTime() - t0);
+        }
+        flushCount++;
+        unflushedBytes = 0;
+        unflushedEvents = 0;
+    }
+
+    void close() {
+        for(Appender a: appenders) close(a);
+    }
+
+    private static void close(Appender a) {
+        try {
+            a.flush();
+            a.close();
+        } catch(Exception ignore) {
+            // Ignore cleanup exceptions
+        }
+    }
+
+    long getFlushCount() {
+        return flushCount;
+    }
+}
@@ -0,0 +1,362 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.ansi.AnsiColour;
+import org.oldskooler.simplelogger4j.ansi.AnsiStripper;
+import org.oldskooler.simplelogger4j.clock.CachedTimestampFormatter;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A log pattern parsed once into literal segments and typed token renderers.
+ * <p>
+ * Produces the same output as {@link PatternEngine}, but all spec parsing (padding, substring,
+ * datetime formatters, colours) happens in {@link #compile}, and ANSI codes are resolved per level
+ * up front. Rendering just walks the segments and appends into a caller-supplied buffer.
+ * Timestamps go through a {@link CachedTimestampFormatter} per datetime spec.
+ * <p>
+ * A plan may be shared between threads.
+ */
+public final class CompiledPattern {
+    private static final String RESET = AnsiColour.RESET.getCode();
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final String pattern;
+    private final Segment[] segments;
+
+    private CompiledPattern(String pattern, Segment[] segments) {
+        this.pattern = pattern;
+        this.segments = segments;
+    }
+
+    public static CompiledPattern compile(String pattern, DateTimeFormatter tf, Map<LogLevel, AnsiColour> palette) {
+        if (palette == null) palette = Collections.emptyMap();
+        CachedTimestampFormatter defaultTs = new CachedTimestampFormatter(tf);
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < pattern.length();) {
+            char c = pattern.charAt(i);
+            if (c == '%' && i + 1 < pattern.length() && pattern.charAt(i + 1) == '{') {
+                int end = pattern.indexOf('}', i + 2);
+                if (end > 0) {
+                    if (literal.length() > 0) {
+                        segments.add(new Literal(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    segments.add(compileToken(pattern.substring(i + 2, end), defaultTs, palette));
+                    i = end + 1;
+                    continue;
+                }
+            }
+            literal.append(c);
+            i++;
+        }
+        if (literal.length() > 0) segments.add(new Literal(literal.toString()));
+        return new CompiledPattern(pattern, segments.toArray(new Segment[0]));
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public String renderPlain(PrintJob j) {
+        StringBuilder out = new StringBuilder(128);
+        render(j, out, null);
+        return out.toString();
+    }
+
+    public String renderColoured(PrintJob j) {
+        StringBuilder out = new StringBuilder(160);
+        render(j, new StringBuilder(128), out);
+        return out.toString();
+    }
+
+    /** Appends the rendered line to {@code out}; colour codes are only written when {@code coloured} is set. */
+    public void render(PrintJob j, StringBuilder out, boolean coloured) {
+        if (coloured) {
+            render(j, new StringBuilder(128), out);
+        } else {
+            render(j, out, null);
+        }
+    }
+
+    /**
+     * Renders the plain and the coloured line in a single pass. Each token value is produced once into
+     * {@code plain} and copied into {@code coloured} between its colour codes.
+     *
+     * @param coloured may be null when only the plain line is needed
+     */
+    public void render(PrintJob j, StringBuilder plain, StringBuilder coloured) {
+        j.resolveMessage();
+        int lineStart = plain.length();
+        boolean escaped = false;
+        for (Segment s : segments) {
+            escaped |= s.render(j, plain, coloured);
+        }
+        // Same rule as PatternEngine: only reset if something on the line emitted an escape
+        if (coloured != null && (escaped || AnsiStripper.containsEscape(plain, lineStart))) {
+            coloured.append(RESET);
+        }
+    }
+
+    private static Segment compileToken(String inside, CachedTimestampFormatter tf, Map<LogLevel, AnsiColour> palette) {
+        String token, spec = null;
+        int colon = inside.indexOf(':');
+        if (colon > 0) {
+            token = inside.substring(0, colon);
+            spec = inside.substring(colon + 1);
+        } else {
+            token = inside;
+        }
+
+        int kind;
+        switch (token) {
+            case "timestamp": kind = Token.TIMESTAMP; break;
+            case "level":     kind = Token.LEVEL; break;
+            case "thread":    kind = Token.THREAD; break;
+            case "sequence":  kind = Token.SEQUENCE; break;
+            case "message":   kind = Token.MESSAGE; break;
+            case "name":      kind = Token.NAME; break;
+            default:          kind = Token.PASSTHROUGH; break;
+        }
+
+        List<Op> ops = new ArrayList<>();
+        List<String> colourParts = new ArrayList<>();
+        if (spec != null) {
+            for (String rawPart : spec.split("\\|")) {
+                String part = rawPart.trim();
+                Op op = compileOp(part, kind == Token.TIMESTAMP);
+                if (op != null) {
+                    ops.add(op);
+                } else {
+                    colourParts.add(part.toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+
+        // Resolve the final (last selected) colour for every level now, so rendering is an array lookup
+        String[] colours = null;
+        if (!colourParts.isEmpty()) {
+            colours = new String[LEVELS.length];
+            for (LogLevel lv : LEVELS) {
+                AnsiColour selected = null;
+                for (String upper : colourParts) {
+                    if ("LEVEL".equals(upper)) {
+                        selected = palette.get(lv);
+                    } else {
+                        AnsiColour a = AnsiColour.of(upper);
+                        if (a != null) selected = a;
+                    }
+                }
+                colours[lv.ordinal()] = selected == null ? null : selected.getCode();
+            }
+        }
+
+        return new Token(kind, "%{" + inside + "}", tf, ops.toArray(new Op[0]), colours);
+    }
+
+    /** Returns the operation for a spec part, or null if the part is (possibly) a colour. */
+    private static Op compileOp(String part, boolean isTimestamp) {
+        String upper = part.toUpperCase(Locale.ROOT);
+        int l = part.indexOf('(');
+        int r = part.lastIndexOf(')');
+        if (l < 0 || r <= l) return null;
+        String args = part.substring(l + 1, r);
+
+        if (upper.startsWith("PADLEFT") || upper.startsWith("PADRIGHT")) {
+            Object[] parsed = PatternEngine.parseWidthAndFill(args);
+            return new Pad(upper.startsWith("PADLEFT"), (Integer) parsed[0], (Character) parsed[1]);
+        } else if (upper.startsWith("SUBSTRING")) {
+            args = args.trim();
+            int start = 0;
+            Integer end = null;
+            if (!args.isEmpty()) {
+                String[] nums = args.split(",");
+                try {
+                    if (nums.length >= 1) start = Integer.parseInt(nums[0].trim());
+                    if (nums.length >= 2) end = Integer.parseInt(nums[1].trim());
+                } catch (NumberFormatException ignored) {
+                    // keep what was parsed so far
+                }
+            }
+            return new Substring(start, end);
+        } else if (upper.startsWith("DATETIME") && isTimestamp) {
+            String fmt = args.trim();
+            if ((fmt.startsWith("'") && fmt.endsWith("'")) || (fmt.startsWith("\"") && fmt.endsWith("\""))) {
+                fmt = fmt.substring(1, fmt.length() - 1);
+            }
+            try {
+                return new DateTime(new CachedTimestampFormatter(DateTimeFormatter.ofPattern(fmt)));
+            } catch (IllegalArgumentException ignored) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // --- plan elements ---
+
+    private interface Segment {
+        /** @return true if an ANSI escape was written to {@code coloured} */
+        boolean render(PrintJob j, StringBuilder plain, StringBuilder coloured);
+    }
+
+    /** An in-place operation on the token value held in {@code out[start..]}. */
+    private interface Op {
+        void apply(PrintJob j, StringBuilder out, int start);
+    }
+
+    private static final class Literal implements Segment {
+        private final String text;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public boolean render(PrintJob j, StringBuilder plain, StringBuilder coloured) {
+            plain.append(text);
+            if (coloured != null) coloured.append(text);
+            return false;
+        }
+    }
+
+    private static final class Token implements Segment {
+        static final int TIMESTAMP = 0, LEVEL = 1, THREAD = 2, SEQUENCE = 3, MESSAGE = 4, NAME = 5, PASSTHROUGH = 6;
+
+        private final int kind;
+        private final String raw;
+        private final CachedTimestampFormatter tf;
+        private final Op[] ops;
+        /** Colour code per level ordinal, or null when the token is never coloured. */
+        private final String[] colours;
+
+        Token(int kind, String raw, CachedTimestampFormatter tf, Op[] ops, String[] colours) {
+            this.kind = kind;
+            this.raw = raw;
+            this.tf = tf;
+            this.ops = ops;
+            this.colours = colours;
+        }
+
+        @Override
+        public boolean render(PrintJob j, StringBuilder plain, StringBuilder coloured) {
+            int start = plain.length();
+            appendValue(j, plain);
+            for (Op op : ops) {
+                op.apply(j, plain, start);
+            }
+            if (coloured == null) return false;
+
+            String colour = colours != null ? colours[j.level.ordinal()] : null;
+            if (colour == null) {
+                coloured.append(plain, start, plain.length());
+                return false;
+            }
+            coloured.append(colour).append(plain, start, plain.length()).append(RESET);
+            return true;
+        }
+
+        private void appendValue(PrintJob j, StringBuilder out) {
+            String value;
+            switch (kind) {
+                case TIMESTAMP:
+                    tf.formatTo(j.timeMillis, out);
+                    return;
+                case SEQUENCE:
+                    out.append(j.sequence);
+                    return;
+                case LEVEL:
+                    value = j.level.name();
+                    break;
+                case THREAD:
+                    value = j.thread;
+                    break;
+                case MESSAGE:
+                    if (j.message == null && j.text != null) {
+                        out.append(j.text);
+                        return;
+                    }
+                    value = j.message;
+                    break;
+                case NAME:
+                    value = j.name;
+                    break;
+                default:
+                    value = raw;
+                    break;
+            }
+            // PatternEngine treats a null value as "" once any spec operation touches it
+            if (value != null || ops.length == 0) out.append(value);
+        }
+    }
+
+    private static final class Pad implements Op {
+        private final boolean left;
+        private final int width;
+        private final char fill;
+
+        Pad(boolean left, int width, char fill) {
+            this.left = left;
+            this.width = width;
+            this.fill = fill;
+        }
+
+        @Override
+        public void apply(PrintJob j, StringBuilder out, int start) {
+            int len = out.length() - start;
+            int n = width - len;
+            if (n <= 0) return;
+            if (!left) {
+                for (int i = 0; i < n; i++) out.append(fill);
+                return;
+            }
+            out.setLength(start + width);
+            for (int i = len - 1; i >= 0; i--) {
+                out.setCharAt(start + n + i, out.charAt(start + i));
+            }
+            for (int i = 0; i < n; i++) out.setCharAt(start + i, fill);
+        }
+    }
+
+    private static final class Substring implements Op {
+        private final int start;
+        private final int end;
+        private final boolean toEnd;
+
+        Substring(int start, Integer endExclusiveOrNull) {
+            this.start = start;
+            this.end = endExclusiveOrNull == null ? 0 : endExclusiveOrNull;
+            this.toEnd = endExclusiveOrNull == null;
+        }
+
+        @Override
+        public void apply(PrintJob j, StringBuilder out, int from) {
+            int len = out.length() - from;
+            int s = Math.min(Math.max(start, 0), len);
+            int e = toEnd ? len : end;
+            if (e < s) e = s;
+            if (e > len) e = len;
+            out.setLength(from + e);
+            if (s > 0) out.delete(from, from + s);
+        }
+    }
+
+    private static final class DateTime implements Op {
+        private final CachedTimestampFormatter formatter;
+
+        DateTime(CachedTimestampFormatter formatter) {
+            this.formatter = formatter;
+        }
+
+        @Override
+        public void apply(PrintJob j, StringBuilder out, int start) {
+            out.setLength(start);
+            formatter.formatTo(j.timeMillis, out);
+        }
+    }
+}
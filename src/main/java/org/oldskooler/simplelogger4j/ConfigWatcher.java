@@ -0,0 +1,92 @@
+package org.oldskooler.simplelogger4j;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the config file the bus was started from, {@code <reload enabled="true">}, and hands each
+ * new version to the bus. Editors and deploy tools often write a file in several steps, so after a
+ * change the watcher waits until the file has been left alone for {@code delayMs} before parsing it.
+ * A version that cannot be read or parsed is reported and skipped; the running config stays.
+ */
+final class ConfigWatcher {
+    private final Path file;
+    private final long delayNanos;
+    private final Consumer<LogConfig> onChange;
+    private final WatchService watcher;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    ConfigWatcher(String path, long delayMs, Consumer<LogConfig> onChange) throws IOException {
+        this.file = Paths.get(path).toAbsolutePath().normalize();
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMs));
+        this.onChange = onChange;
+        Path dir = file.getParent();
+        watcher = dir.getFileSystem().newWatchService();
+        // Create as well as modify: many tools write a temporary file and rename it over the old one
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::loop, "Logger-Config-Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void loop() {
+        try {
+            while(!closed) {
+                if(!concernsFile(watcher.take())) continue;
+                // Other files in the directory may keep changing, so wait on a deadline rather than for silence
+                long deadline = System.nanoTime() + delayNanos;
+                long left;
+                while((left = deadline - System.nanoTime()) > 0) {
+                    WatchKey key = watcher.poll(left, TimeUnit.NANOSECONDS);
+                    if(key != null && concernsFile(key)) deadline = System.nanoTime() + delayNanos;
+                }
+                reload();
+            }
+        } catch(InterruptedException | ClosedWatchServiceException e) {
+            // Closed at shutdown
+        }
+    }
+
+    private boolean concernsFile(WatchKey key) {
+        boolean ours = false;
+        for(WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(context)) ours = true;
+        }
+        key.reset();
+        return ours;
+    }
+
+    private void reload() {
+        LogConfig fresh;
+        try {
+            fresh = LogConfig.parse(file.toString());
+        } catch(Exception e) {
+            System.err.println("Logger reload of " + file + " failed; keeping the running config. Reason: " + e.getMessage());
+            return;
+        }
+        try {
+            onChange.accept(fresh);
+        } catch(RuntimeException e) {
+            System.err.println("Logger reload of " + file + " failed; keeping the running config. Reason: " + e.getMessage());
+        }
+    }
+
+    void close() {
+        closed = true;
+        try {
+            watcher.close();
+        } catch(IOException ignore) {
+            // Ignore cleanup exceptions
+        }
+    }
+}
@@ -1,6 +1,18 @@
 package org.oldskooler.simplelogger4j;
 
+/**
+ * Post-processes each message after its {@code {}} arguments are filled in. Called on a writer
+ * thread, or under CALLER_RUNS on whichever logging thread writes, never necessarily the thread
+ * that logged the message: context such as that thread's ThreadLocals is not available. In
+ * garbage-free mode it is called on the logging thread, into the recycled event's buffer.
+ */
 public interface Formatter {
     String formatMessage(String message);
-}
 
+    /** In-place variant used by garbage-free logging; override to avoid the String round trip. */
+    default void formatMessage(StringBuilder message) {
+        String formatted = formatMessage(message.toString());
+        message.setLength(0);
+        message.append(formatted);
+    }
+}
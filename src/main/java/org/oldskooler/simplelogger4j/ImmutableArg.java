@@ -0,0 +1,29 @@
+package org.oldskooler.simplelogger4j;
+
+/**
+ * Marks a log argument as immutable, so the snapshot policy hands it to the writer as-is
+ * instead of copying its {@code toString()} on the calling thread.
+ * <pre>
+ * logger.info("Routing {} via {}", ImmutableArg.of(request), route);
+ * </pre>
+ */
+public final class ImmutableArg {
+    private final Object value;
+
+    private ImmutableArg(Object value) {
+        this.value = value;
+    }
+
+    public static ImmutableArg of(Object value) {
+        return new ImmutableArg(value);
+    }
+
+    public Object get() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,68 @@
+package org.oldskooler.simplelogger4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-logger levels, arranged by the dot-separated parts of the logger name: a level set for
+ * {@code com.acme.db} applies to {@code com.acme.db.Pool} and everything else below it, unless
+ * something deeper sets its own. The root holds {@code minLevel}.
+ * <p>
+ * Resolving a name walks the trie, so loggers do it once and cache the result. Every change bumps
+ * {@link #generation()}; a logger whose cached generation differs resolves again. A reload swaps in
+ * the whole trie of the new file at once, so no logger sees a mix of old and new levels.
+ */
+final class LevelTrie {
+    private static final class Node {
+        final ConcurrentHashMap<String, Node> children = new ConcurrentHashMap<>(4);
+        /** Null if this node inherits its parent's level. */
+        volatile LogLevel level;
+    }
+
+    private volatile Node root = new Node();
+    private volatile int generation;
+
+    LevelTrie(LogLevel rootLevel) {
+        root.level = rootLevel;
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    /** Sets the level for {@code name} and everything below it; an empty name sets the root. A null level inherits again. */
+    synchronized void set(String name, LogLevel level) {
+        Node node = root;
+        if (!name.isEmpty()) {
+            for (String part : name.split("\\.")) {
+                node = node.children.computeIfAbsent(part, p -> new Node());
+            }
+        }
+        if (level == null && node == root) throw new IllegalArgumentException("the root level cannot be cleared");
+        node.level = level;
+        generation++;
+    }
+
+    /** Replaces every level with those of {@code other}, which must not be used afterwards. */
+    synchronized void replaceWith(LevelTrie other) {
+        root = other.root;
+        generation++;
+    }
+
+    /** The level set nearest to {@code name}: its own, else the closest ancestor's, else the root's. */
+    LogLevel resolve(String name) {
+        Node node = root;
+        LogLevel level = node.level;
+        if (name == null) return level;
+        int start = 0;
+        while (start <= name.length()) {
+            int dot = name.indexOf('.', start);
+            if (dot < 0) dot = name.length();
+            node = node.children.get(name.substring(start, dot));
+            if (node == null) break;
+            LogLevel own = node.level;
+            if (own != null) level = own;
+            start = dot + 1;
+        }
+        return level;
+    }
+}
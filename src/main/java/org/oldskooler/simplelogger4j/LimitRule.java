@@ -0,0 +1,59 @@
+package org.oldskooler.simplelogger4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code <limit>}: the events it applies to, by logger name prefix and optionally level, and
+ * how many of them get through: 1 in {@code sample}, each with {@code probability}, then at most
+ * {@code rate} per second with bursts of up to {@code burst}.
+ */
+final class LimitRule {
+    /** Dot-separated name prefix, as for {@code <levels>}; empty for every logger. */
+    final String logger;
+    /** Null for every level. */
+    final LogLevel level;
+    final double rate;
+    final int burst;
+    final int sample;
+    final double probability;
+    /** Count each message template separately rather than the logger as a whole. */
+    final boolean perTemplate;
+    /** The rate as the time one event uses up, and how far ahead of time a burst may run; 0 without a rate. */
+    final long intervalNanos;
+    final long toleranceNanos;
+
+    LimitRule(String logger, LogLevel level, double rate, int burst, int sample, double probability, boolean perTemplate) {
+        if(rate < 0 || sample < 0 || probability < 0 || probability > 1) {
+            throw new IllegalArgumentException("limit for '" + logger + "': rate and sample must be positive and probability from 0 to 1");
+        }
+        this.logger = logger;
+        this.level = level;
+        this.rate = rate;
+        this.burst = Math.max(1, burst > 0 ? burst : (int) Math.ceil(rate));
+        this.sample = sample;
+        this.probability = probability;
+        this.perTemplate = perTemplate;
+        this.intervalNanos = rate > 0 ? Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate)) : 0;
+        this.toleranceNanos = intervalNanos * (this.burst - 1);
+    }
+
+    /** How closely this rule fits: -1 if it does not apply, else longer prefixes and a set level fit better. */
+    int match(String name, LogLevel lvl) {
+        if(level != null && level != lvl) return -1;
+        if(!logger.isEmpty()) {
+            if(name == null || !name.startsWith(logger)) return -1;
+            if(name.length() > logger.length() && name.charAt(logger.length()) != '.') return -1;
+        }
+        return logger.length() * 2 + (level != null ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if(sample > 1) sb.append("1 in ").append(sample);
+        if(probability < 1) sb.append(sb.length() > 0 ? ", " : "").append("probability ").append(probability);
+        if(rate > 0) sb.append(sb.length() > 0 ? ", " : "")
+                .append(rate == Math.rint(rate) ? Long.toString((long) rate) : Double.toString(rate)).append("/s burst ").append(burst);
+        return sb.length() > 0 ? sb.toString() : "no limit";
+    }
+}
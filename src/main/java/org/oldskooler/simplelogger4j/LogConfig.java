@@ -2,26 +2,136 @@ package org.oldskooler.simplelogger4j;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.oldskooler.simplelogger4j.ansi.AnsiColour;
+import org.oldskooler.simplelogger4j.appenders.AsyncSettings;
+import org.oldskooler.simplelogger4j.appenders.FileAppenderType;
+import org.oldskooler.simplelogger4j.appenders.RolloverInterval;
+import org.oldskooler.simplelogger4j.clock.LogClock;
+import org.oldskooler.simplelogger4j.clock.SystemClock;
+import org.oldskooler.simplelogger4j.queue.QueueType;
 import org.w3c.dom.*;
 
-public class LogConfig {
-    private LogLevel minLevel = LogLevel.INFO;
+public class LogConfig implements Cloneable {
+    /** Per-logger levels by name prefix, {@code <levels>}; the root is {@code minLevel}. */
+    private final LevelTrie levels = new LevelTrie(LogLevel.INFO);
     private int queueSize = 8192;
+    private QueueType queueType = QueueType.MPSC;
+    /** What logging calls do when the queue is full. */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    /** Longest a logging call waits for space under BLOCK and DROP_BELOW. */
+    private long overflowTimeoutMs = 100;
+    /** Under DROP_BELOW, events below this level are dropped without waiting. */
+    private LogLevel overflowLevel = LogLevel.WARN;
+    /** Number of queues, each with its own writer thread. */
+    private int shardCount = 1;
+    /** How events are spread over the shards: by logger NAME or producer THREAD. */
+    private ShardPartition shardPartition = ShardPartition.NAME;
+    /** Merge the shards' output back into one set of appenders in sequence order, instead of a file per shard. */
+    private boolean shardMerge = false;
+    /** Longest the merge waits for a missing sequence number before writing later events. */
+    private long shardMergeWindowMs = 20;
+    /** Log through a ring of preallocated, recycled events instead of allocating one per call. */
+    private boolean garbageFree = false;
+    /** Copy mutable log arguments to Strings on the calling thread, before they are queued. */
+    private boolean snapshotArgs = false;
+    /** Most frames printed per exception in a stack trace; 0 for all. */
+    private int traceMaxFrames = 0;
+    /** Most levels of causes and suppressed exceptions printed below an exception; 0 for all. */
+    private int traceMaxCauses = 0;
+    /** Within this long, a stack trace printed before is only referred to; 0 prints every trace in full. */
+    private long traceDedupWindowMs = 0;
+    /** Replace exceptions with a {@link ThrowableSnapshot} on the calling thread, before they are queued. */
+    private boolean traceSnapshot = false;
     private String timeFormat = "yyyy-MM-dd HH:mm:ss.SSS";
+    /** Where event timestamps come from: SYSTEM, CACHED or a LogClock class name. */
+    private LogClock clock = SystemClock.INSTANCE;
+    /** What {@code %{thread}} shows: NAME, ID or VIRTUAL_ID. */
+    private ThreadFormat threadFormat = ThreadFormat.NAME;
     private String pattern = "[%{timestamp:BRIGHT_BLACK}] [%{level:LEVEL}] [%{thread:CYAN}] %{message}";
-    private int flushEvery = 10;
+    /** Also flush after this many events; 0 leaves flushing to the policy below. */
+    private int flushEvery = 0;
+    /** Most events the writer takes from the queue and writes in one go. */
+    private int batchSize = 256;
+    /** Flush once roughly this many bytes (rendered characters) have been written since the last flush. */
+    private int flushBytes = 64 * 1024;
+    /** Flush when the oldest unflushed event is this old; 0 disables the time trigger. */
+    private long flushIntervalMs = 1000;
+    /** Flush whenever the writer finds the queue empty. */
+    private boolean flushOnIdle = true;
+    /** Events at this level and above are flushed as soon as they are written. */
+    private LogLevel flushImmediateLevel = LogLevel.ERROR;
     private boolean consoleEnabled = true;
     private boolean fileEnabled = true;
     private String filePath = "logs/app-%d{yyyy-MM-dd}.log";
     private int fileBufferSize = 8192;
     private boolean fileAppend = true;
+    /** How the file appender writes: STREAM (PrintWriter), CHANNEL (FileChannel + direct buffer) or MMAP. */
+    private FileAppenderType fileType = FileAppenderType.STREAM;
+    /** Bytes mapped at a time by the MMAP file appender. */
+    private long fileMapChunkSize = 32L * 1024 * 1024;
+    private boolean rollingEnabled = false;
+    private String rollingPath = "logs/app-%d{yyyy-MM-dd}.log";
+    private int rollingBufferSize = 65536;
+    private RolloverInterval rollingInterval = RolloverInterval.DAY;
+    /** Roll over once the file reaches this many bytes; 0 for no size limit. */
+    private long rollingMaxSize = 0;
+    /** Archived files to keep; 0 for no limit. */
+    private int rollingMaxFiles = 30;
+    /** Total bytes of archived files to keep; 0 for no limit. */
+    private long rollingMaxTotalSize = 0;
+    private boolean rollingCompress = true;
+    /** How the rolling file appender writes: CHANNEL or MMAP; it has no STREAM variant. */
+    private FileAppenderType rollingType = FileAppenderType.CHANNEL;
+    /** Bytes mapped at a time by the MMAP rolling file appender. */
+    private long rollingMapChunkSize = 32L * 1024 * 1024;
+    /** Events in the binary format, see {@link org.oldskooler.simplelogger4j.binary.BinaryAppender}. */
+    private boolean binaryEnabled = false;
+    private String binaryPath = "logs/app-%d{yyyy-MM-dd}.sl4j";
+    private int binaryBufferSize = 65536;
+    private boolean binaryAppend = true;
+    /** Strings (thread and logger names, templates) a binary file refers to by id; the rest are written inline. */
+    private int binaryDictionarySize = 4096;
+    /** Events as JSON lines, see {@link org.oldskooler.simplelogger4j.appenders.JsonAppender}. */
+    private boolean jsonEnabled = false;
+    private String jsonPath = "logs/app-%d{yyyy-MM-dd}.jsonl";
+    private int jsonBufferSize = 65536;
+    private boolean jsonAppend = true;
+    /** Timestamps as epoch milliseconds instead of ISO-8601 UTC strings. */
+    private boolean jsonEpochTimestamp = false;
+    /** Constant fields added to every JSON line, in order. */
+    private Map<String, String> jsonFields = new LinkedHashMap<>();
+    /** Per-appender thread and buffer; null when the appender runs on the writer thread. */
+    private AsyncSettings consoleAsync;
+    private AsyncSettings fileAsync;
+    private AsyncSettings rollingAsync;
+    /** Watch the config file and apply changes while running, {@code <reload enabled="true">}. */
+    private boolean reloadEnabled = false;
+    /** How long the file must be left alone after a change before it is parsed again. */
+    private long reloadDelayMs = 100;
+    /** Write runs of identical events as one and a count, {@code <collapseRepeats>}; see {@link RepeatCollapser}. */
+    private boolean collapseRepeats = false;
+    /** Longest repeats are held back before their count is written. */
+    private long collapseMaxHoldMs = 1000;
+    /** Sampling and rate limits applied before events are queued, {@code <limits>}; see {@link RateLimits}. */
+    private List<LimitRule> limits = new ArrayList<>();
+    /** How often the number of events held back by the limits is logged. */
+    private long limitSummaryIntervalMs = 10_000;
+    /** Keep bus-wide metrics, {@code <metrics enabled="true">}. */
+    private boolean metricsEnabled = false;
+    /** Register the metrics as a JMX MBean. */
+    private boolean metricsJmx = true;
+    /** The file this config was read from; null when built in code. */
+    private String sourcePath;
     /** Enable ANSI on console (auto-stripped for file). */
     private boolean consoleColour = true;
     /** Level→colour used when pattern asks for LEVEL-based colour (default: DEBUG gray, INFO none, WARN yellow, ERROR red). */
@@ -30,60 +140,211 @@ public class LogConfig {
     public static LogConfig fromXml(String xmlPath) {
         LogConfig cfg = new LogConfig();
         try {
-            Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new File(xmlPath));
-            doc.getDocumentElement().normalize();
-            cfg.minLevel   = getEnum(doc,"minLevel",cfg.minLevel);
-            cfg.queueSize  = getInt(doc,"queueSize",cfg.queueSize);
-            cfg.timeFormat = getText(doc,"timeFormat",cfg.timeFormat);
-            cfg.pattern    = getText(doc,"pattern",cfg.pattern);
-            cfg.flushEvery = getInt(doc,"flushEvery",cfg.flushEvery);
-            String consoleColourTxt = getText(doc,"consoleColour", Boolean.toString(cfg.consoleColour));
-            if(consoleColourTxt != null) cfg.consoleColour = Boolean.parseBoolean(consoleColourTxt);
-
-            Node appenders = doc.getElementsByTagName("appenders").item(0);
-            if(appenders != null) {
-                NodeList list = appenders.getChildNodes();
-                for(int i = 0; i < list.getLength(); i++) {
-                    Node n = list.item(i);
-                    if(n.getNodeType() != Node.ELEMENT_NODE) continue;
-                    Element e = (Element)n;
-                    switch(e.getTagName()) {
-                        case "console": {
-                            cfg.consoleEnabled = getBoolAttr(e, "enabled", true);
-                            break;
-                        }
-                        case "file": {
-                            cfg.fileEnabled = getBoolAttr(e, "enabled", true);
-                            if (e.hasAttribute("path")) cfg.filePath = e.getAttribute("path");
-                            if (e.hasAttribute("bufferSize"))
-                                cfg.fileBufferSize = Integer.parseInt(e.getAttribute("bufferSize"));
-                            if (e.hasAttribute("append"))
-                                cfg.fileAppend = Boolean.parseBoolean(e.getAttribute("append"));
-                            break;
+            read(xmlPath, cfg);
+        } catch(Exception e) {
+            System.err.println("Logger XML load failed; using defaults. Reason: " + e.getMessage());
+        }
+        return cfg;
+    }
+
+    /** Like {@link #fromXml}, but a file that cannot be read or parsed is an error rather than defaults. */
+    static LogConfig parse(String xmlPath) throws Exception {
+        LogConfig cfg = new LogConfig();
+        read(xmlPath, cfg);
+        return cfg;
+    }
+
+    private static void read(String xmlPath, LogConfig cfg) throws Exception {
+        cfg.sourcePath = xmlPath;
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new File(xmlPath));
+        doc.getDocumentElement().normalize();
+        cfg.levels.set("", getEnum(doc,"minLevel",cfg.getMinLevel()));
+        cfg.queueSize  = getInt(doc,"queueSize",cfg.queueSize);
+        cfg.queueType  = getQueueType(doc,"queueType",cfg.queueType);
+        cfg.timeFormat = getText(doc,"timeFormat",cfg.timeFormat);
+        cfg.pattern    = getText(doc,"pattern",cfg.pattern);
+        cfg.clock      = getClock(doc,"clock",cfg.clock);
+        cfg.threadFormat = getThreadFormat(doc,"threadFormat",cfg.threadFormat);
+        cfg.flushEvery = getInt(doc,"flushEvery",cfg.flushEvery);
+        cfg.batchSize  = getInt(doc,"batchSize",cfg.batchSize);
+        String garbageFreeTxt = getText(doc,"garbageFree", Boolean.toString(cfg.garbageFree));
+        if(garbageFreeTxt != null) cfg.garbageFree = Boolean.parseBoolean(garbageFreeTxt);
+        String snapshotArgsTxt = getText(doc,"snapshotArgs", Boolean.toString(cfg.snapshotArgs));
+        if(snapshotArgsTxt != null) cfg.snapshotArgs = Boolean.parseBoolean(snapshotArgsTxt);
+        String consoleColourTxt = getText(doc,"consoleColour", Boolean.toString(cfg.consoleColour));
+        if(consoleColourTxt != null) cfg.consoleColour = Boolean.parseBoolean(consoleColourTxt);
+
+        Node appenders = doc.getElementsByTagName("appenders").item(0);
+        if(appenders != null) {
+            NodeList list = appenders.getChildNodes();
+            for(int i = 0; i < list.getLength(); i++) {
+                Node n = list.item(i);
+                if(n.getNodeType() != Node.ELEMENT_NODE) continue;
+                Element e = (Element)n;
+                switch(e.getTagName()) {
+                    case "console": {
+                        cfg.consoleEnabled = getBoolAttr(e, "enabled", true);
+                        cfg.consoleAsync = getAsync(e);
+                        break;
+                    }
+                    case "file": {
+                        cfg.fileEnabled = getBoolAttr(e, "enabled", true);
+                        if (e.hasAttribute("path")) cfg.filePath = e.getAttribute("path");
+                        if (e.hasAttribute("bufferSize"))
+                            cfg.fileBufferSize = Integer.parseInt(e.getAttribute("bufferSize"));
+                        if (e.hasAttribute("append"))
+                            cfg.fileAppend = Boolean.parseBoolean(e.getAttribute("append"));
+                        cfg.fileType = getFileType(e, "type", cfg.fileType);
+                        cfg.fileAsync = getAsync(e);
+                        if (e.hasAttribute("mapChunkSize"))
+                            cfg.fileMapChunkSize = Long.parseLong(e.getAttribute("mapChunkSize"));
+                        break;
+                    }
+                    case "rollingFile": {
+                        cfg.rollingEnabled = getBoolAttr(e, "enabled", true);
+                        if (e.hasAttribute("path")) cfg.rollingPath = e.getAttribute("path");
+                        if (e.hasAttribute("bufferSize"))
+                            cfg.rollingBufferSize = Integer.parseInt(e.getAttribute("bufferSize"));
+                        if (e.hasAttribute("interval"))
+                            cfg.rollingInterval = RolloverInterval.parse(e.getAttribute("interval"));
+                        if (e.hasAttribute("maxSize"))
+                            cfg.rollingMaxSize = parseSize(e.getAttribute("maxSize"));
+                        if (e.hasAttribute("maxFiles"))
+                            cfg.rollingMaxFiles = Integer.parseInt(e.getAttribute("maxFiles"));
+                        if (e.hasAttribute("maxTotalSize"))
+                            cfg.rollingMaxTotalSize = parseSize(e.getAttribute("maxTotalSize"));
+                        cfg.rollingCompress = getBoolAttr(e, "compress", cfg.rollingCompress);
+                        cfg.rollingType = getFileType(e, "type", cfg.rollingType);
+                        if (cfg.rollingType == FileAppenderType.STREAM) cfg.rollingType = FileAppenderType.CHANNEL;
+                        if (e.hasAttribute("mapChunkSize"))
+                            cfg.rollingMapChunkSize = Long.parseLong(e.getAttribute("mapChunkSize"));
+                        cfg.rollingAsync = getAsync(e);
+                        break;
+                    }
+                    case "json": {
+                        cfg.jsonEnabled = getBoolAttr(e, "enabled", true);
+                        if (e.hasAttribute("path")) cfg.jsonPath = e.getAttribute("path");
+                        if (e.hasAttribute("bufferSize"))
+                            cfg.jsonBufferSize = Integer.parseInt(e.getAttribute("bufferSize"));
+                        if (e.hasAttribute("append"))
+                            cfg.jsonAppend = Boolean.parseBoolean(e.getAttribute("append"));
+                        if (e.hasAttribute("timestamp"))
+                            cfg.jsonEpochTimestamp = e.getAttribute("timestamp").trim().equalsIgnoreCase("epoch");
+                        NodeList fields = e.getElementsByTagName("field");
+                        cfg.jsonFields = new LinkedHashMap<>();
+                        for (int f = 0; f < fields.getLength(); f++) {
+                            Element field = (Element) fields.item(f);
+                            cfg.jsonFields.put(field.getAttribute("name"), field.getAttribute("value"));
                         }
+                        break;
                     }
-                }
-            }
-            // Optional: levelPalette overrides
-            Node lp = doc.getElementsByTagName("levelPalette").item(0);
-            if(lp instanceof Element) {
-                Element el = (Element) lp;
-                Map<LogLevel, AnsiColour> p = new EnumMap<>(LogLevel.class);
-                for(LogLevel lv: LogLevel.values()) {
-                    String txt = el.getAttribute(lv.name().toLowerCase(Locale.ROOT));
-                    if(!txt.isEmpty()) {
-                        AnsiColour a = AnsiColour.of(txt);
-                        if(a != null) p.put(lv, a);
+                    case "binary": {
+                        cfg.binaryEnabled = getBoolAttr(e, "enabled", true);
+                        if (e.hasAttribute("path")) cfg.binaryPath = e.getAttribute("path");
+                        if (e.hasAttribute("bufferSize"))
+                            cfg.binaryBufferSize = Integer.parseInt(e.getAttribute("bufferSize"));
+                        if (e.hasAttribute("append"))
+                            cfg.binaryAppend = Boolean.parseBoolean(e.getAttribute("append"));
+                        if (e.hasAttribute("dictionarySize"))
+                            cfg.binaryDictionarySize = Integer.parseInt(e.getAttribute("dictionarySize"));
+                        break;
                     }
                 }
-                if(!p.isEmpty()) {
-                    cfg.levelPalette.putAll(p);
+            }
+        }
+        Node overflow = doc.getElementsByTagName("overflow").item(0);
+        if(overflow instanceof Element) {
+            Element e = (Element) overflow;
+            if (e.hasAttribute("policy")) cfg.overflowPolicy = OverflowPolicy.parse(e.getAttribute("policy"));
+            if (e.hasAttribute("timeoutMs")) cfg.overflowTimeoutMs = Long.parseLong(e.getAttribute("timeoutMs"));
+            if (e.hasAttribute("level")) cfg.overflowLevel = LogLevel.parse(e.getAttribute("level"));
+        }
+        Node traces = doc.getElementsByTagName("stackTraces").item(0);
+        if(traces instanceof Element) {
+            Element e = (Element) traces;
+            if (e.hasAttribute("maxFrames")) cfg.traceMaxFrames = Math.max(0, Integer.parseInt(e.getAttribute("maxFrames")));
+            if (e.hasAttribute("maxCauses")) cfg.traceMaxCauses = Math.max(0, Integer.parseInt(e.getAttribute("maxCauses")));
+            if (e.hasAttribute("dedupWindowMs")) cfg.traceDedupWindowMs = Math.max(0, Long.parseLong(e.getAttribute("dedupWindowMs")));
+            cfg.traceSnapshot = getBoolAttr(e, "snapshot", cfg.traceSnapshot);
+        }
+        Node collapse = doc.getElementsByTagName("collapseRepeats").item(0);
+        if(collapse instanceof Element) {
+            Element e = (Element) collapse;
+            cfg.collapseRepeats = getBoolAttr(e, "enabled", true);
+            if (e.hasAttribute("maxHoldMs")) cfg.collapseMaxHoldMs = Long.parseLong(e.getAttribute("maxHoldMs"));
+        }
+        Node limits = doc.getElementsByTagName("limits").item(0);
+        if(limits instanceof Element) {
+            Element el = (Element) limits;
+            if (el.hasAttribute("summaryIntervalMs")) cfg.limitSummaryIntervalMs = Long.parseLong(el.getAttribute("summaryIntervalMs"));
+            NodeList list = el.getChildNodes();
+            for(int i = 0; i < list.getLength(); i++) {
+                Node n = list.item(i);
+                if(n.getNodeType() != Node.ELEMENT_NODE || !((Element) n).getTagName().equals("limit")) continue;
+                Element e = (Element) n;
+                cfg.limits.add(new LimitRule(e.getAttribute("logger").trim(),
+                        e.hasAttribute("level") ? LogLevel.parse(e.getAttribute("level")) : null,
+                        e.hasAttribute("rate") ? Double.parseDouble(e.getAttribute("rate")) : 0,
+                        e.hasAttribute("burst") ? Integer.parseInt(e.getAttribute("burst")) : 0,
+                        e.hasAttribute("sample") ? Integer.parseInt(e.getAttribute("sample")) : 0,
+                        e.hasAttribute("probability") ? Double.parseDouble(e.getAttribute("probability")) : 1,
+                        getBoolAttr(e, "perTemplate", false)));
+            }
+        }
+        Node levels = doc.getElementsByTagName("levels").item(0);
+        if(levels != null) {
+            NodeList list = levels.getChildNodes();
+            for(int i = 0; i < list.getLength(); i++) {
+                Node n = list.item(i);
+                if(n.getNodeType() != Node.ELEMENT_NODE || !((Element) n).getTagName().equals("logger")) continue;
+                Element e = (Element) n;
+                cfg.levels.set(e.getAttribute("name").trim(), LogLevel.parse(e.getAttribute("level")));
+            }
+        }
+        Node shards = doc.getElementsByTagName("shards").item(0);
+        if(shards instanceof Element) {
+            Element e = (Element) shards;
+            if (e.hasAttribute("count")) cfg.shardCount = Math.max(1, Integer.parseInt(e.getAttribute("count")));
+            if (e.hasAttribute("partition")) cfg.shardPartition = ShardPartition.parse(e.getAttribute("partition"));
+            cfg.shardMerge = getBoolAttr(e, "merge", cfg.shardMerge);
+            if (e.hasAttribute("mergeWindowMs")) cfg.shardMergeWindowMs = Long.parseLong(e.getAttribute("mergeWindowMs"));
+        }
+        Node flush = doc.getElementsByTagName("flush").item(0);
+        if(flush instanceof Element) {
+            Element e = (Element) flush;
+            if (e.hasAttribute("bytes")) cfg.flushBytes = Integer.parseInt(e.getAttribute("bytes"));
+            if (e.hasAttribute("intervalMs")) cfg.flushIntervalMs = Long.parseLong(e.getAttribute("intervalMs"));
+            cfg.flushOnIdle = getBoolAttr(e, "onIdle", cfg.flushOnIdle);
+            if (e.hasAttribute("immediateLevel")) cfg.flushImmediateLevel = LogLevel.parse(e.getAttribute("immediateLevel"));
+        }
+        Node metrics = doc.getElementsByTagName("metrics").item(0);
+        if(metrics instanceof Element) {
+            Element e = (Element) metrics;
+            cfg.metricsEnabled = getBoolAttr(e, "enabled", true);
+            cfg.metricsJmx = getBoolAttr(e, "jmx", cfg.metricsJmx);
+        }
+        Node reload = doc.getElementsByTagName("reload").item(0);
+        if(reload instanceof Element) {
+            Element e = (Element) reload;
+            cfg.reloadEnabled = getBoolAttr(e, "enabled", true);
+            if (e.hasAttribute("delayMs")) cfg.reloadDelayMs = Long.parseLong(e.getAttribute("delayMs"));
+        }
+        // Optional: levelPalette overrides
+        Node lp = doc.getElementsByTagName("levelPalette").item(0);
+        if(lp instanceof Element) {
+            Element el = (Element) lp;
+            Map<LogLevel, AnsiColour> p = new EnumMap<>(LogLevel.class);
+            for(LogLevel lv: LogLevel.values()) {
+                String txt = el.getAttribute(lv.name().toLowerCase(Locale.ROOT));
+                if(!txt.isEmpty()) {
+                    AnsiColour a = AnsiColour.of(txt);
+                    if(a != null) p.put(lv, a);
                 }
             }
-        } catch(Exception e) {
-            System.err.println("Logger XML load failed; using defaults. Reason: " + e.getMessage());
+            if(!p.isEmpty()) {
+                cfg.levelPalette.putAll(p);
+            }
         }
-        return cfg;
     }
 
     private static Map<LogLevel, AnsiColour> defaultPalette() {
@@ -118,22 +379,206 @@ public class LogConfig {
         }
     }
 
+    private static QueueType getQueueType(Document d, String tag, QueueType def) {
+        try {
+            return QueueType.parse(getText(d, tag, def.name()));
+        } catch(Exception e) {
+            return def;
+        }
+    }
+
+    private static ThreadFormat getThreadFormat(Document d, String tag, ThreadFormat def) {
+        try {
+            return ThreadFormat.parse(getText(d, tag, def.name()));
+        } catch(Exception e) {
+            return def;
+        }
+    }
+
+    private static LogClock getClock(Document d, String tag, LogClock def) {
+        try {
+            String txt = getText(d, tag, null);
+            return txt == null ? def : LogClock.forName(txt);
+        } catch(Exception e) {
+            return def;
+        }
+    }
+
+    private static FileAppenderType getFileType(Element e, String name, FileAppenderType def) {
+        try {
+            return e.hasAttribute(name) ? FileAppenderType.parse(e.getAttribute(name)) : def;
+        } catch(Exception ex) {
+            return def;
+        }
+    }
+
+    /** Parses a byte count such as {@code 65536}, {@code 512KB}, {@code 100MB} or {@code 1GB}. */
+    static long parseSize(String s) {
+        String t = s.trim().toUpperCase(Locale.ROOT);
+        if (t.endsWith("B")) t = t.substring(0, t.length() - 1);
+        long unit = 1;
+        if (t.endsWith("K")) unit = 1024L;
+        else if (t.endsWith("M")) unit = 1024L * 1024;
+        else if (t.endsWith("G")) unit = 1024L * 1024 * 1024;
+        if (unit != 1) t = t.substring(0, t.length() - 1);
+        return Long.parseLong(t.trim()) * unit;
+    }
+
+    /** Reads {@code async="true" asyncQueueSize asyncOverflow asyncTimeoutMs} from an appender element. */
+    private static AsyncSettings getAsync(Element e) {
+        if (!getBoolAttr(e, "async", false)) return null;
+        int size = e.hasAttribute("asyncQueueSize") ? Integer.parseInt(e.getAttribute("asyncQueueSize")) : 8192;
+        OverflowPolicy policy = e.hasAttribute("asyncOverflow") ? OverflowPolicy.parse(e.getAttribute("asyncOverflow")) : OverflowPolicy.DROP;
+        long timeoutMs = e.hasAttribute("asyncTimeoutMs") ? Long.parseLong(e.getAttribute("asyncTimeoutMs")) : 100;
+        try {
+            return new AsyncSettings(size, policy, timeoutMs);
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Logger config: " + ex.getMessage() + "; using DROP for <" + e.getTagName() + ">");
+            return new AsyncSettings(size, OverflowPolicy.DROP, timeoutMs);
+        }
+    }
+
     private static boolean getBoolAttr(Element e, String name, boolean def) {
         return e.hasAttribute(name) ? Boolean.parseBoolean(e.getAttribute(name)) : def;
     }
 
+    /** The root level, for loggers without a level of their own. */
     public LogLevel getMinLevel() {
-        return minLevel;
+        return levels.resolve(null);
+    }
+
+    /** The level in effect for a logger name: its own, or that of the nearest enclosing package. */
+    public LogLevel getLevel(String loggerName) {
+        return levels.resolve(loggerName);
+    }
+
+    /**
+     * Changes the level of a logger name and everything below it, e.g. {@code com.acme.db}; an empty
+     * name changes the root level. Null removes the name's own level so it inherits again.
+     * Loggers pick the change up on their next call.
+     */
+    public void setLevel(String loggerName, LogLevel level) {
+        levels.set(loggerName, level);
+    }
+
+    LevelTrie getLevels() {
+        return levels;
     }
 
     public int getQueueSize() {
         return queueSize;
     }
 
+    public QueueType getQueueType() {
+        return queueType;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getOverflowTimeoutMs() {
+        return overflowTimeoutMs;
+    }
+
+    public LogLevel getOverflowLevel() {
+        return overflowLevel;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public ShardPartition getShardPartition() {
+        return shardPartition;
+    }
+
+    public boolean isShardMerge() {
+        return shardMerge;
+    }
+
+    public long getShardMergeWindowMs() {
+        return shardMergeWindowMs;
+    }
+
+    /** A copy whose file, rolling file, binary and JSON paths are those of the given shard. */
+    LogConfig forShard(int shard) {
+        try {
+            LogConfig c = (LogConfig) clone();
+            c.filePath = shardPath(filePath, shard);
+            c.rollingPath = shardPath(rollingPath, shard);
+            c.binaryPath = shardPath(binaryPath, shard);
+            c.jsonPath = shardPath(jsonPath, shard);
+            return c;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * The path a shard writes to: {@code %{shard}} is replaced by the shard number, otherwise
+     * {@code -shardN} goes before the file extension ({@code logs/app.log} becomes {@code logs/app-shard0.log}).
+     */
+    public static String shardPath(String path, int shard) {
+        if (path.contains("%{shard}")) return path.replace("%{shard}", Integer.toString(shard));
+        int name = Math.max(path.lastIndexOf('/'), path.lastIndexOf(File.separatorChar)) + 1;
+        int dot = path.lastIndexOf('.');
+        if (dot <= name || dot < path.lastIndexOf('}')) dot = path.length();
+        return path.substring(0, dot) + "-shard" + shard + path.substring(dot);
+    }
+
+    public boolean isGarbageFree() {
+        return garbageFree;
+    }
+
+    public boolean isSnapshotArgs() {
+        return snapshotArgs;
+    }
+
+    public int getTraceMaxFrames() {
+        return traceMaxFrames;
+    }
+
+    public int getTraceMaxCauses() {
+        return traceMaxCauses;
+    }
+
+    public long getTraceDedupWindowMs() {
+        return traceDedupWindowMs;
+    }
+
+    public boolean isTraceSnapshot() {
+        return traceSnapshot;
+    }
+
+    public boolean isCollapseRepeats() {
+        return collapseRepeats;
+    }
+
+    public long getCollapseMaxHoldMs() {
+        return collapseMaxHoldMs;
+    }
+
+    List<LimitRule> getLimits() {
+        return limits;
+    }
+
+    public long getLimitSummaryIntervalMs() {
+        return limitSummaryIntervalMs;
+    }
+
     public String getTimeFormat() {
         return timeFormat;
     }
 
+    public LogClock getClock() {
+        return clock;
+    }
+
+    public ThreadFormat getThreadFormat() {
+        return threadFormat;
+    }
+
     public String getPattern() {
         return pattern;
     }
@@ -142,6 +587,26 @@ public class LogConfig {
         return flushEvery;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getFlushBytes() {
+        return flushBytes;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public boolean isFlushOnIdle() {
+        return flushOnIdle;
+    }
+
+    public LogLevel getFlushImmediateLevel() {
+        return flushImmediateLevel;
+    }
+
     public boolean isConsoleEnabled() {
         return consoleEnabled;
     }
@@ -151,16 +616,21 @@ public class LogConfig {
     }
 
     public String getFilePath() {
-        if (filePath.contains("%d{")) {
-            int start = filePath.indexOf("%d{");
-            int end = filePath.indexOf("}", start);
+        return formatPath(filePath, new Date());
+    }
+
+    /** Expands a {@code %d{pattern}} in a log file path with the given time. */
+    public static String formatPath(String path, Date time) {
+        if (path.contains("%d{")) {
+            int start = path.indexOf("%d{");
+            int end = path.indexOf("}", start);
             if (end > start) {
-                String pattern = filePath.substring(start + 3, end);
-                String formatted = new SimpleDateFormat(pattern).format(new Date());
-                return filePath.substring(0, start) + formatted + filePath.substring(end + 1);
+                String pattern = path.substring(start + 3, end);
+                String formatted = new SimpleDateFormat(pattern).format(time);
+                return path.substring(0, start) + formatted + path.substring(end + 1);
             }
         }
-        return filePath;
+        return path;
     }
 
     public int getFileBufferSize() {
@@ -171,6 +641,111 @@ public class LogConfig {
         return fileAppend;
     }
 
+    public FileAppenderType getFileType() {
+        return fileType;
+    }
+
+    public long getFileMapChunkSize() {
+        return fileMapChunkSize;
+    }
+
+    public boolean isRollingEnabled() {
+        return rollingEnabled;
+    }
+
+    /** The rolling file path, with {@code %d{...}} left unexpanded. */
+    public String getRollingPath() {
+        return rollingPath;
+    }
+
+    public int getRollingBufferSize() {
+        return rollingBufferSize;
+    }
+
+    public RolloverInterval getRollingInterval() {
+        return rollingInterval;
+    }
+
+    public long getRollingMaxSize() {
+        return rollingMaxSize;
+    }
+
+    public int getRollingMaxFiles() {
+        return rollingMaxFiles;
+    }
+
+    public long getRollingMaxTotalSize() {
+        return rollingMaxTotalSize;
+    }
+
+    public boolean isRollingCompress() {
+        return rollingCompress;
+    }
+
+    public FileAppenderType getRollingType() {
+        return rollingType;
+    }
+
+    public long getRollingMapChunkSize() {
+        return rollingMapChunkSize;
+    }
+
+    public boolean isJsonEnabled() {
+        return jsonEnabled;
+    }
+
+    public String getJsonPath() {
+        return formatPath(jsonPath, new Date());
+    }
+
+    public int getJsonBufferSize() {
+        return jsonBufferSize;
+    }
+
+    public boolean isJsonAppend() {
+        return jsonAppend;
+    }
+
+    public boolean isJsonEpochTimestamp() {
+        return jsonEpochTimestamp;
+    }
+
+    public Map<String, String> getJsonFields() {
+        return Collections.unmodifiableMap(jsonFields);
+    }
+
+    public boolean isBinaryEnabled() {
+        return binaryEnabled;
+    }
+
+    public String getBinaryPath() {
+        return formatPath(binaryPath, new Date());
+    }
+
+    public int getBinaryBufferSize() {
+        return binaryBufferSize;
+    }
+
+    public boolean isBinaryAppend() {
+        return binaryAppend;
+    }
+
+    public int getBinaryDictionarySize() {
+        return binaryDictionarySize;
+    }
+
+    public AsyncSettings getConsoleAsync() {
+        return consoleAsync;
+    }
+
+    public AsyncSettings getFileAsync() {
+        return fileAsync;
+    }
+
+    public AsyncSettings getRollingAsync() {
+        return rollingAsync;
+    }
+
     public boolean isConsoleColour() {
         return consoleColour;
     }
@@ -178,4 +753,78 @@ public class LogConfig {
     public Map<LogLevel, AnsiColour> getLevelPalette() {
         return levelPalette;
     }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public boolean isMetricsJmx() {
+        return metricsJmx;
+    }
+
+    public boolean isReloadEnabled() {
+        return reloadEnabled;
+    }
+
+    public long getReloadDelayMs() {
+        return reloadDelayMs;
+    }
+
+    /** The file this config was read from, or null. */
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    /** A copy for a reload: appenders opened again append to their file instead of truncating it. */
+    LogConfig appending() {
+        try {
+            LogConfig c = (LogConfig) clone();
+            c.fileAppend = true;
+            c.binaryAppend = true;
+            c.jsonAppend = true;
+            return c;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * The settings an appender of the given kind ({@code console}, {@code file}, {@code rollingFile}, {@code binary} or {@code json})
+     * is built from. On reload an appender whose key has not changed is kept open.
+     */
+    String appenderKey(String kind) {
+        switch (kind) {
+            case "console":
+                return kind + '|' + consoleColour + '|' + asyncKey(consoleAsync);
+            case "file":
+                return kind + '|' + filePath + '|' + fileType + '|' + fileBufferSize + '|' + fileMapChunkSize + '|' + asyncKey(fileAsync);
+            case "rollingFile":
+                return kind + '|' + rollingPath + '|' + rollingBufferSize + '|' + rollingInterval + '|' + rollingMaxSize + '|'
+                        + rollingMaxFiles + '|' + rollingMaxTotalSize + '|' + rollingCompress + '|' + rollingType + '|' + rollingMapChunkSize + '|'
+                        + asyncKey(rollingAsync);
+            case "binary":
+                return kind + '|' + binaryPath + '|' + binaryBufferSize + '|' + binaryDictionarySize;
+            case "json":
+                return kind + '|' + jsonPath + '|' + jsonBufferSize + '|' + jsonEpochTimestamp + '|' + jsonFields;
+            default:
+                throw new IllegalArgumentException(kind);
+        }
+    }
+
+    private static String asyncKey(AsyncSettings a) {
+        return a == null ? "-" : a.getQueueSize() + "/" + a.getOverflowPolicy() + "/" + a.getTimeoutMs();
+    }
+
+    private String limitsKey() {
+        StringBuilder sb = new StringBuilder().append(limitSummaryIntervalMs);
+        for(LimitRule r : limits) sb.append(';').append(r.logger).append('/').append(r.level).append('/').append(r).append('/').append(r.perTemplate);
+        return sb.toString();
+    }
+
+    /** The settings a reload cannot change: queues, shards, overflow, snapshots, limits, clock, thread labels and metrics. */
+    String restartKey() {
+        return queueSize + "|" + queueType + '|' + overflowPolicy + '|' + overflowTimeoutMs + '|' + overflowLevel + '|'
+                + shardCount + '|' + shardPartition + '|' + shardMerge + '|' + shardMergeWindowMs + '|' + garbageFree + '|'
+                + snapshotArgs + '|' + traceSnapshot + '|' + limitsKey() + '|' + clock.getClass().getName() + '|' + threadFormat + '|' + batchSize + '|' + metricsEnabled + '|' + metricsJmx;
+    }
 }
\ No newline at end of file
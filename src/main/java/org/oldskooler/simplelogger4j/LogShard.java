@@ -0,0 +1,391 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.ansi.AnsiStripper;
+import org.oldskooler.simplelogger4j.metrics.LoggerMetrics;
+import org.oldskooler.simplelogger4j.queue.LogQueue;
+import org.oldskooler.simplelogger4j.queue.RecyclingRingBuffer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One queue and the writer thread that drains it. The bus has one shard by default; with
+ * {@code <shards count="N">} each logger name or producer thread is tied to one of N shards.
+ * A shard either writes to its own {@link AppenderGroup} or, when merging, renders each event and
+ * hands it to the {@link ShardMerger}.
+ * <p>
+ * A config reload reaches the writer as a {@link Snapshot}. The writer swaps it in under its write
+ * lock between batches, so every event is rendered and written with one config or the other.
+ * Logging calls never see the swap.
+ */
+final class LogShard {
+    /** What a reload hands to a writer: the new pattern plan and the config to rebuild its appenders from. */
+    static final class Snapshot {
+        final CompiledPattern plan;
+        final LogConfig config;
+
+        Snapshot(CompiledPattern plan, LogConfig config) {
+            this.plan = plan;
+            this.config = config;
+        }
+    }
+
+    private static final int EVICT_ATTEMPTS = 16;
+
+    private final LogQueue<PrintJob> queue;
+    /** Same object as {@link #queue} in garbage-free mode, otherwise null. */
+    private final RecyclingRingBuffer<PrintJob> ring;
+    // Replaced by a reload, only under the write lock
+    private CompiledPattern plan;
+    private boolean renderColour;
+    /** Null unless {@code <collapseRepeats>}. */
+    private RepeatCollapser collapser;
+    /** Where rendered lines go: exactly one of these is set. */
+    private volatile AppenderGroup group;
+    private final ShardMerger merger;
+    /** Suffix for the names of async appender threads, kept for rebuilding the group on reload. */
+    private final String suffix;
+    private final AtomicReference<Snapshot> pending = new AtomicReference<>();
+    /** Null unless metrics are enabled. */
+    private final LoggerMetrics metrics = LoggerBus.getMetrics();
+    private final ExecutorService writer;
+    private volatile boolean stopping;
+    // Overflow policy, see LogConfig
+    private final OverflowPolicy overflowPolicy;
+    private final long overflowTimeoutNanos;
+    private final int overflowPriority;
+    final LongAdder overflows = new LongAdder();
+    final LongAdder blocked = new LongAdder();
+    final LongAdder timedOut = new LongAdder();
+    final LongAdder evicted = new LongAdder();
+    final LongAdder callerRuns = new LongAdder();
+    final LongAdder droppedTotal = new LongAdder();
+    /** Held by the writer while it writes a batch, and by callers writing directly under CALLER_RUNS. */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final int batchSize;
+    private final List<PrintJob> batch = new ArrayList<>();
+    // Writer metrics; only the writer thread updates them
+    private volatile long batchCount;
+    private volatile long batchedEvents;
+    private volatile int maxBatchSize;
+    // Writer-thread render buffers, reused for every event
+    private final StringBuilder plainBuf = new StringBuilder(256);
+    private final StringBuilder colourBuf = new StringBuilder(256);
+
+    LogShard(LogConfig c, CompiledPattern plan, AppenderGroup group, ShardMerger merger, String suffix, String threadName) {
+        if(c.isGarbageFree()) {
+            ring = new RecyclingRingBuffer<>(c.getQueueSize(), PrintJob::new, (job, slot) -> slot.copyFrom(job), PrintJob::recycle);
+            queue = ring;
+        } else {
+            ring = null;
+            queue = c.getQueueType().create(c.getQueueSize());
+        }
+        this.plan = plan;
+        this.group = group;
+        this.merger = merger;
+        this.suffix = suffix;
+        this.renderColour = group != null ? group.renderColour : AppenderGroup.rendersColour(c);
+        this.collapser = c.isCollapseRepeats() ? new RepeatCollapser(c) : null;
+        overflowPolicy = c.getOverflowPolicy();
+        overflowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, c.getOverflowTimeoutMs()));
+        overflowPriority = c.getOverflowLevel().getPriority();
+        batchSize = Math.max(1, c.getBatchSize());
+
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+        writer.submit(this::loop);
+    }
+
+    boolean offer(PrintJob job, AtomicLong dropped) {
+        if (queue.offer(job)) return true;
+        overflows.increment();
+        try {
+            switch (overflowPolicy) {
+                case BLOCK:
+                    if (offerWithin(job)) return true;
+                    break;
+                case DROP_BELOW:
+                    if (job.level.getPriority() >= overflowPriority && offerWithin(job)) return true;
+                    break;
+                case DROP_OLDEST:
+                    // The head may be claimed but not yet published, or another producer may take the freed slot
+                    for (int i = 0; i < EVICT_ATTEMPTS; i++) {
+                        if (queue.pollOldest() != null) {
+                            evicted.increment();
+                        } else {
+                            Thread.yield();
+                        }
+                        if (queue.offer(job)) return true;
+                    }
+                    break;
+                case CALLER_RUNS:
+                    writeOnCaller(job);
+                    return true;
+                case DROP:
+                default:
+                    break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.incrementAndGet();
+        droppedTotal.increment();
+        return false;
+    }
+
+    private boolean offerWithin(PrintJob job) throws InterruptedException {
+        blocked.increment();
+        if (queue.offer(job, overflowTimeoutNanos, TimeUnit.NANOSECONDS)) return true;
+        timedOut.increment();
+        return false;
+    }
+
+    /** CALLER_RUNS: renders and writes on the calling thread, holding the lock the writer takes per batch. */
+    private void writeOnCaller(PrintJob job) {
+        callerRuns.increment();
+        writeLock.lock();
+        try {
+            applyPending();
+            write(job);
+        } catch (Exception ex) {
+            System.err.println("Logger error: " + ex.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Garbage-free enqueue, first half: claims a preallocated slot for the calling thread to fill
+     * in place, applying the overflow policy if the ring is full. Returns null if the event is
+     * dropped; under CALLER_RUNS, a new job that {@link #publishRecycled} writes on this thread.
+     * The caller substitutes the arguments with {@link PrintJob#arg}, and must then publish it.
+     */
+    PrintJob claimRecycled(String name, LogLevel level, String template, Throwable throwable,
+                           Formatter formatter, long enqueuedNanos, AtomicLong dropped) {
+        long pos = ring.claim();
+        PrintJob slot = null;
+        if (pos < 0) {
+            overflows.increment();
+            OverflowPolicy p = overflowPolicy;
+            try {
+                if (p == OverflowPolicy.BLOCK || (p == OverflowPolicy.DROP_BELOW && level.getPriority() >= overflowPriority)) {
+                    blocked.increment();
+                    pos = ring.claim(overflowTimeoutNanos, TimeUnit.NANOSECONDS);
+                    if (pos < 0) timedOut.increment();
+                } else if (p == OverflowPolicy.CALLER_RUNS) {
+                    slot = new PrintJob();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (pos < 0 && slot == null) {
+                dropped.incrementAndGet();
+                droppedTotal.increment();
+                return null;
+            }
+        }
+        if (slot == null) slot = ring.slot(pos);
+        slot.reset(name, level, template, null, formatter, LoggerBus.threadName(), LoggerBus.currentTimeMillis(), throwable);
+        slot.enqueuedNanos = enqueuedNanos;
+        slot.shard = this;
+        slot.position = pos;
+        return slot;
+    }
+
+    /** Second half: finishes the message of a claimed slot and hands it to the writer. */
+    void publishRecycled(PrintJob slot) {
+        try {
+            slot.endMessage();
+        } finally {
+            if (slot.position >= 0) {
+                ring.publish(slot.position);
+            } else {
+                writeOnCaller(slot);
+            }
+        }
+    }
+
+    void put(PrintJob job) throws InterruptedException {
+        queue.put(job);
+    }
+
+    /** Lets the writer finish what is queued and stop. */
+    void stop() {
+        stopping = true;
+        // Wakes the writer if it is parked on an empty queue; if the queue is full it is not
+        queue.offer(PrintJob.flush());
+        writer.shutdown();
+    }
+
+    /** True once the writer has finished, having closed its appenders. */
+    boolean awaitStop(long timeout, TimeUnit unit) throws InterruptedException {
+        return writer.awaitTermination(timeout, unit);
+    }
+
+    void stopNow() {
+        writer.shutdownNow();
+    }
+
+    /** Takes events in batches of up to {@code batchSize}, writes them all, then applies the flush policy. */
+    private void loop() {
+        while(!stopping || !queue.isEmpty()) {
+            try {
+                PrintJob first = queue.poll(group != null ? group.pollNanos() : TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.NANOSECONDS);
+                if(first != null) {
+                    if(metrics != null) metrics.recordQueueDepth(Math.min(queue.capacity(), queue.size() + 1));
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                writeLock.lock();
+                try {
+                    applyPending();
+                    if(first != null) writeBatch();
+                    if(collapser != null) writeRepeats(collapser.takeDue());
+                    if(group != null) group.flushIfDue(queue.isEmpty());
+                } finally {
+                    writeLock.unlock();
+                }
+            } catch(InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch(Exception ex) {
+                System.err.println("Logger error: " + ex.getMessage());
+            }
+        }
+        // Under the lock: a CALLER_RUNS producer may still be writing
+        writeLock.lock();
+        try {
+            if(collapser != null) writeRepeats(collapser.takeSummary());
+            if(group != null) group.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Hands a reloaded config to the writer, which applies it before its next batch. */
+    void reconfigure(Snapshot snapshot) {
+        pending.set(snapshot);
+    }
+
+    /** Called with the write lock held. */
+    private void applyPending() {
+        Snapshot s = pending.getAndSet(null);
+        if(s == null) return;
+        if(collapser != null) writeRepeats(collapser.takeSummary());
+        collapser = s.config.isCollapseRepeats() ? new RepeatCollapser(s.config) : null;
+        plan = s.plan;
+        if(group != null) {
+            try {
+                group = new AppenderGroup(s.config, suffix, group);
+            } catch(IOException e) {
+                // Not thrown when rebuilding: appenders that fail to open are left out
+                System.err.println("Logger reload failed: " + e.getMessage());
+            }
+            renderColour = group.renderColour;
+        } else {
+            renderColour = AppenderGroup.rendersColour(s.config);
+        }
+    }
+
+    private void writeBatch() {
+        int n = batch.size();
+        batchCount++;
+        batchedEvents += n;
+        if(n > maxBatchSize) maxBatchSize = n;
+        for(int i = 0; i < n; i++) {
+            PrintJob j = batch.get(i);
+            try {
+                if(j.isFlush) {
+                    if(collapser != null) writeRepeats(collapser.takeSummary());
+                    if(group != null) {
+                        group.flushAll();
+                    } else {
+                        merger.flush();
+                    }
+                } else {
+                    write(j);
+                }
+            } catch(Exception ex) {
+                System.err.println("Logger error: " + ex.getMessage());
+            } finally {
+                queue.release(j);
+            }
+        }
+        batch.clear();
+    }
+
+    private void write(PrintJob j) {
+        long now = 0;
+        RepeatCollapser r = collapser;
+        if(r != null && r.repeats(j)) {
+            writeRepeats(r.takeDue());
+        } else {
+            if(r != null) {
+                writeRepeats(r.takeSummary());
+                r.remember(j);
+            }
+            now = writeOut(j);
+        }
+        if(metrics != null) {
+            if(now == 0) now = System.nanoTime();
+            metrics.recordWritten(j.enqueuedNanos == 0 ? -1 : now - j.enqueuedNanos);
+        }
+    }
+
+    /** Writes the count of repeats held back, if there is one; it does not count as an event written. */
+    private void writeRepeats(PrintJob summary) {
+        if(summary != null) writeOut(summary);
+    }
+
+    /** Renders and writes one event; returns as {@link AppenderGroup#write}. */
+    private long writeOut(PrintJob j) {
+        AppenderGroup g = group;
+        long now = 0;
+        // Before rendering, which formats the message in place of its template and arguments
+        if(g != null && g.hasEventAppenders) now = g.writeEvent(j);
+        if(g == null || g.hasTextAppenders) {
+            plainBuf.setLength(0);
+            colourBuf.setLength(0);
+            plan.render(j, plainBuf, renderColour ? colourBuf : null);
+            AnsiStripper.strip(plainBuf, 0);
+            if(g != null) {
+                // The appenders are done with the buffers when this returns
+                now = g.write(plainBuf, renderColour ? colourBuf : null, j.throwable, j.level.getPriority());
+            } else {
+                merger.add(j.sequence, plainBuf.toString(), renderColour ? colourBuf.toString() : null, j.throwable, j.level.getPriority());
+            }
+        }
+        return now;
+    }
+
+    int queueSize() {
+        return queue.size();
+    }
+
+    AppenderGroup getGroup() {
+        return group;
+    }
+
+    long getBatchCount() {
+        return batchCount;
+    }
+
+    long getBatchedEventCount() {
+        return batchedEvents;
+    }
+
+    int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+}
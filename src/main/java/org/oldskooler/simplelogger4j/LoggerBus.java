@@ -1,71 +1,276 @@
 package org.oldskooler.simplelogger4j;
 
-import org.oldskooler.simplelogger4j.ansi.AnsiStripper;
 import org.oldskooler.simplelogger4j.appenders.Appender;
-import org.oldskooler.simplelogger4j.appenders.ConsoleAppender;
-import org.oldskooler.simplelogger4j.appenders.FileAppender;
+import org.oldskooler.simplelogger4j.clock.LogClock;
+import org.oldskooler.simplelogger4j.clock.SystemClock;
+import org.oldskooler.simplelogger4j.metrics.LoggerMetrics;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import javax.management.ObjectName;
 
+/**
+ * Routes events from the loggers to the {@link LogShard shards}: one queue and writer by default,
+ * or N of them with {@code <shards count="N">}. Sharded writers either each write their own files
+ * or feed a {@link ShardMerger} that restores the global order by sequence number.
+ * <p>
+ * With {@code <reload enabled="true">} a {@link ConfigWatcher} re-reads the config file when it
+ * changes; see {@link #reload}.
+ */
 class LoggerBus {
     private static final AtomicBoolean INITIALIZED = new AtomicBoolean(false);
-    private static BlockingQueue<PrintJob> queue;
-    private static ExecutorService writer;
+    private static final long SHUTDOWN_WAIT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static ThreadFormat threadFormat = ThreadFormat.NAME;
+    /** Thread labels cached per platform thread with the name they were made from, so a renamed thread gets a new one. */
+    private static final ThreadLocal<ThreadLabel> threadLabels = ThreadLocal.withInitial(ThreadLabel::new);
     private static final AtomicBoolean shutdown = new AtomicBoolean(false);
     private static final AtomicLong globalSeq = new AtomicLong(0);
-    private static int flushEvery;
-    private static List<Appender> appenders;
-    private static LogConfig cfg;
-    private static DateTimeFormatter timeFmt;
+    private static LogShard[] shards;
+    private static ShardPartition partition;
+    private static final AtomicInteger nextThreadShard = new AtomicInteger();
+    private static final ThreadLocal<LogShard> threadShards =
+            ThreadLocal.withInitial(() -> shards[(nextThreadShard.getAndIncrement() & Integer.MAX_VALUE) % shards.length]);
+    /** Null unless the shards' output is merged. */
+    private static ShardMerger merger;
+    private static boolean snapshotArgs;
+    private static boolean garbageFree;
+    private static boolean snapshotThrowables;
+    private static LogClock clock = SystemClock.INSTANCE;
+    /** Null unless the config file is watched. */
+    private static ConfigWatcher watcher;
+    /** The settings a reload cannot change, to tell when a new file asks for a restart. */
+    private static String restartKey;
+    private static final AtomicLong reloadCount = new AtomicLong();
+    /** Null unless {@code <metrics enabled="true">}. */
+    private static LoggerMetrics metrics;
+    /** Null without {@code <limits>}. */
+    private static RateLimits limits;
 
     static void initIfNeeded(LogConfig c) throws IOException {
         if(INITIALIZED.compareAndSet(false, true)) {
-            cfg = c;
-            queue = new ArrayBlockingQueue<>(c.getQueueSize());
-            timeFmt = DateTimeFormatter.ofPattern(c.getTimeFormat());
-            flushEvery = Math.max(1, c.getFlushEvery());
-            appenders = new ArrayList<>();
-
-            if(c.isConsoleEnabled()) appenders.add(new ConsoleAppender(c));
-            if(c.isFileEnabled()) appenders.add(new FileAppender(c));
-            if(appenders.isEmpty()) appenders.add(new ConsoleAppender(c));
-
-            writer = Executors.newSingleThreadExecutor(r -> {
-                Thread t = new Thread(r, "Logger-Writer");
-                t.setDaemon(true);
-                return t;
-            });
-            writer.submit(LoggerBus::loop);
+            snapshotArgs = c.isSnapshotArgs();
+            garbageFree = c.isGarbageFree();
+            snapshotThrowables = c.isTraceSnapshot();
+            threadFormat = c.getThreadFormat();
+            clock = c.getClock();
+            partition = c.getShardPartition();
+            CompiledPattern plan = compile(c);
+            int n = Math.max(1, c.getShardCount());
+            if(c.isMetricsEnabled()) metrics = createMetrics(c, (long) n * c.getQueueSize());
+            LogShard[] s = new LogShard[n];
+            if(c.isShardMerge()) {
+                if(c.isBinaryEnabled() || c.isJsonEnabled()) System.err.println("Logger: the binary and json appenders do not work with merged shards; leaving them out.");
+                merger = new ShardMerger(c, new AppenderGroup(c, ""));
+            }
+            for(int i = 0; i < n; i++) {
+                AppenderGroup group = null;
+                if(merger == null) group = n == 1 ? new AppenderGroup(c, "") : new AppenderGroup(c.forShard(i), "-" + i);
+                s[i] = new LogShard(c, plan, group, merger, n == 1 ? "" : "-" + i, n == 1 ? "Logger-Writer" : "Logger-Writer-" + i);
+            }
+            shards = s;
+            if(!c.getLimits().isEmpty()) limits = new RateLimits(c.getLimits(), c.getLimitSummaryIntervalMs());
+            restartKey = c.restartKey();
+            if(c.isReloadEnabled() && c.getSourcePath() != null) {
+                watcher = new ConfigWatcher(c.getSourcePath(), c.getReloadDelayMs(), fresh -> reload(c, fresh));
+            }
             Runtime.getRuntime().addShutdownHook(new Thread(LoggerBus::shutdown));
         }
     }
 
+    private static LoggerMetrics createMetrics(LogConfig c, long capacity) {
+        LoggerMetrics m = new LoggerMetrics(() -> {
+            LogShard[] s = shards;
+            long depth = 0;
+            if(s != null) for(LogShard shard : s) depth += shard.queueSize();
+            return depth;
+        }, capacity);
+        if(c.isMetricsJmx()) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(m, new ObjectName(LoggerMetrics.OBJECT_NAME));
+            } catch(Exception e) {
+                System.err.println("Logger metrics: JMX registration failed: " + e.getMessage());
+            }
+        }
+        return m;
+    }
+
+    /** The bus-wide metrics, or null unless enabled. */
+    static LoggerMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static CompiledPattern compile(LogConfig c) {
+        return CompiledPattern.compile(c.getPattern(), DateTimeFormatter.ofPattern(c.getTimeFormat()), c.levelPalette);
+    }
+
+    /**
+     * Applies a new version of the config file. The pattern, time format and palette are compiled
+     * here, before anything changes, so a bad pattern leaves the running config alone. Each writer
+     * then gets an immutable {@link LogShard.Snapshot} to swap in between batches: events logged
+     * after this returns are written with the new pattern and appenders. The levels replace those
+     * of {@code live}, the config the loggers hold, in one step. Queue, shard, overflow, clock,
+     * thread and metrics settings only change on restart.
+     */
+    static synchronized void reload(LogConfig live, LogConfig fresh) {
+        if(shutdown.get()) return;
+        CompiledPattern plan = compile(fresh);
+        if(!fresh.restartKey().equals(restartKey)) {
+            System.err.println("Logger reload: queue, shard, overflow, snapshot, limit, clock, thread and metrics settings need a restart; applying the rest");
+        }
+        LogConfig c = fresh.appending();
+        LogShard[] s = shards;
+        for(int i = 0; i < s.length; i++) {
+            s[i].reconfigure(new LogShard.Snapshot(plan, s.length == 1 || merger != null ? c : c.forShard(i)));
+        }
+        if(merger != null) merger.reconfigure(c);
+        live.getLevels().replaceWith(fresh.getLevels());
+        reloadCount.incrementAndGet();
+    }
+
+    /** The appenders of every shard, or of the merge stage. */
+    static List<Appender> getAppenders() {
+        List<Appender> all = new ArrayList<>();
+        if(merger != null) {
+            all.addAll(merger.getGroup().getAppenders());
+        } else {
+            for(LogShard s : shards) all.addAll(s.getGroup().getAppenders());
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    static long currentTimeMillis() {
+        return clock.currentTimeMillis();
+    }
+
+    /** The calling thread as {@code %{thread}} shows it. */
+    static String threadName() {
+        Thread t = Thread.currentThread();
+        // Virtual threads are cheap and short-lived: a per-thread cache would be filled once and thrown away
+        if(Threads.isVirtual(t)) return threadFormat.label(t);
+        return threadLabels.get().of(t);
+    }
+
+    /** The label of one platform thread; made again when the thread's name changes. */
+    private static final class ThreadLabel {
+        private String name;
+        private String label;
+
+        String of(Thread t) {
+            String current = t.getName();
+            if(!current.equals(name)) {
+                name = current;
+                label = threadFormat.label(t);
+            }
+            return label;
+        }
+    }
+
+    /** The limiters for a logger name by level, see {@link RateLimits#forLogger}; null without limits. */
+    static RateLimits.Limiter[] limiters(String name) {
+        RateLimits l = limits;
+        return l == null ? null : l.forLogger(name);
+    }
+
+    static long getSuppressedCount() {
+        RateLimits l = limits;
+        return l == null ? 0 : l.getSuppressedCount();
+    }
+
     static long nextSeq() {
         return globalSeq.getAndIncrement();
     }
 
+    private static LogShard shardFor(String name) {
+        LogShard[] s = shards;
+        if(s.length == 1) return s[0];
+        if(partition == ShardPartition.THREAD) {
+            Thread t = Thread.currentThread();
+            return Threads.isVirtual(t) ? s[(int) (Threads.id(t) % s.length)] : threadShards.get();
+        }
+        int h = name == null ? 0 : name.hashCode();
+        h ^= h >>> 16;
+        return s[(h & Integer.MAX_VALUE) % s.length];
+    }
+
     static boolean offer(PrintJob job, AtomicLong dropped) {
-        if (!queue.offer(job)) {
-            dropped.incrementAndGet();
-            return false;
+        LoggerMetrics m = metrics;
+        if(m == null) return shardFor(job.name).offer(job, dropped);
+        long t0 = job.enqueuedNanos = System.nanoTime();
+        boolean queued = shardFor(job.name).offer(job, dropped);
+        m.recordEnqueue(job.level, System.nanoTime() - t0);
+        return queued;
+    }
+
+    /**
+     * Queues a message whose arguments are substituted on the writer thread, or in garbage-free
+     * mode on this one, into a recycled event's buffer.
+     * With the snapshot policy on, mutable arguments are copied to Strings here first, and with
+     * {@code <stackTraces snapshot="true">} the throwable to a {@link ThrowableSnapshot}.
+     */
+    static boolean offer(String name, LogLevel level, String template, Object[] args,
+                         Throwable throwable, Formatter formatter, AtomicLong dropped) {
+        if(garbageFree) {
+            PrintJob slot = claim(name, level, template, throwable, formatter, dropped);
+            if(slot == null) return false;
+            try {
+                if(args != null) for(Object a : args) slot.arg(a);
+            } finally {
+                publish(slot);
+            }
+            return true;
         }
+        if(snapshotArgs) args = ParameterFormatter.snapshot(args);
+        if(snapshotThrowables && throwable != null) throwable = ThrowableSnapshot.of(throwable);
+        LoggerMetrics m = metrics;
+        long t0 = m == null ? 0 : System.nanoTime();
+        PrintJob job = PrintJob.deferred(name, level, template, args, formatter, throwable);
+        job.enqueuedNanos = t0;
+        boolean queued = shardFor(name).offer(job, dropped);
+        if(m != null) m.recordEnqueue(level, System.nanoTime() - t0);
+        return queued;
+    }
 
-        return true;
+    static boolean isGarbageFree() {
+        return garbageFree;
+    }
+
+    /**
+     * Garbage-free mode: a recycled event for the calling thread to substitute the arguments into
+     * with {@link PrintJob#arg}, then {@link #publish}; null if it was dropped. The fixed-arity and
+     * primitive logging methods go through here, so they need no argument array and no boxes.
+     */
+    static PrintJob claim(String name, LogLevel level, String template, Throwable throwable,
+                          Formatter formatter, AtomicLong dropped) {
+        if(snapshotThrowables && throwable != null) throwable = ThrowableSnapshot.of(throwable);
+        LoggerMetrics m = metrics;
+        long t0 = m == null ? 0 : System.nanoTime();
+        PrintJob slot = shardFor(name).claimRecycled(name, level, template, throwable, formatter, t0, dropped);
+        if(slot == null && m != null) m.recordEnqueue(level, System.nanoTime() - t0);
+        return slot;
+    }
+
+    /** Hands a {@link #claim claimed} event to its writer. Must follow every claim that returned one. */
+    static void publish(PrintJob slot) {
+        long t0 = slot.enqueuedNanos;
+        LogLevel level = slot.level;
+        slot.shard.publishRecycled(slot);
+        LoggerMetrics m = metrics;
+        if(m != null) m.recordEnqueue(level, System.nanoTime() - t0);
     }
 
     static void flushAsync() {
         try {
-            queue.put(PrintJob.flush());
+            for(LogShard s : shards) s.put(PrintJob.flush());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -73,67 +278,98 @@ class LoggerBus {
 
     static void shutdown() {
         if(shutdown.compareAndSet(false, true)) {
+            if(watcher != null) watcher.close();
+            LoggerFactory.disposeAll();
+            if(limits != null) limits.close();
+            // Each writer, and the merger, flushes and closes its own appenders on its way out. One that misses the
+            // deadline is still using them (the file appenders' buffers are not thread-safe), so they are left alone.
+            long deadline = System.nanoTime() + SHUTDOWN_WAIT_NANOS;
+            int busy = 0;
             try {
-                writer.shutdown();
-                writer.awaitTermination(5, TimeUnit.SECONDS);
+                for(LogShard s : shards) s.stop();
+                for(LogShard s : shards) {
+                    if(!s.awaitStop(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) busy++;
+                }
+                if(merger != null && !merger.close(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) busy++;
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                writer.shutdownNow();
-            } finally {
-                for(Appender a: appenders) {
-                    try {
-                        a.flush();
-                        a.close();
-                    } catch(Exception ignore) {
-                        // Ignore cleanup exceptions
-                    }
-                }
+                for(LogShard s : shards) s.stopNow();
             }
+            if(busy > 0) System.err.println("Logger shutdown: " + busy + " writer(s) still busy, their appenders are not closed");
         }
     }
 
-    private static void loop() {
-        long sinceFlush = 0;
-        while(!shutdown.get() || !queue.isEmpty()) {
-            try {
-                PrintJob j = queue.poll(100, TimeUnit.MILLISECONDS);
-                if(j == null) continue;
+    private static long sum(Function<LogShard, LongAdder> counter) {
+        long total = 0;
+        for(LogShard s : shards) total += counter.apply(s).sum();
+        return total;
+    }
 
-                if(j.isFlush) {
-                    appenders.forEach(Appender::flush);
-                    sinceFlush = 0;
-                    continue;
-                }
+    static int getShardCount() {
+        return shards.length;
+    }
 
-                String plain = PatternEngine.renderPlain(cfg.getPattern(), timeFmt, j);
-                for(Appender a: appenders) {
-                    if(a instanceof ConsoleAppender) {
-                        ConsoleAppender ca = (ConsoleAppender) a;
-                        ca.println(PatternEngine.renderColoured(cfg.getPattern(), timeFmt, j, cfg.levelPalette));
-                    } else {
-                        a.println(AnsiStripper.strip(plain));
-                    }
-                    if(j.throwable != null) a.printStackTrace(j.throwable);
-                }
+    static long getFlushCount() {
+        if(merger != null) return merger.getGroup().getFlushCount();
+        long total = 0;
+        for(LogShard s : shards) total += s.getGroup().getFlushCount();
+        return total;
+    }
 
-                if(++sinceFlush >= flushEvery || (j.sequence % flushEvery == 0)) {
-                    appenders.forEach(Appender::flush);
-                    sinceFlush = 0;
-                }
-            } catch(InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch(Exception ex) {
-                System.err.println("Logger error: " + ex.getMessage());
-            }
-        }
-        appenders.forEach(a -> {
-            try {
-                a.flush();
-                a.close();
-            } catch(Exception ignore) {
-                // Ignore cleanup exceptions
-            }
-        });
+    static long getBatchCount() {
+        long total = 0;
+        for(LogShard s : shards) total += s.getBatchCount();
+        return total;
+    }
+
+    static long getBatchedEventCount() {
+        long total = 0;
+        for(LogShard s : shards) total += s.getBatchedEventCount();
+        return total;
+    }
+
+    static int getMaxBatchSize() {
+        int max = 0;
+        for(LogShard s : shards) max = Math.max(max, s.getMaxBatchSize());
+        return max;
+    }
+
+    /** Number of times a changed config file has been applied. */
+    static long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    /** Events the merge stage has written, 0 when not merging. */
+    static long getMergedCount() {
+        return merger == null ? 0 : merger.getMergedCount();
+    }
+
+    /** Events the merge stage wrote out of order because they arrived after their window. */
+    static long getMergeLateCount() {
+        return merger == null ? 0 : merger.getLateCount();
+    }
+
+    static long getOverflowCount() {
+        return sum(s -> s.overflows);
+    }
+
+    static long getBlockedCount() {
+        return sum(s -> s.blocked);
+    }
+
+    static long getTimedOutCount() {
+        return sum(s -> s.timedOut);
+    }
+
+    static long getEvictedCount() {
+        return sum(s -> s.evicted);
+    }
+
+    static long getCallerRunsCount() {
+        return sum(s -> s.callerRuns);
+    }
+
+    static long getDroppedCount() {
+        return sum(s -> s.droppedTotal);
     }
-}
\ No newline at end of file
+}
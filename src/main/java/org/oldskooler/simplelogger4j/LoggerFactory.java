@@ -0,0 +1,77 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.formatters.StringFormatter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hands out {@link SimpleLog} instances, one per config file and logger name.
+ * <p>
+ * Each config file is parsed once, on first use, and the loggers created from it are kept in a
+ * concurrent map, so asking for a logger that exists is a map lookup. Loggers with a custom
+ * {@link Formatter} are not cached (another caller may want a different formatter for the same
+ * name), but still share the parsed config. There is a single JVM shutdown hook, the bus's, which
+ * disposes every cached logger before it stops the writers.
+ */
+public final class LoggerFactory {
+    public static final String DEFAULT_CONFIG = "simplelogger4j.xml";
+
+    private static final ConcurrentMap<String, LogConfig> configs = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ConcurrentMap<String, SimpleLog>> loggers = new ConcurrentHashMap<>();
+    /** The logger with a null name per config file, as ConcurrentHashMap takes no null keys. */
+    private static final ConcurrentMap<String, SimpleLog> unnamed = new ConcurrentHashMap<>();
+
+    private LoggerFactory() {
+    }
+
+    public static SimpleLog getLogger(Class<?> clazz) {
+        String name = clazz.getCanonicalName();
+        return getLogger(DEFAULT_CONFIG, name != null ? name : clazz.getName());
+    }
+
+    public static SimpleLog getLogger(String name) {
+        return getLogger(DEFAULT_CONFIG, name);
+    }
+
+    /** The logger called {@code name} configured from {@code xmlPath}, created on first use. */
+    public static SimpleLog getLogger(String xmlPath, String name) {
+        if (name == null) {
+            SimpleLog log = unnamed.get(xmlPath);
+            return log != null ? log : unnamed.computeIfAbsent(xmlPath, p -> new SimpleLog(getConfig(p), new StringFormatter(), null, true));
+        }
+        ConcurrentMap<String, SimpleLog> byName = loggers.get(xmlPath);
+        if (byName == null) byName = loggers.computeIfAbsent(xmlPath, p -> new ConcurrentHashMap<>());
+        // get first: computeIfAbsent locks the bin even when the key is present on Java 8
+        SimpleLog log = byName.get(name);
+        if (log != null) return log;
+        LogConfig cfg = getConfig(xmlPath);
+        return byName.computeIfAbsent(name, n -> new SimpleLog(cfg, new StringFormatter(), n, true));
+    }
+
+    /** A new, uncached logger with its own formatter, sharing the parsed config of {@code xmlPath}. */
+    public static SimpleLog newLogger(String xmlPath, Formatter formatter, String name) {
+        return new SimpleLog(getConfig(xmlPath), formatter, name, false);
+    }
+
+    /** The config parsed from {@code xmlPath}, parsed on the first call only. */
+    public static LogConfig getConfig(String xmlPath) {
+        LogConfig cfg = configs.get(xmlPath);
+        return cfg != null ? cfg : configs.computeIfAbsent(xmlPath, LogConfig::fromXml);
+    }
+
+    /** Number of cached loggers over all config files. */
+    public static int getLoggerCount() {
+        int n = unnamed.size();
+        for (ConcurrentMap<String, SimpleLog> byName : loggers.values()) n += byName.size();
+        return n;
+    }
+
+    /** Called from the bus's shutdown hook: later calls on cached loggers are ignored. */
+    static void disposeAll() {
+        for (ConcurrentMap<String, SimpleLog> byName : loggers.values()) {
+            for (SimpleLog log : byName.values()) log.dispose();
+        }
+        for (SimpleLog log : unnamed.values()) log.dispose();
+    }
+}
@@ -0,0 +1,22 @@
+package org.oldskooler.simplelogger4j;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/** What a logging call does when the queue to the writer is full. */
+public enum OverflowPolicy {
+    /** Drop the new event straight away. */
+    DROP,
+    /** Wait up to {@code timeoutMs} for space, then drop the new event. */
+    BLOCK,
+    /** Evict the oldest queued events to make room. Not available in garbage-free mode, where it acts as DROP. */
+    DROP_OLDEST,
+    /** Drop events below {@code level} straight away; wait up to {@code timeoutMs} for the rest. */
+    DROP_BELOW,
+    /** Render and write the event on the calling thread, under the writer's lock. It may appear ahead of queued events. */
+    CALLER_RUNS;
+
+    public static OverflowPolicy parse(String s) {
+        return OverflowPolicy.valueOf(Objects.requireNonNull(s).trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,90 @@
+package org.oldskooler.simplelogger4j;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.UUID;
+
+/**
+ * Replaces {} placeholders with arguments in order.
+ * Common argument types are appended directly, without an intermediate String.
+ */
+public final class ParameterFormatter {
+    private ParameterFormatter() {
+    }
+
+    public static String format(String template, Object... args) {
+        if (template == null || args == null || args.length == 0) {
+            return template;
+        }
+        StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+        formatTo(sb, template, args);
+        return sb.toString();
+    }
+
+    static void formatTo(StringBuilder sb, String template, Object[] args) {
+        if (template == null) {
+            sb.append((String) null);
+            return;
+        }
+        int argCount = args == null ? 0 : args.length;
+        int argIndex = 0;
+        int cur = 0;
+        int brace;
+        while (argIndex < argCount && (brace = template.indexOf("{}", cur)) != -1) {
+            sb.append(template, cur, brace);
+            appendArg(sb, args[argIndex++]);
+            cur = brace + 2;
+        }
+        sb.append(template, cur, template.length());
+    }
+
+    /**
+     * Copies the String form of every argument that could still change before the writer formats it.
+     * Immutable values and {@link ImmutableArg}s are kept as they are; the caller's array is never modified.
+     */
+    static Object[] snapshot(Object[] args) {
+        if (args == null) return null;
+        Object[] copy = null;
+        for (int i = 0; i < args.length; i++) {
+            Object a = args[i];
+            if (isImmutable(a)) continue;
+            if (copy == null) copy = args.clone();
+            copy[i] = a.toString();
+        }
+        return copy == null ? args : copy;
+    }
+
+    private static boolean isImmutable(Object a) {
+        return a == null
+                || a instanceof String
+                || a instanceof ImmutableArg
+                || a instanceof Integer || a instanceof Long || a instanceof Double || a instanceof Float
+                || a instanceof Boolean || a instanceof Character || a instanceof Short || a instanceof Byte
+                || a instanceof Enum
+                || a instanceof BigDecimal || a instanceof BigInteger || a instanceof UUID
+                || a instanceof Class;
+    }
+
+    static void appendArg(StringBuilder sb, Object argument) {
+        if (argument instanceof ImmutableArg) {
+            argument = ((ImmutableArg) argument).get();
+        }
+        if (argument == null) {
+            sb.append("null");
+        } else if (argument instanceof CharSequence) {
+            sb.append((CharSequence) argument);
+        } else if (argument instanceof Integer) {
+            sb.append(((Integer) argument).intValue());
+        } else if (argument instanceof Long) {
+            sb.append(((Long) argument).longValue());
+        } else if (argument instanceof Double) {
+            sb.append(((Double) argument).doubleValue());
+        } else if (argument instanceof Boolean) {
+            sb.append(((Boolean) argument).booleanValue());
+        } else if (argument instanceof Character) {
+            sb.append(((Character) argument).charValue());
+        } else {
+            sb.append(argument.toString());
+        }
+    }
+}
@@ -41,7 +41,7 @@ public class PatternEngine {
 
                     switch (token) {
                         case "timestamp":
-                            value = j.timestamp.format(tf);
+                            value = j.timestamp().format(tf);
                             isTimestamp = true;
                             break;
                         case "level":
@@ -54,7 +54,7 @@ public class PatternEngine {
                             value = Long.toString(j.sequence);
                             break;
                         case "message":
-                            value = j.message;
+                            value = j.message();
                             break;
                         case "name":
                             value = j.name;
@@ -164,7 +164,7 @@ public class PatternEngine {
                     }
                     try {
                         DateTimeFormatter customTf = DateTimeFormatter.ofPattern(fmt);
-                        result = j.timestamp.format(customTf);
+                        result = j.timestamp().format(customTf);
                         continue;
                     } catch (IllegalArgumentException ignored) {
                         // keep result as-is
@@ -195,7 +195,7 @@ public class PatternEngine {
     }
 
     // Parses args like: "10", "10,'0'", "10,  *", "10,\"·\""
-    private static Object[] parseWidthAndFill(String args) {
+    static Object[] parseWidthAndFill(String args) {
         int width = 0;
         char fill = ' ';
         if (args != null && !args.isEmpty()) {
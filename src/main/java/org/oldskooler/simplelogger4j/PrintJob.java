@@ -1,36 +1,261 @@
 package org.oldskooler.simplelogger4j;
 
+import org.oldskooler.simplelogger4j.formatters.StringFormatter;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 public class PrintJob {
-    final long sequence;
-    final LogLevel level;
-    final String message;
-    final String thread;
-    final LocalDateTime timestamp;
-    final Throwable throwable;
-    final boolean isFlush;
-    final String name;
+    long sequence;
+    LogLevel level;
+    String message;
+    String thread;
+    /** Event time in epoch milliseconds, from the bus clock. */
+    long timeMillis;
+    Throwable throwable;
+    boolean isFlush;
+    String name;
+    /** Reusable message storage for recycled jobs; used when {@link #message} is null. */
+    final StringBuilder text;
+    /** Unformatted message, arguments and formatter; resolved into the message on the writer thread. */
+    String template;
+    Object[] args;
+    Formatter formatter;
+    /** {@link System#nanoTime()} when the logging call queued it, for the end-to-end latency metric; 0 without metrics. */
+    long enqueuedNanos;
+    /** A claimed recycled job: the shard it goes to, and its ring position, or -1 to be written on the calling thread. */
+    LogShard shard;
+    long position;
+    /** Where the calling thread is in {@link #template} while it substitutes arguments; -1 once it is all in {@link #text}. */
+    private int cursor;
 
     public PrintJob(String name, long seq, LogLevel lvl, String msg,
                     String thread, LocalDateTime ts, Throwable th, boolean flush) {
+        this(name, seq, lvl, msg, thread, ts.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), th, flush);
+    }
+
+    public PrintJob(String name, long seq, LogLevel lvl, String msg,
+                    String thread, long timeMillis, Throwable th, boolean flush) {
         this.name = name;
         this.sequence = seq;
         this.level = lvl;
         this.message = msg;
         this.thread = thread;
-        this.timestamp = ts;
+        this.timeMillis = timeMillis;
         this.throwable = th;
         this.isFlush = flush;
+        this.text = null;
+    }
+
+    /** An empty, recyclable slot for the garbage-free ring. */
+    PrintJob() {
+        this.level = LogLevel.INFO;
+        this.text = new StringBuilder(256);
     }
 
     static PrintJob of(String name, LogLevel lvl, String msg, Throwable th) {
         long s = LoggerBus.nextSeq();
-        return new PrintJob(name, s, lvl, msg, Thread.currentThread().getName(),
-                LocalDateTime.now(), th, false);
+        return new PrintJob(name, s, lvl, msg, LoggerBus.threadName(),
+                LoggerBus.currentTimeMillis(), th, false);
+    }
+
+    /** A job whose message is only formatted when the writer renders it. */
+    static PrintJob deferred(String name, LogLevel lvl, String template, Object[] args, Formatter formatter, Throwable th) {
+        PrintJob j = of(name, lvl, null, th);
+        j.template = template;
+        j.args = args;
+        j.formatter = formatter;
+        return j;
     }
 
     static PrintJob flush() {
-        return new PrintJob(null, -1, LogLevel.INFO, null, "flush", LocalDateTime.now(), null, true);
+        return new PrintJob(null, -1, LogLevel.INFO, null, "flush", LoggerBus.currentTimeMillis(), null, true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    /** The message with its arguments substituted and the formatter applied; formats it on first use. Writer thread only. */
+    public String getMessage() {
+        return message();
+    }
+
+    /** Like {@link #getMessage()}, but a recycled event returns its reused buffer rather than a copy. Writer thread only. */
+    public CharSequence getMessageText() {
+        resolveMessage();
+        return (message == null && text != null) ? text : message;
+    }
+
+    /**
+     * The {@code {}} template, while the message is still unformatted and its formatter leaves
+     * messages unchanged; otherwise null, and {@link #getMessage()} has the text.
+     */
+    public String getTemplate() {
+        return formatter != null && formatter.getClass() == StringFormatter.class ? template : null;
+    }
+
+    /** The arguments for {@link #getTemplate()}; may be null. */
+    public Object[] getArguments() {
+        return getTemplate() != null ? args : null;
+    }
+
+    LocalDateTime timestamp() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault());
+    }
+
+    String message() {
+        resolveMessage();
+        return (message == null && text != null) ? text.toString() : message;
+    }
+
+    /** Substitutes the arguments and applies the formatter, once. Writer thread only. */
+    void resolveMessage() {
+        if (formatter == null) return;
+        if (text != null) {
+            text.setLength(0);
+            ParameterFormatter.formatTo(text, template, args);
+            formatter.formatMessage(text);
+        } else {
+            message = formatter.formatMessage(ParameterFormatter.format(template, args));
+        }
+        template = null;
+        args = null;
+        formatter = null;
+    }
+
+    /** Fills a recycled slot. */
+    void reset(String name, LogLevel lvl, String template, Object[] args, Formatter formatter,
+               String thread, long timeMillis, Throwable th) {
+        this.name = name;
+        this.sequence = LoggerBus.nextSeq();
+        this.level = lvl;
+        this.message = null;
+        this.template = template;
+        this.args = args;
+        this.formatter = formatter;
+        this.thread = thread;
+        this.timeMillis = timeMillis;
+        this.throwable = th;
+        this.isFlush = false;
+        this.enqueuedNanos = 0;
+        this.cursor = template == null ? -1 : 0;
+        this.text.setLength(0);
+    }
+
+    /**
+     * Substitutes {@code a} for the next {@code {}} of a claimed recycled job, into its reused
+     * buffer. Calling thread only; arguments beyond the last placeholder are ignored.
+     */
+    PrintJob arg(Object a) {
+        if (nextPlaceholder()) ParameterFormatter.appendArg(text, a);
+        return this;
+    }
+
+    PrintJob arg(long a) {
+        if (nextPlaceholder()) text.append(a);
+        return this;
+    }
+
+    PrintJob arg(int a) {
+        if (nextPlaceholder()) text.append(a);
+        return this;
+    }
+
+    PrintJob arg(double a) {
+        if (nextPlaceholder()) text.append(a);
+        return this;
+    }
+
+    PrintJob arg(float a) {
+        if (nextPlaceholder()) text.append(a);
+        return this;
+    }
+
+    PrintJob arg(boolean a) {
+        if (nextPlaceholder()) text.append(a);
+        return this;
+    }
+
+    PrintJob arg(char a) {
+        if (nextPlaceholder()) text.append(a);
+        return this;
+    }
+
+    /** Appends the template up to its next {@code {}}; false, with the rest appended, if there is none. */
+    private boolean nextPlaceholder() {
+        if (cursor < 0) return false;
+        int brace = template.indexOf("{}", cursor);
+        if (brace < 0) {
+            text.append(template, cursor, template.length());
+            cursor = -1;
+            return false;
+        }
+        text.append(template, cursor, brace);
+        cursor = brace + 2;
+        return true;
+    }
+
+    /** Appends what is left of the template and applies the formatter: the message is final. */
+    void endMessage() {
+        if (template == null) {
+            text.append((String) null);
+        } else if (cursor >= 0) {
+            text.append(template, cursor, template.length());
+        }
+        cursor = -1;
+        if (formatter != null) formatter.formatMessage(text);
+        template = null;
+        formatter = null;
+    }
+
+    /** Copies another job into this recycled slot. */
+    void copyFrom(PrintJob o) {
+        this.name = o.name;
+        this.sequence = o.sequence;
+        this.level = o.level;
+        this.message = o.message;
+        this.template = o.template;
+        this.args = o.args;
+        this.formatter = o.formatter;
+        this.thread = o.thread;
+        this.timeMillis = o.timeMillis;
+        this.throwable = o.throwable;
+        this.isFlush = o.isFlush;
+        this.enqueuedNanos = o.enqueuedNanos;
+        this.text.setLength(0);
+    }
+
+    /** Drops references held by a consumed slot so they can be collected. */
+    void recycle() {
+        this.name = null;
+        this.message = null;
+        this.template = null;
+        this.args = null;
+        this.formatter = null;
+        this.thread = null;
+        this.throwable = null;
+        this.shard = null;
     }
 }
@@ -0,0 +1,191 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.formatters.StringFormatter;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code <limits>} of the bus: sampling and rate limits applied in {@link SimpleLog} before an
+ * event is queued, so a flood from one logger or call site is thinned out on the calling thread
+ * instead of filling the queue and getting other events dropped.
+ * <p>
+ * Each logger name and level has its own {@link Limiter}, shared by every logger instance with that
+ * name, from the rule that fits it best. A limiter keeps one {@link Bucket}, or with
+ * {@code perTemplate} one per message template (up to {@value #MAX_TEMPLATES}, then the rest share
+ * one). Buckets are lock-free: 1 in N is a counter, the rate a token bucket kept as the single time
+ * at which it will be full again (GCRA), advanced by compare-and-set.
+ * <p>
+ * Every {@code summaryIntervalMs} a daemon thread logs, under the same logger name and level,
+ * how many events each bucket held back since the last summary; and once more at shutdown.
+ */
+final class RateLimits {
+    private static final int MAX_TEMPLATES = 256;
+    private static final String SUMMARY = "Suppressed {} events in the last {} ms ({}){}";
+
+    private final List<LimitRule> rules;
+    private final long summaryIntervalMs;
+    private final ConcurrentHashMap<String, Limiter> limiters = new ConcurrentHashMap<>();
+    private final StringFormatter formatter = new StringFormatter();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+    private long lastSummary = System.nanoTime();
+    private volatile boolean closed;
+
+    RateLimits(List<LimitRule> rules, long summaryIntervalMs) {
+        this.rules = rules;
+        this.summaryIntervalMs = Math.max(1, summaryIntervalMs);
+        thread = new Thread(this::loop, "Logger-Limits");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** The limiters for a logger by {@link LogLevel#ordinal()}, null where nothing applies; null if nothing applies at any level. */
+    Limiter[] forLogger(String name) {
+        LogLevel[] levels = LogLevel.values();
+        Limiter[] result = new Limiter[levels.length];
+        boolean any = false;
+        for(LogLevel level : levels) {
+            LimitRule best = null;
+            int fit = -1;
+            for(LimitRule r : rules) {
+                int f = r.match(name, level);
+                if(f > fit) {
+                    fit = f;
+                    best = r;
+                }
+            }
+            if(best == null) continue;
+            LimitRule rule = best;
+            result[level.ordinal()] = limiters.computeIfAbsent(name + '|' + level, k -> new Limiter(name, level, rule));
+            any = true;
+        }
+        return any ? result : null;
+    }
+
+    private void loop() {
+        try {
+            while(!closed) {
+                Thread.sleep(summaryIntervalMs);
+                summarise();
+            }
+        } catch(InterruptedException e) {
+            // Closed at shutdown
+        }
+    }
+
+    /** Logs a summary for every bucket that held events back since the last one. */
+    synchronized void summarise() {
+        long now = System.nanoTime();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(now - lastSummary);
+        lastSummary = now;
+        for(Limiter l : limiters.values()) {
+            summarise(l, l.shared, elapsedMs);
+            if(l.byTemplate != null) {
+                for(Bucket b : l.byTemplate.values()) summarise(l, b, elapsedMs);
+            }
+        }
+    }
+
+    private void summarise(Limiter l, Bucket b, long elapsedMs) {
+        long total = b.suppressed.sum();
+        long n = total - b.reported;
+        if(n == 0) return;
+        b.reported = total;
+        String which = b.template == null ? "" : " of \"" + b.template + "\"";
+        LoggerBus.offer(l.name, l.level, SUMMARY, new Object[]{n, elapsedMs, l.rule, which}, null, formatter, dropped);
+    }
+
+    /** Stops the summary thread and logs the last summaries, before the writers stop. */
+    void close() {
+        closed = true;
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        summarise();
+    }
+
+    /** Total events held back so far, by every limiter. */
+    long getSuppressedCount() {
+        long total = 0;
+        for(Limiter l : limiters.values()) {
+            total += l.shared.suppressed.sum();
+            if(l.byTemplate != null) {
+                for(Bucket b : l.byTemplate.values()) total += b.suppressed.sum();
+            }
+        }
+        return total;
+    }
+
+    /** The limits for one logger name and level. */
+    static final class Limiter {
+        final String name;
+        final LogLevel level;
+        final LimitRule rule;
+        /** The whole logger's bucket; with {@code perTemplate}, for templates past the cap and messages without one. */
+        final Bucket shared = new Bucket(null);
+        final ConcurrentHashMap<String, Bucket> byTemplate;
+
+        Limiter(String name, LogLevel level, LimitRule rule) {
+            this.name = name;
+            this.level = level;
+            this.rule = rule;
+            this.byTemplate = rule.perTemplate ? new ConcurrentHashMap<>() : null;
+        }
+
+        /** Whether an event with this template may be logged; if not, it is counted for the summary. */
+        boolean admit(String template) {
+            Bucket b = shared;
+            if(byTemplate != null && template != null) {
+                b = byTemplate.get(template);
+                if(b == null) b = newBucket(template);
+            }
+            if(b.admit(rule)) return true;
+            b.suppressed.increment();
+            return false;
+        }
+
+        private Bucket newBucket(String template) {
+            if(byTemplate.size() >= MAX_TEMPLATES) return shared;
+            Bucket b = new Bucket(template);
+            Bucket raced = byTemplate.putIfAbsent(template, b);
+            return raced != null ? raced : b;
+        }
+    }
+
+    /** The state of one limit: events seen for 1 in N, when the token bucket is full again, and events held back. */
+    static final class Bucket {
+        final String template;
+        private final AtomicLong seen = new AtomicLong();
+        /** GCRA's theoretical arrival time: the token bucket is full from this {@link System#nanoTime()} on. */
+        private final AtomicLong fullAt = new AtomicLong(System.nanoTime());
+        final LongAdder suppressed = new LongAdder();
+        /** Of {@link #suppressed}, how many a summary has already reported; summary thread only. */
+        long reported;
+
+        Bucket(String template) {
+            this.template = template;
+        }
+
+        boolean admit(LimitRule rule) {
+            if(rule.sample > 1 && seen.getAndIncrement() % rule.sample != 0) return false;
+            if(rule.probability < 1 && ThreadLocalRandom.current().nextDouble() >= rule.probability) return false;
+            if(rule.intervalNanos == 0) return true;
+            long now = System.nanoTime();
+            for(;;) {
+                long full = fullAt.get();
+                long start = full - now > 0 ? full : now;
+                // More than a burst ahead of time: no token left
+                if(start - now > rule.toleranceNanos) return false;
+                if(fullAt.compareAndSet(full, start + rule.intervalNanos)) return true;
+            }
+        }
+    }
+}
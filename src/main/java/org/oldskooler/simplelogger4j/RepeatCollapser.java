@@ -0,0 +1,99 @@
+package org.oldskooler.simplelogger4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds back events that repeat the one written before them, {@code <collapseRepeats>}: same logger
+ * name, level and message, compared by hash and then in full. In their place the writer writes
+ * one {@code last message repeated N times} event, with the time, thread and sequence number of
+ * the last repeat, when a different event arrives, when the repeats have been held back for
+ * {@code maxHoldMs}, and before a flush or shutdown. Events with a throwable are always written.
+ * <p>
+ * The message is formatted to compare it, before the event appenders see the event, so they get
+ * the text rather than the template. The last message is copied into a reused buffer, so nothing
+ * is allocated except for the summary events. Writer thread, or under the write lock, only.
+ */
+final class RepeatCollapser {
+    private final long maxHoldNanos;
+    // The last event written
+    private boolean hasLast;
+    private String name;
+    private LogLevel level;
+    private final StringBuilder message = new StringBuilder(256);
+    private boolean nullMessage;
+    private int hash;
+    // The repeats held back since then
+    private long repeats;
+    private long heldSince;
+    private String thread;
+    private long timeMillis;
+    private long sequence;
+
+    RepeatCollapser(LogConfig c) {
+        maxHoldNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, c.getCollapseMaxHoldMs()));
+    }
+
+    /** Whether {@code j} repeats the last event written; if so it is counted and must not be written. */
+    boolean repeats(PrintJob j) {
+        if(!hasLast || j.throwable != null || j.level != level || !sameName(j.name)) return false;
+        CharSequence text = j.getMessageText();
+        if(text == null ? !nullMessage : nullMessage || hash(text) != hash || !same(text)) return false;
+        if(repeats++ == 0) heldSince = System.nanoTime();
+        thread = j.thread;
+        timeMillis = j.timeMillis;
+        sequence = j.sequence;
+        return true;
+    }
+
+    /** Makes {@code j}, which is about to be written, the event later ones are compared with. */
+    void remember(PrintJob j) {
+        hasLast = j.throwable == null;
+        if(!hasLast) return;
+        name = j.name;
+        level = j.level;
+        CharSequence text = j.getMessageText();
+        nullMessage = text == null;
+        message.setLength(0);
+        if(text != null) message.append(text);
+        hash = text == null ? 0 : hash(text);
+        if(message.capacity() > 65536) {
+            message.setLength(0);
+            message.trimToSize();
+            hasLast = false;
+        }
+    }
+
+    /** The summary of the repeats held back, if any, which are then forgotten. */
+    PrintJob takeSummary() {
+        if(repeats == 0) return null;
+        PrintJob summary = new PrintJob(name, sequence, level, "last message repeated " + repeats + (repeats == 1 ? " time" : " times"),
+                thread, timeMillis, null, false);
+        repeats = 0;
+        thread = null;
+        return summary;
+    }
+
+    /** As {@link #takeSummary()}, once the repeats have been held back for {@code maxHoldMs}. */
+    PrintJob takeDue() {
+        return repeats > 0 && System.nanoTime() - heldSince >= maxHoldNanos ? takeSummary() : null;
+    }
+
+    private boolean sameName(String other) {
+        return other == null ? name == null : other.equals(name);
+    }
+
+    private boolean same(CharSequence text) {
+        int n = text.length();
+        if(n != message.length()) return false;
+        for(int i = 0; i < n; i++) {
+            if(text.charAt(i) != message.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence s) {
+        int h = 0;
+        for(int i = 0, n = s.length(); i < n; i++) h = 31 * h + s.charAt(i);
+        return h;
+    }
+}
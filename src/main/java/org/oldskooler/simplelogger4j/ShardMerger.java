@@ -0,0 +1,170 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.queue.LogQueue;
+import org.oldskooler.simplelogger4j.queue.MpscRingBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optional last stage of a sharded bus: shard writers render events and hand them over here, and a
+ * single "Logger-Merger" thread writes them to one set of appenders in sequence-number order.
+ * <p>
+ * Lines wait in a priority queue until the next expected sequence number arrives. Numbers can be
+ * missing for good (an event dropped after it got its number), so a line is also written once it
+ * has waited {@code mergeWindowMs}. A line that turns up after a later one was written is written
+ * straight away and counted in {@link #getLateCount()}.
+ */
+final class ShardMerger {
+    static final class Line {
+        final long seq;
+        final String plain;
+        final String coloured;
+        final Throwable throwable;
+        final int priority;
+        long received;
+
+        Line(long seq, String plain, String coloured, Throwable throwable, int priority) {
+            this.seq = seq;
+            this.plain = plain;
+            this.coloured = coloured;
+            this.throwable = throwable;
+            this.priority = priority;
+        }
+    }
+
+    /** Sequence number of the flush marker shards send when asked to flush. */
+    private static final long FLUSH = -1;
+
+    private volatile AppenderGroup group;
+    /** A reloaded config whose appenders the merger thread has yet to build. */
+    private final AtomicReference<LogConfig> pendingConfig = new AtomicReference<>();
+    private final LogQueue<Line> inbox;
+    private final PriorityQueue<Line> pending = new PriorityQueue<>(1024, (a, b) -> Long.compare(a.seq, b.seq));
+    private final List<Line> drained = new ArrayList<>();
+    private final long windowNanos;
+    private final Thread thread;
+    private volatile boolean closing;
+    private long next;
+    private boolean flushRequested;
+    private volatile long lateCount;
+    private volatile long mergedCount;
+
+    ShardMerger(LogConfig c, AppenderGroup group) {
+        this.group = group;
+        this.inbox = new MpscRingBuffer<>(c.getQueueSize());
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, c.getShardMergeWindowMs()));
+        thread = new Thread(this::loop, "Logger-Merger");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Called by shard writers; waits while the merger is behind. */
+    void add(long seq, String plain, String coloured, Throwable throwable, int priority) {
+        try {
+            inbox.put(new Line(seq, plain, coloured, throwable, priority));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void flush() {
+        add(FLUSH, null, null, null, 0);
+    }
+
+    /** Rebuilds the appenders from a reloaded config on the merger thread, between writes. */
+    void reconfigure(LogConfig c) {
+        pendingConfig.set(c);
+    }
+
+    /** Writes out everything handed over so far, ignoring gaps, and closes the appenders; false if that took too long. */
+    boolean close(long timeout, TimeUnit unit) throws InterruptedException {
+        closing = true;
+        // Wakes the merger if it is parked on an empty inbox
+        inbox.offer(new Line(FLUSH, null, null, null, 0));
+        thread.join(Math.max(1, unit.toMillis(timeout)));
+        return !thread.isAlive();
+    }
+
+    private void loop() {
+        while(!closing || !inbox.isEmpty() || !pending.isEmpty()) {
+            try {
+                Line first = inbox.poll(waitNanos(), TimeUnit.NANOSECONDS);
+                long now = System.nanoTime();
+                LogConfig reloaded = pendingConfig.getAndSet(null);
+                if(reloaded != null) group = new AppenderGroup(reloaded, "", group);
+                if(first != null) {
+                    take(first, now);
+                    inbox.drainTo(drained, 1024);
+                    for(int i = 0; i < drained.size(); i++) take(drained.get(i), now);
+                    drained.clear();
+                }
+                writeReady(now);
+                if(flushRequested) {
+                    flushRequested = false;
+                    group.flushAll();
+                }
+                group.flushIfDue(pending.isEmpty() && inbox.isEmpty());
+            } catch(InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch(Exception ex) {
+                System.err.println("Logger error: " + ex.getMessage());
+            }
+        }
+        group.close();
+    }
+
+    private void take(Line l, long now) {
+        if(l.seq == FLUSH) {
+            flushRequested = true;
+            return;
+        }
+        l.received = now;
+        pending.add(l);
+    }
+
+    /** Writes lines in order while the next one is the expected number or has waited long enough. */
+    private void writeReady(long now) {
+        boolean drain = closing;
+        Line top;
+        while((top = pending.peek()) != null) {
+            if(top.seq > next && !drain && now - top.received < windowNanos) break;
+            pending.poll();
+            if(top.seq < next) {
+                lateCount++;
+            } else {
+                next = top.seq + 1;
+            }
+            try {
+                group.write(top.plain, top.coloured, top.throwable, top.priority);
+            } catch(Exception ex) {
+                System.err.println("Logger error: " + ex.getMessage());
+            }
+            mergedCount++;
+        }
+    }
+
+    /** Until the oldest pending line's window ends, or as long as the flush policy allows. */
+    private long waitNanos() {
+        long wait = group.pollNanos();
+        Line top = pending.peek();
+        if(top != null) wait = Math.min(wait, Math.max(0, top.received + windowNanos - System.nanoTime()));
+        return wait;
+    }
+
+    AppenderGroup getGroup() {
+        return group;
+    }
+
+    long getLateCount() {
+        return lateCount;
+    }
+
+    long getMergedCount() {
+        return mergedCount;
+    }
+}
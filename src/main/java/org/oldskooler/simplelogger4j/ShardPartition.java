@@ -0,0 +1,16 @@
+package org.oldskooler.simplelogger4j;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/** How a sharded bus picks the shard for an event. */
+public enum ShardPartition {
+    /** By a hash of the logger name: each logger's events stay in order within one shard. */
+    NAME,
+    /** By producer thread, assigned round-robin on the thread's first event: each thread's events stay in order. */
+    THREAD;
+
+    public static ShardPartition parse(String s) {
+        return ShardPartition.valueOf(Objects.requireNonNull(s).trim().toUpperCase(Locale.ROOT));
+    }
+}
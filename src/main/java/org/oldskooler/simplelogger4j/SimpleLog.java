@@ -1,47 +1,62 @@
 package org.oldskooler.simplelogger4j;
 
-import org.oldskooler.simplelogger4j.formatters.StringFormatter;
+import org.oldskooler.simplelogger4j.appenders.Appender;
+import org.oldskooler.simplelogger4j.appenders.AsyncAppender;
+import org.oldskooler.simplelogger4j.metrics.LoggerMetrics;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.function.Supplier;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class SimpleLog {
     private final Formatter formatter;
-    private final LogLevel minLogLevel;
+    private final LogConfig config;
+    private final LevelTrie levels;
+    /** Effective level priority in the low 32 bits, and the trie generation it was resolved at in the high 32. */
+    private volatile long cachedLevel;
     private final AtomicBoolean disposed = new AtomicBoolean(false);
     private final AtomicLong droppedMessages = new AtomicLong(0);
     private final AtomicLong totalMessages = new AtomicLong(0);
     private final String name;
+    /** True for the instances {@link LoggerFactory} shares between callers, which only the bus's shutdown disposes. */
+    private final boolean cached;
+    /** Sampling and rate limits by {@link LogLevel#ordinal()}; null when no {@code <limit>} applies to this logger. */
+    private final RateLimits.Limiter[] limiters;
 
     // ===== Constructors / factories =====
+    // Loggers come from LoggerFactory: the config file is parsed once and each name has one instance
     public static <T> SimpleLog of(Class<T> clazz) {
-        return fromXml("simplelogger4j.xml", clazz.getCanonicalName());
+        return LoggerFactory.getLogger(clazz);
     }
 
     public static <T> SimpleLog of(String name)  {
-        return fromXml("simplelogger4j.xml", name);
+        return LoggerFactory.getLogger(name);
     }
 
     public static <T> SimpleLog fromXml(String xmlPath, String name) {
-        return fromXml(xmlPath, new StringFormatter(), name);
+        return LoggerFactory.getLogger(xmlPath, name);
     }
 
+    /** A new logger with its own formatter; not cached, but the config is only parsed once. */
     public static <T> SimpleLog fromXml(String xmlPath, Formatter formatter, String name) {
-        LogConfig cfg = LogConfig.fromXml(xmlPath);
-        return new SimpleLog(cfg, formatter, name);
+        return LoggerFactory.newLogger(xmlPath, formatter, name);
     }
 
-    private SimpleLog(LogConfig cfg, Formatter formatter, String name) {
+    SimpleLog(LogConfig cfg, Formatter formatter, String name, boolean cached) {
         try {
             LoggerBus.initIfNeeded(cfg);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
         this.formatter = formatter;
-        this.minLogLevel = cfg.getMinLevel();
+        this.config = cfg;
+        this.levels = cfg.getLevels();
         this.name = name;
-        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+        this.cached = cached;
+        this.limiters = LoggerBus.limiters(name);
+        refreshLevel();
     }
 
     public void log(LogLevel level, String message) {
@@ -49,13 +64,123 @@ public class SimpleLog {
     }
 
     public void log(LogLevel level, String message, Throwable throwable) {
-        if(disposed.get() || level.getPriority() < minLogLevel.getPriority()) return;
+        log(level, message, throwable, null);
+    }
+
+    /**
+     * Checks the level before anything else, then the limits; the message is formatted later, on the writer thread,
+     * except in garbage-free mode, where it is formatted into a recycled event before this returns.
+     */
+    private void log(LogLevel level, String template, Throwable throwable, Object[] args) {
+        if(!admit(level, template)) return;
+
+        boolean result = LoggerBus.offer(name, level, template, args, throwable, formatter, droppedMessages);
+
+    }
+
+    private boolean admit(LogLevel level, String template) {
+        if(level.getPriority() < minPriority() || disposed.get()) return false;
+        RateLimits.Limiter[] l = limiters;
+        if(l != null && l[level.ordinal()] != null && !l[level.ordinal()].admit(template)) return false;
         totalMessages.incrementAndGet();
+        return true;
+    }
+
+    // Garbage-free mode: the fixed-arity and primitive overloads substitute their arguments straight into a recycled
+    // event, so there is no argument array and no box to allocate. Otherwise they queue an array as the varargs do
+    private PrintJob claim(LogLevel level, String template, Throwable t) {
+        return admit(level, template) ? LoggerBus.claim(name, level, template, t, formatter, droppedMessages) : null;
+    }
 
-        String msg = formatter.formatMessage(message);
+    private void log(LogLevel level, String msg, Throwable t, Object a) {
+        if(!LoggerBus.isGarbageFree()) { log(level, msg, t, new Object[]{a}); return; }
+        PrintJob j = claim(level, msg, t);
+        if(j != null) try { j.arg(a); } finally { LoggerBus.publish(j); }
+    }
+
+    private void log(LogLevel level, String msg, Throwable t, Object a, Object b) {
+        if(!LoggerBus.isGarbageFree()) { log(level, msg, t, new Object[]{a, b}); return; }
+        PrintJob j = claim(level, msg, t);
+        if(j != null) try { j.arg(a).arg(b); } finally { LoggerBus.publish(j); }
+    }
 
-        boolean result = LoggerBus.offer(PrintJob.of(name, level, msg, throwable), droppedMessages);
+    private void log(LogLevel level, String msg, Throwable t, Object a, Object b, Object c) {
+        if(!LoggerBus.isGarbageFree()) { log(level, msg, t, new Object[]{a, b, c}); return; }
+        PrintJob j = claim(level, msg, t);
+        if(j != null) try { j.arg(a).arg(b).arg(c); } finally { LoggerBus.publish(j); }
+    }
+
+    private void log(LogLevel level, String msg, long a) {
+        if(!LoggerBus.isGarbageFree()) { log(level, msg, null, new Object[]{a}); return; }
+        PrintJob j = claim(level, msg, null);
+        if(j != null) LoggerBus.publish(j.arg(a));
+    }
 
+    private void log(LogLevel level, String msg, int a) {
+        if(!LoggerBus.isGarbageFree()) { log(level, msg, null, new Object[]{a}); return; }
+        PrintJob j = claim(level, msg, null);
+        if(j != null) LoggerBus.publish(j.arg(a));
+    }
+
+    private void log(LogLevel level, String msg, double a) {
+        if(!LoggerBus.isGarbageFree()) { log(level, msg, null, new Object[]{a}); return; }
+        PrintJob j = claim(level, msg, null);
+        if(j != null) LoggerBus.publish(j.arg(a));
+    }
+
+    private void log(LogLevel level, String msg, float a) {
+        if(!LoggerBus.isGarbageFree()) { log(level, msg, null, new Object[]{a}); return; }
+        PrintJob j = claim(level, msg, null);
+        if(j != null) LoggerBus.publish(j.arg(a));
+    }
+
+    private void log(LogLevel level, String msg, boolean a) {
+        if(!LoggerBus.isGarbageFree()) { log(level, msg, null, new Object[]{a}); return; }
+        PrintJob j = claim(level, msg, null);
+        if(j != null) LoggerBus.publish(j.arg(a));
+    }
+
+    private void log(LogLevel level, String msg, char a) {
+        if(!LoggerBus.isGarbageFree()) { log(level, msg, null, new Object[]{a}); return; }
+        PrintJob j = claim(level, msg, null);
+        if(j != null) LoggerBus.publish(j.arg(a));
+    }
+
+    // ===== Level guards =====
+    public boolean isEnabled(LogLevel level) {
+        return level.getPriority() >= minPriority();
+    }
+
+    public boolean isDebugEnabled() { return LogLevel.DEBUG.getPriority() >= minPriority(); }
+    public boolean isInfoEnabled() { return LogLevel.INFO.getPriority() >= minPriority(); }
+    public boolean isSuccessEnabled() { return LogLevel.SUCCESS.getPriority() >= minPriority(); }
+    public boolean isWarnEnabled() { return LogLevel.WARN.getPriority() >= minPriority(); }
+    public boolean isErrorEnabled() { return LogLevel.ERROR.getPriority() >= minPriority(); }
+    public boolean isCriticalEnabled() { return LogLevel.CRITICAL.getPriority() >= minPriority(); }
+
+    /** The cached effective level; resolved again only after a level has changed somewhere. */
+    private int minPriority() {
+        long c = cachedLevel;
+        if((int) (c >>> 32) != levels.generation()) c = refreshLevel();
+        return (int) c;
+    }
+
+    private long refreshLevel() {
+        // Generation first: a change made while resolving leaves the cache stale, not wrong
+        int generation = levels.generation();
+        long c = ((long) generation << 32) | levels.resolve(name).getPriority();
+        cachedLevel = c;
+        return c;
+    }
+
+    /** The level in effect for this logger. */
+    public LogLevel getLevel() {
+        return levels.resolve(name);
+    }
+
+    /** Sets this logger's own level, which also applies to loggers named below it; null inherits again. */
+    public void setLevel(LogLevel level) {
+        config.setLevel(name, level);
     }
 
     // String conveniences
@@ -70,63 +195,119 @@ public class SimpleLog {
     public void critical(String msg, Throwable t) { log(LogLevel.CRITICAL, msg, t); }
 
     public void debug(String msg, Object... args) {
-        log(LogLevel.DEBUG, format(msg, args));
+        log(LogLevel.DEBUG, msg, null, args);
     }
 
     public void info(String msg, Object... args) {
-        log(LogLevel.INFO, format(msg, args));
+        log(LogLevel.INFO, msg, null, args);
     }
 
     public void warn(String msg, Object... args) {
-        log(LogLevel.WARN, format(msg, args));
+        log(LogLevel.WARN, msg, null, args);
     }
 
     public void success(String msg, Object... args) {
-        log(LogLevel.SUCCESS, format(msg, args));
+        log(LogLevel.SUCCESS, msg, null, args);
     }
 
     public void warn(String msg, Throwable t, Object... args) {
-        log(LogLevel.WARN, format(msg, args), t);
+        log(LogLevel.WARN, msg, t, args);
     }
 
     public void error(String msg, Object... args) {
-        log(LogLevel.ERROR, format(msg, args));
+        log(LogLevel.ERROR, msg, null, args);
     }
 
     public void error(String msg, Throwable t, Object... args) {
-        log(LogLevel.ERROR, format(msg, args), t);
+        log(LogLevel.ERROR, msg, t, args);
     }
 
     public void critical(String msg, Object... args) {
-        log(LogLevel.CRITICAL, format(msg, args));
+        log(LogLevel.CRITICAL, msg, null, args);
     }
 
     public void critical(String msg, Throwable t, Object... args) {
-        log(LogLevel.CRITICAL, format(msg, args), t);
+        log(LogLevel.CRITICAL, msg, t, args);
     }
 
-    /**
-     * Simple formatter that replaces {} with arguments in order.
-     */
-    private String format(String template, Object... args) {
-        if (template == null || args == null || args.length == 0) {
-            return template;
-        }
-        StringBuilder sb = new StringBuilder();
-        int argIndex = 0;
-        int cur = 0;
-        int brace;
-        while ((brace = template.indexOf("{}", cur)) != -1 && argIndex < args.length) {
-            sb.append(template, cur, brace);
+    // Lazy messages: the supplier only runs when the level is enabled. A bare null message now matches these as well
+    // as the String overloads, so info(null) needs a cast: info((String) null)
+    public void debug(Supplier<String> msg) { if(isDebugEnabled()) log(LogLevel.DEBUG, msg.get()); }
+    public void info(Supplier<String> msg) { if(isInfoEnabled()) log(LogLevel.INFO, msg.get()); }
+    public void success(Supplier<String> msg) { if(isSuccessEnabled()) log(LogLevel.SUCCESS, msg.get()); }
+    public void warn(Supplier<String> msg) { if(isWarnEnabled()) log(LogLevel.WARN, msg.get()); }
+    public void error(Supplier<String> msg) { if(isErrorEnabled()) log(LogLevel.ERROR, msg.get()); }
+    public void critical(Supplier<String> msg) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg.get()); }
+    public void warn(Supplier<String> msg, Throwable t) { if(isWarnEnabled()) log(LogLevel.WARN, msg.get(), t); }
+    public void error(Supplier<String> msg, Throwable t) { if(isErrorEnabled()) log(LogLevel.ERROR, msg.get(), t); }
+    public void critical(Supplier<String> msg, Throwable t) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg.get(), t); }
 
-            Object argument = args[argIndex++];
-            sb.append(argument == null ? "null" : argument.toString());
+    // Fixed arity and primitive arguments: nothing is allocated or boxed while the level is disabled, nor in garbage-free mode
+    public void debug(String msg, Object a) { if(isDebugEnabled()) log(LogLevel.DEBUG, msg, null, a); }
+    public void debug(String msg, Object a, Object b) { if(isDebugEnabled()) log(LogLevel.DEBUG, msg, null, a, b); }
+    public void debug(String msg, Object a, Object b, Object c) { if(isDebugEnabled()) log(LogLevel.DEBUG, msg, null, a, b, c); }
+    public void debug(String msg, long a) { if(isDebugEnabled()) log(LogLevel.DEBUG, msg, a); }
+    public void debug(String msg, int a) { if(isDebugEnabled()) log(LogLevel.DEBUG, msg, a); }
+    public void debug(String msg, double a) { if(isDebugEnabled()) log(LogLevel.DEBUG, msg, a); }
+    public void debug(String msg, float a) { if(isDebugEnabled()) log(LogLevel.DEBUG, msg, a); }
+    public void debug(String msg, boolean a) { if(isDebugEnabled()) log(LogLevel.DEBUG, msg, a); }
+    public void debug(String msg, char a) { if(isDebugEnabled()) log(LogLevel.DEBUG, msg, a); }
 
-            cur = brace + 2;
-        }
-        sb.append(template.substring(cur));
-        return sb.toString();
-    }
+    public void info(String msg, Object a) { if(isInfoEnabled()) log(LogLevel.INFO, msg, null, a); }
+    public void info(String msg, Object a, Object b) { if(isInfoEnabled()) log(LogLevel.INFO, msg, null, a, b); }
+    public void info(String msg, Object a, Object b, Object c) { if(isInfoEnabled()) log(LogLevel.INFO, msg, null, a, b, c); }
+    public void info(String msg, long a) { if(isInfoEnabled()) log(LogLevel.INFO, msg, a); }
+    public void info(String msg, int a) { if(isInfoEnabled()) log(LogLevel.INFO, msg, a); }
+    public void info(String msg, double a) { if(isInfoEnabled()) log(LogLevel.INFO, msg, a); }
+    public void info(String msg, float a) { if(isInfoEnabled()) log(LogLevel.INFO, msg, a); }
+    public void info(String msg, boolean a) { if(isInfoEnabled()) log(LogLevel.INFO, msg, a); }
+    public void info(String msg, char a) { if(isInfoEnabled()) log(LogLevel.INFO, msg, a); }
+
+    public void success(String msg, Object a) { if(isSuccessEnabled()) log(LogLevel.SUCCESS, msg, null, a); }
+    public void success(String msg, Object a, Object b) { if(isSuccessEnabled()) log(LogLevel.SUCCESS, msg, null, a, b); }
+    public void success(String msg, Object a, Object b, Object c) { if(isSuccessEnabled()) log(LogLevel.SUCCESS, msg, null, a, b, c); }
+    public void success(String msg, long a) { if(isSuccessEnabled()) log(LogLevel.SUCCESS, msg, a); }
+    public void success(String msg, int a) { if(isSuccessEnabled()) log(LogLevel.SUCCESS, msg, a); }
+    public void success(String msg, double a) { if(isSuccessEnabled()) log(LogLevel.SUCCESS, msg, a); }
+    public void success(String msg, float a) { if(isSuccessEnabled()) log(LogLevel.SUCCESS, msg, a); }
+    public void success(String msg, boolean a) { if(isSuccessEnabled()) log(LogLevel.SUCCESS, msg, a); }
+    public void success(String msg, char a) { if(isSuccessEnabled()) log(LogLevel.SUCCESS, msg, a); }
+
+    public void warn(String msg, Object a) { if(isWarnEnabled()) log(LogLevel.WARN, msg, null, a); }
+    public void warn(String msg, Object a, Object b) { if(isWarnEnabled()) log(LogLevel.WARN, msg, null, a, b); }
+    public void warn(String msg, Object a, Object b, Object c) { if(isWarnEnabled()) log(LogLevel.WARN, msg, null, a, b, c); }
+    public void warn(String msg, Throwable t, Object a) { if(isWarnEnabled()) log(LogLevel.WARN, msg, t, a); }
+    public void warn(String msg, Throwable t, Object a, Object b) { if(isWarnEnabled()) log(LogLevel.WARN, msg, t, a, b); }
+    public void warn(String msg, long a) { if(isWarnEnabled()) log(LogLevel.WARN, msg, a); }
+    public void warn(String msg, int a) { if(isWarnEnabled()) log(LogLevel.WARN, msg, a); }
+    public void warn(String msg, double a) { if(isWarnEnabled()) log(LogLevel.WARN, msg, a); }
+    public void warn(String msg, float a) { if(isWarnEnabled()) log(LogLevel.WARN, msg, a); }
+    public void warn(String msg, boolean a) { if(isWarnEnabled()) log(LogLevel.WARN, msg, a); }
+    public void warn(String msg, char a) { if(isWarnEnabled()) log(LogLevel.WARN, msg, a); }
+
+    public void error(String msg, Object a) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, null, a); }
+    public void error(String msg, Object a, Object b) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, null, a, b); }
+    public void error(String msg, Object a, Object b, Object c) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, null, a, b, c); }
+    public void error(String msg, Throwable t, Object a) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, t, a); }
+    public void error(String msg, Throwable t, Object a, Object b) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, t, a, b); }
+    public void error(String msg, long a) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, a); }
+    public void error(String msg, int a) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, a); }
+    public void error(String msg, double a) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, a); }
+    public void error(String msg, float a) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, a); }
+    public void error(String msg, boolean a) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, a); }
+    public void error(String msg, char a) { if(isErrorEnabled()) log(LogLevel.ERROR, msg, a); }
+
+    public void critical(String msg, Object a) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, null, a); }
+    public void critical(String msg, Object a, Object b) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, null, a, b); }
+    public void critical(String msg, Object a, Object b, Object c) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, null, a, b, c); }
+    public void critical(String msg, Throwable t, Object a) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, t, a); }
+    public void critical(String msg, Throwable t, Object a, Object b) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, t, a, b); }
+    public void critical(String msg, long a) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, a); }
+    public void critical(String msg, int a) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, a); }
+    public void critical(String msg, double a) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, a); }
+    public void critical(String msg, float a) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, a); }
+    public void critical(String msg, boolean a) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, a); }
+    public void critical(String msg, char a) { if(isCriticalEnabled()) log(LogLevel.CRITICAL, msg, a); }
 
     /** enqueue a flush sentinel (blocks briefly if queue is full) */
     public void flush() {
@@ -137,11 +318,18 @@ public class SimpleLog {
         }
     }
 
-    /** no-op for additional instances; the global writer stops once */
+    /**
+     * Ignores later calls on this logger; the global writer stops once. A no-op for the loggers returned by
+     * {@link #of(String)} and {@link #fromXml(String, String)}: every caller asking for that name gets the same
+     * instance, and they are disposed together when the bus shuts down.
+     */
     public void shutdown() {
-        if(disposed.compareAndSet(false, true)) {
-            /* instance disposed; do not stop bus here */
-        }
+        if(!cached) dispose();
+    }
+
+    /** Disposes this logger, cached or not; the instance only, the bus keeps running. */
+    void dispose() {
+        disposed.set(true);
     }
 
     // ===== Metrics =====
@@ -157,4 +345,93 @@ public class SimpleLog {
         long total = totalMessages.get();
         return total > 0 ? (double)droppedMessages.get() / total * 100.0 : 0.0;
     }
+
+    /** The appenders the writer sends events to, e.g. to read {@link AsyncAppender} metrics. */
+    public List<Appender> getAppenders() {
+        return LoggerBus.getAppenders();
+    }
+
+    // Overflow metrics, shared by all loggers
+
+    /** Number of logging calls that found the queue full. */
+    public long getOverflowCount() {
+        return LoggerBus.getOverflowCount();
+    }
+
+    /** Number of calls that waited for space (BLOCK, DROP_BELOW). */
+    public long getBlockedCount() {
+        return LoggerBus.getBlockedCount();
+    }
+
+    /** Number of calls that waited for space and gave up. */
+    public long getTimedOutCount() {
+        return LoggerBus.getTimedOutCount();
+    }
+
+    /** Number of queued events evicted to make room (DROP_OLDEST). */
+    public long getEvictedCount() {
+        return LoggerBus.getEvictedCount();
+    }
+
+    /** Number of events written on the calling thread (CALLER_RUNS). */
+    public long getCallerRunsCount() {
+        return LoggerBus.getCallerRunsCount();
+    }
+
+    /** Number of new events dropped by any logger. */
+    public long getTotalDroppedCount() {
+        return LoggerBus.getDroppedCount();
+    }
+
+    // Writer metrics, shared by all loggers
+
+    /** Number of times the writer has flushed its appenders. */
+    public long getFlushCount() {
+        return LoggerBus.getFlushCount();
+    }
+
+    /** Number of batches the writer has taken from the queue. */
+    public long getBatchCount() {
+        return LoggerBus.getBatchCount();
+    }
+
+    /** Largest batch taken from the queue so far. */
+    public int getMaxBatchSize() {
+        return LoggerBus.getMaxBatchSize();
+    }
+
+    public double getAverageBatchSize() {
+        long batches = LoggerBus.getBatchCount();
+        return batches > 0 ? (double)LoggerBus.getBatchedEventCount() / batches : 0.0;
+    }
+
+    /** Number of queues and writer threads, see {@code <shards count>}. */
+    public int getShardCount() {
+        return LoggerBus.getShardCount();
+    }
+
+    /** Number of events the shard merge stage has written; 0 when shards are not merged. */
+    public long getMergedCount() {
+        return LoggerBus.getMergedCount();
+    }
+
+    /** Number of events the shard merge stage wrote out of sequence order, having arrived after their merge window. */
+    public long getMergeLateCount() {
+        return LoggerBus.getMergeLateCount();
+    }
+
+    /** Number of events the {@code <limits>} have held back, bus-wide. */
+    public long getSuppressedCount() {
+        return LoggerBus.getSuppressedCount();
+    }
+
+    /** Number of times a changed config file has been applied, see {@code <reload>}. */
+    public long getReloadCount() {
+        return LoggerBus.getReloadCount();
+    }
+
+    /** Bus-wide metrics with a {@link LoggerMetrics#snapshot() snapshot} API; null unless {@code <metrics enabled="true">}. */
+    public LoggerMetrics getMetrics() {
+        return LoggerBus.getMetrics();
+    }
 }
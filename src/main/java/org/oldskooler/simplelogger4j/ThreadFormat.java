@@ -0,0 +1,30 @@
+package org.oldskooler.simplelogger4j;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/** How {@code %{thread}} shows the thread that logged an event. */
+public enum ThreadFormat {
+    /** The thread name. Virtual threads have an empty name unless one was given. */
+    NAME,
+    /** The thread id. */
+    ID,
+    /** Virtual threads as {@code virtual-<id>}, platform threads by name. */
+    VIRTUAL_ID;
+
+    String label(Thread t) {
+        switch (this) {
+            case ID:
+                return Long.toString(Threads.id(t));
+            case VIRTUAL_ID:
+                return Threads.isVirtual(t) ? "virtual-" + Threads.id(t) : t.getName();
+            case NAME:
+            default:
+                return t.getName();
+        }
+    }
+
+    public static ThreadFormat parse(String s) {
+        return ThreadFormat.valueOf(Objects.requireNonNull(s).trim().toUpperCase(Locale.ROOT));
+    }
+}
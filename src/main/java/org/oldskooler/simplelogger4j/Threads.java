@@ -0,0 +1,18 @@
+package org.oldskooler.simplelogger4j;
+
+/**
+ * Thread queries that differ between Java versions. This is the Java 8 version; the multi-release
+ * jar carries a Java 21 one under {@code META-INF/versions/21} that knows about virtual threads.
+ */
+final class Threads {
+    private Threads() {
+    }
+
+    static boolean isVirtual(Thread t) {
+        return false;
+    }
+
+    static long id(Thread t) {
+        return t.getId();
+    }
+}
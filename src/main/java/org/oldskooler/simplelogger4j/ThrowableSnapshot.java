@@ -0,0 +1,61 @@
+package org.oldskooler.simplelogger4j;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * A copy of an exception keeping only what its stack trace shows: class name, message, frames,
+ * causes and suppressed exceptions. With {@code <stackTraces snapshot="true">} it is taken on the
+ * logging thread, so a queued event does not keep the exception, and everything its fields refer
+ * to, alive. It prints as the original would; cycles in the cause chain are cut.
+ */
+public final class ThrowableSnapshot extends Throwable {
+    private static final long serialVersionUID = 1L;
+
+    private final String className;
+
+    private ThrowableSnapshot(Throwable t, ThrowableSnapshot cause) {
+        super(t.getLocalizedMessage(), cause, true, true);
+        this.className = t.getClass().getName();
+        setStackTrace(t.getStackTrace());
+    }
+
+    /** A snapshot of {@code t}; null and snapshots are returned as they are. */
+    public static Throwable of(Throwable t) {
+        if (t == null || t instanceof ThrowableSnapshot) return t;
+        return copy(t, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static ThrowableSnapshot copy(Throwable t, Set<Throwable> seen) {
+        seen.add(t);
+        Throwable cause = t.getCause();
+        ThrowableSnapshot s = new ThrowableSnapshot(t, cause == null || seen.contains(cause) ? null : copy(cause, seen));
+        for (Throwable suppressed : t.getSuppressed()) {
+            if (!seen.contains(suppressed)) s.addSuppressed(copy(suppressed, seen));
+        }
+        return s;
+    }
+
+    /** The class name of the original exception. */
+    public String getClassName() {
+        return className;
+    }
+
+    /** The class name of {@code t}, or of the exception it is a snapshot of. */
+    public static String classNameOf(Throwable t) {
+        return t instanceof ThrowableSnapshot ? ((ThrowableSnapshot) t).className : t.getClass().getName();
+    }
+
+    /** The frames are the original's, set after construction; none are captured here. */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        String message = getLocalizedMessage();
+        return message != null ? className + ": " + message : className;
+    }
+}
@@ -0,0 +1,119 @@
+package org.oldskooler.simplelogger4j;
+
+import org.oldskooler.simplelogger4j.formatters.StackTraceFormatter;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders stack traces for the text appenders of one {@link AppenderGroup} with the
+ * {@code <stackTraces>} limits. With a dedup window, a trace is printed in full and tagged the first
+ * time, and within the window after that only referred to:
+ * <pre>
+ * java.io.IOException: connection reset [trace #1f3a9c02]
+ *     at com.acme.Db.query(Db.java:12)
+ *     ...
+ * java.io.IOException: connection reset [same as trace #1f3a9c02 (57 times)]
+ * </pre>
+ * A trace is known by a hash of the class names and frames of the exception and its causes, and by
+ * its own frames compared in full. Once the window has passed since it was last printed in full it
+ * is printed in full again. Writer thread only.
+ */
+final class TraceDeduplicator {
+    /** Traces remembered, least recently seen forgotten first. */
+    private static final int MAX_TRACES = 1024;
+    /** Causes hashed into a fingerprint, which also stops at a cycle of any length. */
+    private static final int MAX_HASHED_CAUSES = 16;
+
+    private final int maxFrames;
+    private final int maxCauses;
+    private final long windowNanos;
+    private final String lineSeparator = System.lineSeparator();
+    private final StringBuilder sb = new StringBuilder(1024);
+    private final Map<Integer, Seen> seen = new LinkedHashMap<Integer, Seen>(64, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Seen> eldest) {
+            return size() > MAX_TRACES;
+        }
+    };
+
+    TraceDeduplicator(LogConfig c) {
+        maxFrames = Math.max(0, c.getTraceMaxFrames());
+        maxCauses = Math.max(0, c.getTraceMaxCauses());
+        windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, c.getTraceDedupWindowMs()));
+    }
+
+    /** Whether {@code c} asks for anything other than full traces printed by each appender. */
+    static boolean wanted(LogConfig c) {
+        return c.getTraceMaxFrames() > 0 || c.getTraceMaxCauses() > 0 || c.getTraceDedupWindowMs() > 0;
+    }
+
+    /** The lines to print for {@code t}, without a line separator after the last. */
+    String render(Throwable t) {
+        sb.setLength(0);
+        if (windowNanos == 0) {
+            StackTraceFormatter.appendTo(t, sb, lineSeparator, maxFrames, maxCauses);
+        } else {
+            StackTraceElement[] frames = t.getStackTrace();
+            int hash = fingerprint(t, frames);
+            long now = System.nanoTime();
+            Seen s = seen.get(hash);
+            if (s != null && now - s.printedAt < windowNanos && s.matches(t, frames)) {
+                s.count++;
+                return sb.append(t).append(" [same as trace #").append(id(hash)).append(" (").append(s.count).append(" times)]").toString();
+            }
+            seen.put(hash, new Seen(ThrowableSnapshot.classNameOf(t), frames, now));
+            String header = t.toString();
+            StackTraceFormatter.appendTo(t, sb, lineSeparator, maxFrames, maxCauses);
+            sb.insert(header.length(), " [trace #" + id(hash) + "]");
+        }
+        sb.setLength(sb.length() - lineSeparator.length());
+        String trace = sb.toString();
+        if (sb.capacity() > 65536) {
+            sb.setLength(0);
+            sb.trimToSize();
+        }
+        return trace;
+    }
+
+    private static int fingerprint(Throwable t, StackTraceElement[] frames) {
+        int h = hash(ThrowableSnapshot.classNameOf(t).hashCode(), frames);
+        Throwable c = t.getCause();
+        for (int i = 0; c != null && i < MAX_HASHED_CAUSES; i++, c = c.getCause()) {
+            h = hash(31 * h + ThrowableSnapshot.classNameOf(c).hashCode(), c.getStackTrace());
+        }
+        return h;
+    }
+
+    private static int hash(int h, StackTraceElement[] frames) {
+        for (StackTraceElement f : frames) h = 31 * h + f.hashCode();
+        return h;
+    }
+
+    private static String id(int hash) {
+        String hex = Integer.toHexString(hash);
+        return "00000000".substring(hex.length()) + hex;
+    }
+
+    /** A trace printed in full: when, and how often it has been seen since. */
+    private static final class Seen {
+        final String className;
+        final StackTraceElement[] frames;
+        final long printedAt;
+        int count = 1;
+
+        Seen(String className, StackTraceElement[] frames, long printedAt) {
+            this.className = className;
+            this.frames = frames;
+            this.printedAt = printedAt;
+        }
+
+        boolean matches(Throwable t, StackTraceElement[] frames) {
+            return className.equals(ThrowableSnapshot.classNameOf(t)) && Arrays.equals(this.frames, frames);
+        }
+    }
+}
@@ -1,9 +1,64 @@
 package org.oldskooler.simplelogger4j.ansi;
 
+/**
+ * Removes ANSI SGR sequences ({@code ESC [ digits/semicolons m}) from text.
+ * Text without an ESC character is returned as-is, after a single scan.
+ */
 public class AnsiStripper {
-    private static final String ANSI_REGEX = "\\u001B\\[[;\\d]*m";
+    private static final char ESC = '\u001B';
 
     public static String strip(String s) {
-        return s.replaceAll(ANSI_REGEX, "");
+        int first = s.indexOf(ESC);
+        if (first < 0) return s;
+
+        StringBuilder sb = new StringBuilder(s.length());
+        sb.append(s, 0, first);
+        for (int i = first, n = s.length(); i < n;) {
+            int end = sequenceEnd(s, i);
+            if (end > 0) {
+                i = end;
+            } else {
+                sb.append(s.charAt(i++));
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Strips {@code sb} from {@code from} onwards, in place. */
+    public static void strip(StringBuilder sb, int from) {
+        int n = sb.length();
+        while (from < n && sb.charAt(from) != ESC) from++;
+        if (from == n) return;
+
+        int w = from;
+        for (int i = from; i < n;) {
+            int end = sequenceEnd(sb, i);
+            if (end > 0) {
+                i = end;
+            } else {
+                sb.setCharAt(w++, sb.charAt(i++));
+            }
+        }
+        sb.setLength(w);
+    }
+
+    /** @return true if {@code s} holds {@code ESC [} at or after {@code from} */
+    public static boolean containsEscape(CharSequence s, int from) {
+        for (int i = from, n = s.length() - 1; i < n; i++) {
+            if (s.charAt(i) == ESC && s.charAt(i + 1) == '[') return true;
+        }
+        return false;
+    }
+
+    /** @return the index just past the SGR sequence starting at {@code i}, or -1 if there is none */
+    private static int sequenceEnd(CharSequence s, int i) {
+        int n = s.length();
+        if (s.charAt(i) != ESC || i + 1 >= n || s.charAt(i + 1) != '[') return -1;
+        for (int k = i + 2; k < n; k++) {
+            char c = s.charAt(k);
+            if (c == 'm') return k + 1;
+            if (c != ';' && (c < '0' || c > '9')) return -1;
+        }
+        return -1;
     }
-}
\ No newline at end of file
+}
@@ -5,8 +5,34 @@ import java.io.Closeable;
 public interface Appender extends Closeable {
     void println(String line);
     void printStackTrace(Throwable t);
+
+    /**
+     * Writes {@code line} followed by its stack trace: {@code trace} if it was rendered already,
+     * otherwise that of {@code t} if not null.
+     */
+    default void println(String line, Throwable t, String trace) {
+        println(line);
+        if (trace != null) {
+            println(trace);
+        } else if (t != null) {
+            printStackTrace(t);
+        }
+    }
+
+    /**
+     * As {@link #println(String, Throwable, String)}, for a line held in a buffer the caller reuses
+     * once this returns. By default the line is copied to a String.
+     */
+    default void println(CharSequence line, Throwable t, String trace) {
+        println(line.toString(), t, trace);
+    }
     void flush();
     @Override
     void close();
+
+    /** UTF-8 bytes written to the destination so far, or -1 if this appender cannot tell; may be read from any thread. */
+    default long getBytesWritten() {
+        return -1;
+    }
 }
 
@@ -0,0 +1,231 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.OverflowPolicy;
+import org.oldskooler.simplelogger4j.queue.LogQueue;
+import org.oldskooler.simplelogger4j.queue.MpscRingBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs another appender on its own thread, so a slow sink (e.g. stdout piped to a slow collector)
+ * only holds up itself.
+ * <p>
+ * The writer thread still renders each event once; this appender just queues the rendered line
+ * in its own bounded ring, as one entry with its throwable or rendered trace if it has one. When
+ * the ring is full it drops the line, waits up to a timeout, or evicts the oldest entries, as
+ * configured; a stack trace is dropped or evicted along with its line. The consumer thread writes
+ * in batches and flushes the delegate when it catches up or the writer asks for a flush.
+ */
+public class AsyncAppender implements Appender {
+    private static final Object FLUSH = new Object();
+    private static final int BATCH = 256;
+    private static final long CLOSE_WAIT_MILLIS = 5000;
+
+    private final Appender delegate;
+    private final LogQueue<Object> queue;
+    private final OverflowPolicy policy;
+    private final long timeoutNanos;
+    private final Thread consumer;
+    private final AtomicBoolean closing = new AtomicBoolean(false);
+
+    // Writer thread only
+    private boolean lastDropped;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile int maxDepth;
+
+    public AsyncAppender(Appender delegate, AsyncSettings settings, String name) {
+        this.delegate = delegate;
+        this.queue = new MpscRingBuffer<>(settings.getQueueSize());
+        this.policy = settings.getOverflowPolicy();
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.getTimeoutMs());
+        this.consumer = new Thread(this::run, "Logger-Async-" + name);
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    public Appender getDelegate() {
+        return delegate;
+    }
+
+    /** What the delegate has written, which lags what was handed to this appender. */
+    @Override
+    public long getBytesWritten() {
+        return delegate.getBytesWritten();
+    }
+
+    @Override
+    public void println(String line) {
+        lastDropped = !enqueue(line);
+        if (!lastDropped) queued.increment();
+    }
+
+    @Override
+    public void printStackTrace(Throwable t) {
+        if (!lastDropped) enqueue(t);
+    }
+
+    @Override
+    public void println(String line, Throwable t, String trace) {
+        if (t == null && trace == null) {
+            println(line);
+            return;
+        }
+        lastDropped = !enqueue(new Failure(line, t, trace));
+        if (!lastDropped) queued.increment();
+    }
+
+    /** Asks the consumer to flush; skipped if the buffer is full, as it flushes once it catches up anyway. */
+    @Override
+    public void flush() {
+        queue.offer(FLUSH);
+    }
+
+    private boolean enqueue(Object o) {
+        boolean ok = queue.offer(o);
+        if (!ok) {
+            try {
+                switch (policy) {
+                    case BLOCK:
+                        ok = queue.offer(o, timeoutNanos, TimeUnit.NANOSECONDS);
+                        break;
+                    case DROP_OLDEST:
+                        for (int i = 0; i < 16 && !ok; i++) {
+                            Object old = queue.pollOldest();
+                            if (old instanceof String || old instanceof Failure) evicted.increment();
+                            ok = queue.offer(o);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!ok) {
+                if (o instanceof String || o instanceof Failure) dropped.increment();
+                return false;
+            }
+        }
+        int depth = queue.size();
+        if (depth > maxDepth) maxDepth = depth;
+        return true;
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(BATCH);
+        boolean dirty = false;
+        for (;;) {
+            Object first;
+            try {
+                first = closing.get() ? queue.poll() : queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first == null) {
+                if (closing.get()) break;
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, BATCH - 1);
+            for (Object o : batch) {
+                try {
+                    if (o == FLUSH) {
+                        delegate.flush();
+                        dirty = false;
+                    } else if (o instanceof String) {
+                        delegate.println((String) o);
+                        written.increment();
+                        dirty = true;
+                    } else if (o instanceof Failure) {
+                        Failure f = (Failure) o;
+                        delegate.println(f.line, f.throwable, f.trace);
+                        written.increment();
+                        dirty = true;
+                    } else {
+                        delegate.printStackTrace((Throwable) o);
+                    }
+                } catch (Exception ex) {
+                    errors.increment();
+                    System.err.println("Logger error in " + consumer.getName() + ": " + ex.getMessage());
+                }
+            }
+            batch.clear();
+            if (dirty && queue.isEmpty()) {
+                delegate.flush();
+                dirty = false;
+            }
+        }
+        try {
+            delegate.flush();
+            delegate.close();
+        } catch (Exception ignore) {
+            // Ignore close exceptions
+        }
+    }
+
+    /** Lets the consumer write out what is buffered, then closes the delegate. */
+    @Override
+    public void close() {
+        if (!closing.compareAndSet(false, true)) return;
+        // Wakes the consumer if it is parked on an empty queue
+        queue.offer(FLUSH);
+        try {
+            consumer.join(CLOSE_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** A line queued together with its stack trace, so that the two are dropped or evicted as one. */
+    private static final class Failure {
+        final String line;
+        final Throwable throwable;
+        final String trace;
+
+        Failure(String line, Throwable throwable, String trace) {
+            this.line = line;
+            this.throwable = throwable;
+            this.trace = trace;
+        }
+    }
+
+    // ===== Metrics =====
+
+    /** Entries waiting to be written. */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /** Highest queue depth seen. */
+    public int getMaxQueueDepth() {
+        return maxDepth;
+    }
+
+    /** Lines accepted but not written yet. */
+    public long getLag() {
+        return queued.sum() - written.sum() - evicted.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /** Lines dropped because the buffer was full, including evicted ones. */
+    public long getDroppedCount() {
+        return dropped.sum() + evicted.sum();
+    }
+
+    /** Exceptions thrown by the delegate. */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+}
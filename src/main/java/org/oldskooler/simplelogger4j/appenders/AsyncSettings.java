@@ -0,0 +1,34 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.OverflowPolicy;
+
+/**
+ * Buffer size and overflow behaviour for an appender running on its own thread, see {@link AsyncAppender}.
+ * Only DROP, BLOCK and DROP_OLDEST apply to an appender buffer.
+ */
+public final class AsyncSettings {
+    private final int queueSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long timeoutMs;
+
+    public AsyncSettings(int queueSize, OverflowPolicy overflowPolicy, long timeoutMs) {
+        if (overflowPolicy != OverflowPolicy.DROP && overflowPolicy != OverflowPolicy.BLOCK && overflowPolicy != OverflowPolicy.DROP_OLDEST) {
+            throw new IllegalArgumentException("Appender buffers support DROP, BLOCK and DROP_OLDEST, not " + overflowPolicy);
+        }
+        this.queueSize = queueSize;
+        this.overflowPolicy = overflowPolicy;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+}
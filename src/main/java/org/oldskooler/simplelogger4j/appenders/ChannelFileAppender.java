@@ -0,0 +1,82 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes to the log file through a {@link FileChannel}. Lines are encoded directly into a direct
+ * ByteBuffer, which is handed to the channel whole whenever it fills up or is flushed.
+ * The buffer size is {@code bufferSize} rounded up to a multiple of 4 KiB.
+ */
+public class ChannelFileAppender extends EncodingAppender {
+    private static final int BLOCK = 4096;
+
+    private FileChannel channel;
+
+    public ChannelFileAppender(LogConfig config) throws IOException {
+        this(new File(config.getFilePath()), config.isFileAppend(), config.getFileBufferSize());
+    }
+
+    public ChannelFileAppender(File file, boolean append, int bufferSize) throws IOException {
+        int size = Math.max(BLOCK, (bufferSize + BLOCK - 1) / BLOCK * BLOCK);
+        this.buf = ByteBuffer.allocateDirect(size);
+        openFile(file, append);
+    }
+
+    /** Opens {@code logFile} as the destination; any previous file must have been closed with {@link #closeFile()}. */
+    protected void openFile(File logFile, boolean append) throws IOException {
+        File parentDir = logFile.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            if (!parentDir.mkdirs()) {
+                throw new FileNotFoundException("Could not create log directory: " + parentDir);
+            }
+        }
+        channel = append
+                ? FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                : FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /** Writes out anything buffered and closes the current file. */
+    protected void closeFile() throws IOException {
+        try {
+            if (buf.position() > 0) drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Override
+    protected void drain() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+
+    @Override
+    public void flush() {
+        if (buf.position() == 0) return;
+        try {
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeFile();
+        } catch (Exception ignore) {
+            // Ignore close exceptions
+        }
+    }
+}
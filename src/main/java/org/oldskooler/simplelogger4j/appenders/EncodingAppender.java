@@ -0,0 +1,158 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.formatters.StackTraceFormatter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Base for appenders that encode text to UTF-8 themselves, straight into a {@link ByteBuffer}.
+ * <p>
+ * Characters are copied out in chunks with {@code getChars} and encoded into a small reusable
+ * byte array, with a plain copy loop while the text is ASCII,
+ * then copied into {@link #buf} in bulk. When the buffer is full, {@link #drain()} is called to make
+ * room (write it out, move to a new mapped region, ...). Stack traces are rendered into a reusable
+ * StringBuilder and encoded the same way. Not thread-safe: only the writer thread calls it.
+ */
+public abstract class EncodingAppender implements Appender {
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final AtomicLongFieldUpdater<EncodingAppender> BYTES_WRITTEN =
+            AtomicLongFieldUpdater.newUpdater(EncodingAppender.class, "bytesWritten");
+
+    private final char[] chars = new char[1024];
+    /** Worst case is three bytes per char (a surrogate pair is four bytes for two chars). */
+    private final byte[] scratch = new byte[3 * 1024];
+    private final StringBuilder traceBuf = new StringBuilder(4096);
+    /** Destination of encoded bytes; set by the subclass. */
+    protected ByteBuffer buf;
+    /** Only the writing thread adds to it, with an ordered store, so metrics can read it without a lock. */
+    private volatile long bytesWritten;
+
+    /** Makes room in {@link #buf}: afterwards it must have at least one byte remaining. */
+    protected abstract void drain() throws IOException;
+
+    /** Called with the number of bytes after each complete line or trace has been encoded. */
+    protected void written(int bytes) {
+    }
+
+    @Override
+    public void println(String line) {
+        println((CharSequence) line);
+    }
+
+    /** Encodes {@code line} and a line separator; {@code line} is not kept, so it may be a reused buffer. */
+    public void println(CharSequence line) {
+        try {
+            int n = encode(line);
+            put(LINE_SEPARATOR, LINE_SEPARATOR.length);
+            counted(n + LINE_SEPARATOR.length);
+            written(n + LINE_SEPARATOR.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void println(CharSequence line, Throwable t, String trace) {
+        println(line);
+        if (trace != null) {
+            println(trace);
+        } else if (t != null) {
+            printStackTrace(t);
+        }
+    }
+
+    @Override
+    public void printStackTrace(Throwable t) {
+        traceBuf.setLength(0);
+        StackTraceFormatter.appendTo(t, traceBuf, System.lineSeparator());
+        try {
+            int n = encode(traceBuf);
+            counted(n);
+            written(n);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (traceBuf.capacity() > 65536) {
+            traceBuf.setLength(0);
+            traceBuf.trimToSize();
+        }
+    }
+
+    /** Adds {@code bytes} to {@link #getBytesWritten()}; for subclasses that {@link #put} bytes themselves. */
+    protected final void counted(int bytes) {
+        BYTES_WRITTEN.lazySet(this, bytesWritten + bytes);
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /** Encodes {@code s} as UTF-8 into the buffer and returns the number of bytes written. */
+    protected final int encode(CharSequence s) throws IOException {
+        char[] in = chars;
+        byte[] out = scratch;
+        int total = 0;
+        int n = s.length();
+        for (int i = 0; i < n; ) {
+            int k = Math.min(in.length, n - i);
+            // Keep surrogate pairs within one chunk
+            if (k > 1 && i + k < n && Character.isHighSurrogate(s.charAt(i + k - 1))) k--;
+            if (s instanceof String) {
+                ((String) s).getChars(i, i + k, in, 0);
+            } else if (s instanceof StringBuilder) {
+                ((StringBuilder) s).getChars(i, i + k, in, 0);
+            } else {
+                for (int j = 0; j < k; j++) in[j] = s.charAt(i + j);
+            }
+            i += k;
+
+            // ASCII fast path: a plain copy loop until the first non-ASCII char
+            int j = 0;
+            while (j < k && in[j] < 0x80) {
+                out[j] = (byte) in[j];
+                j++;
+            }
+            int p = j;
+            while (j < k) {
+                char c = in[j++];
+                if (c < 0x80) {
+                    out[p++] = (byte) c;
+                } else if (c < 0x800) {
+                    out[p++] = (byte) (0xC0 | (c >> 6));
+                    out[p++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && j < k && Character.isLowSurrogate(in[j])) {
+                    int cp = Character.toCodePoint(c, in[j++]);
+                    out[p++] = (byte) (0xF0 | (cp >> 18));
+                    out[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    out[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    out[p++] = (byte) (0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    out[p++] = '?';
+                } else {
+                    out[p++] = (byte) (0xE0 | (c >> 12));
+                    out[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    out[p++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            put(out, p);
+            total += p;
+        }
+        return total;
+    }
+
+    /** Copies {@code len} bytes of {@code src} into the buffer, draining it as it fills. */
+    protected final void put(byte[] src, int len) throws IOException {
+        int off = 0;
+        while (off < len) {
+            if (!buf.hasRemaining()) drain();
+            int k = Math.min(buf.remaining(), len - off);
+            buf.put(src, off, k);
+            off += k;
+        }
+    }
+}
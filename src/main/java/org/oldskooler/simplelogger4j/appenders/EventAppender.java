@@ -0,0 +1,14 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.PrintJob;
+
+/**
+ * An appender that takes the event itself rather than a rendered line. The writer hands it each
+ * event before the message is formatted, so the template and arguments are still there, and skips
+ * rendering altogether when every appender is an event appender. The writer does not call
+ * {@link #println} or {@link #printStackTrace}, but they must still work as for any appender.
+ */
+public interface EventAppender extends Appender {
+    /** Writes one event, with its stack trace if any, and returns the number of bytes it took. */
+    int append(PrintJob event);
+}
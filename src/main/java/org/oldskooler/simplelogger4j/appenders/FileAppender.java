@@ -4,10 +4,12 @@ import org.oldskooler.simplelogger4j.LogConfig;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class FileAppender implements Appender {
     private final LogConfig config;
     private final PrintWriter out;
+    private final AtomicLong bytesWritten = new AtomicLong();
 
     public FileAppender(LogConfig config) throws FileNotFoundException {
         this.config = config;
@@ -21,7 +23,21 @@ public class FileAppender implements Appender {
         }
 
         FileOutputStream fos = new FileOutputStream(this.config.getFilePath(), this.config.isFileAppend());
-        OutputStreamWriter osw = new OutputStreamWriter(fos, StandardCharsets.UTF_8);
+        // Counts what reaches the file: the writer's buffer is handed down in large chunks
+        OutputStream counting = new FilterOutputStream(fos) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                fos.write(b, off, len);
+                bytesWritten.addAndGet(len);
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                fos.write(b);
+                bytesWritten.incrementAndGet();
+            }
+        };
+        OutputStreamWriter osw = new OutputStreamWriter(counting, StandardCharsets.UTF_8);
         BufferedWriter bw = new BufferedWriter(osw, Math.max(1024, this.config.getFileBufferSize()));
         this.out = new PrintWriter(bw, false);
     }
@@ -41,6 +57,12 @@ public class FileAppender implements Appender {
         out.flush();
     }
 
+    /** Bytes that have reached the file; what is still buffered is counted once it is flushed. */
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
     @Override
     public void close() {
         try {
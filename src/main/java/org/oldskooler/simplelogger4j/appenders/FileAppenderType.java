@@ -0,0 +1,37 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Objects;
+
+public enum FileAppenderType {
+    /** {@link FileAppender}: PrintWriter over a buffered UTF-8 stream. */
+    STREAM,
+    /** {@link ChannelFileAppender}: direct ByteBuffer written through a FileChannel. */
+    CHANNEL,
+    /** {@link MappedFileAppender}: copies into a memory-mapped region of the file. */
+    MMAP;
+
+    public Appender create(LogConfig config) throws IOException {
+        switch (this) {
+            case MMAP:
+                return new MappedFileAppender(config);
+            case CHANNEL:
+                return new ChannelFileAppender(config);
+            case STREAM:
+            default:
+                return new FileAppender(config);
+        }
+    }
+
+    /** The rolling file appender of this type; STREAM has none, so it rolls through a channel. */
+    public Appender createRolling(LogConfig config) throws IOException {
+        return this == MMAP ? new RollingMappedFileAppender(config) : new RollingFileAppender(config);
+    }
+
+    public static FileAppenderType parse(String s) {
+        return FileAppenderType.valueOf(Objects.requireNonNull(s).trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,191 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.ImmutableArg;
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.PrintJob;
+import org.oldskooler.simplelogger4j.ThrowableSnapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Writes each event as one line of JSON, never going through the pattern:
+ * <pre>
+ * {"timestamp":"2025-09-11T10:11:12.345Z","level":"ERROR","thread":"main","name":"com.acme.Db","sequence":42,
+ *  "message":"Query failed after 3 tries","service":"orders",
+ *  "throwable":{"class":"java.sql.SQLException","message":"timeout","frames":[{"class":"com.acme.Db","method":"query","file":"Db.java","line":12}],
+ *               "cause":{"class":"java.net.SocketTimeoutException","message":null,"frames":[...],"omitted":1}}}
+ * </pre>
+ * Timestamps are UTC, or epoch milliseconds with {@code timestamp="epoch"}. The configured
+ * {@code <field>}s follow the message as constant string fields. Templates are filled in while
+ * encoding, with the same substitution as {@code ParameterFormatter}, so messages are never built
+ * as Strings; apart from the {@code toString()} of other argument types and the frames of a
+ * throwable, nothing is allocated per event. Causes and suppressed exceptions nest up to
+ * {@value #MAX_DEPTH} deep; like the text trace's {@code ... n more}, {@code omitted} counts the
+ * frames they share with the trace enclosing them.
+ */
+public class JsonAppender extends ChannelFileAppender implements EventAppender {
+    static final int MAX_DEPTH = 8;
+
+    private final JsonWriter json = new JsonWriter(1024);
+    /** The constant fields, encoded once: {@code ,"service":"orders"}. */
+    private final byte[] fields;
+    private final boolean epochTimestamp;
+
+    public JsonAppender(LogConfig config) throws IOException {
+        this(new File(config.getJsonPath()), config.isJsonAppend(), config.getJsonBufferSize(), config.getJsonFields(), config.isJsonEpochTimestamp());
+    }
+
+    public JsonAppender(File file, boolean append, int bufferSize, Map<String, String> fields, boolean epochTimestamp) throws IOException {
+        super(file, append, bufferSize);
+        this.epochTimestamp = epochTimestamp;
+        JsonWriter w = new JsonWriter(256);
+        for (Map.Entry<String, String> f : (fields != null ? fields : Collections.<String, String>emptyMap()).entrySet()) {
+            w.raw(',');
+            w.string(f.getKey());
+            w.raw(':');
+            w.string(f.getValue());
+        }
+        this.fields = Arrays.copyOf(w.bytes, w.size);
+    }
+
+    @Override
+    public int append(PrintJob e) {
+        JsonWriter w = json;
+        w.reset();
+        w.raw('{');
+        w.key("timestamp", true);
+        if (epochTimestamp) {
+            w.number(e.getTimeMillis());
+        } else {
+            w.isoTimestamp(e.getTimeMillis());
+        }
+        w.key("level", false);
+        w.raw('"');
+        w.ascii(e.getLevel().name());
+        w.raw('"');
+        w.key("thread", false);
+        w.string(e.getThread());
+        w.key("name", false);
+        w.string(e.getName());
+        w.key("sequence", false);
+        w.number(e.getSequence());
+        w.key("message", false);
+        message(e);
+        w.raw(fields);
+        if (e.getThrowable() != null) {
+            w.key("throwable", false);
+            throwable(e.getThrowable(), null, 0);
+        }
+        w.raw('}');
+        w.raw('\n');
+        try {
+            put(w.bytes, w.size);
+            counted(w.size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return w.size;
+    }
+
+    private void message(PrintJob e) {
+        String template = e.getTemplate();
+        if (template == null) {
+            json.string(e.getMessageText());
+            return;
+        }
+        Object[] args = e.getArguments();
+        int argCount = args == null ? 0 : args.length;
+        int argIndex = 0;
+        int cur = 0;
+        int brace;
+        json.raw('"');
+        while (argIndex < argCount && (brace = template.indexOf("{}", cur)) != -1) {
+            json.escaped(template, cur, brace);
+            arg(args[argIndex++]);
+            cur = brace + 2;
+        }
+        json.escaped(template, cur, template.length());
+        json.raw('"');
+    }
+
+    private void arg(Object argument) {
+        if (argument instanceof ImmutableArg) {
+            argument = ((ImmutableArg) argument).get();
+        }
+        if (argument == null) {
+            json.ascii("null");
+        } else if (argument instanceof CharSequence) {
+            CharSequence s = (CharSequence) argument;
+            json.escaped(s, 0, s.length());
+        } else if (argument instanceof Integer || argument instanceof Long) {
+            json.number(((Number) argument).longValue());
+        } else if (argument instanceof Boolean) {
+            json.ascii((Boolean) argument ? "true" : "false");
+        } else if (argument instanceof Character) {
+            json.escaped((Character) argument);
+        } else {
+            String s = argument.toString();
+            json.escaped(s, 0, s.length());
+        }
+    }
+
+    /** As in {@link Throwable#printStackTrace()}, frames shared with the enclosing trace are left out and counted. */
+    private void throwable(Throwable t, StackTraceElement[] enclosing, int depth) {
+        JsonWriter w = json;
+        w.raw('{');
+        w.key("class", true);
+        w.string(ThrowableSnapshot.classNameOf(t));
+        w.key("message", false);
+        w.string(t.getLocalizedMessage());
+        w.key("frames", false);
+        w.raw('[');
+        StackTraceElement[] frames = t.getStackTrace();
+        int m = frames.length - 1;
+        if (enclosing != null) {
+            for (int n = enclosing.length - 1; m >= 0 && n >= 0 && frames[m].equals(enclosing[n]); m--, n--) {
+            }
+        }
+        for (int i = 0; i <= m; i++) {
+            StackTraceElement f = frames[i];
+            if (i > 0) w.raw(',');
+            w.raw('{');
+            w.key("class", true);
+            w.string(f.getClassName());
+            w.key("method", false);
+            w.string(f.getMethodName());
+            w.key("file", false);
+            w.string(f.getFileName());
+            w.key("line", false);
+            w.number(f.getLineNumber());
+            w.raw('}');
+        }
+        w.raw(']');
+        if (m < frames.length - 1) {
+            w.key("omitted", false);
+            w.number(frames.length - 1 - m);
+        }
+        if (depth < MAX_DEPTH) {
+            Throwable[] suppressed = t.getSuppressed();
+            if (suppressed.length > 0) {
+                w.key("suppressed", false);
+                w.raw('[');
+                for (int i = 0; i < suppressed.length; i++) {
+                    if (i > 0) w.raw(',');
+                    throwable(suppressed[i], frames, depth + 1);
+                }
+                w.raw(']');
+            }
+            Throwable cause = t.getCause();
+            if (cause != null && cause != t) {
+                w.key("cause", false);
+                throwable(cause, frames, depth + 1);
+            }
+        }
+        w.raw('}');
+    }
+}
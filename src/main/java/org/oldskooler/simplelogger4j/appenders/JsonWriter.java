@@ -0,0 +1,181 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import java.util.Arrays;
+
+/**
+ * Streams JSON into a reusable byte array as UTF-8: strings are escaped and encoded char by char,
+ * numbers written digit by digit and timestamps computed from the epoch, so nothing is allocated
+ * once the array has grown to fit the longest line.
+ */
+final class JsonWriter {
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    byte[] bytes;
+    int size;
+
+    JsonWriter(int capacity) {
+        bytes = new byte[capacity];
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    private void ensure(int more) {
+        if (size + more > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + more));
+    }
+
+    void raw(char c) {
+        ensure(1);
+        bytes[size++] = (byte) c;
+    }
+
+    void raw(byte[] b) {
+        ensure(b.length);
+        System.arraycopy(b, 0, bytes, size, b.length);
+        size += b.length;
+    }
+
+    /** Writes {@code ,"key":} (without the comma for the first key of an object). */
+    void key(String key, boolean first) {
+        ensure(key.length() + 4);
+        if (!first) bytes[size++] = ',';
+        bytes[size++] = '"';
+        for (int i = 0; i < key.length(); i++) bytes[size++] = (byte) key.charAt(i);
+        bytes[size++] = '"';
+        bytes[size++] = ':';
+    }
+
+    /** A quoted, escaped string, or {@code null}. */
+    void string(CharSequence s) {
+        if (s == null) {
+            ascii("null");
+            return;
+        }
+        raw('"');
+        escaped(s, 0, s.length());
+        raw('"');
+    }
+
+    /** Characters that need no escaping, such as enum names. */
+    void ascii(String s) {
+        ensure(s.length());
+        for (int i = 0; i < s.length(); i++) bytes[size++] = (byte) s.charAt(i);
+    }
+
+    /** The chars {@code from} to {@code to} of {@code s}, escaped, without quotes. */
+    void escaped(CharSequence s, int from, int to) {
+        ensure((to - from) * 3);
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                bytes[size++] = (byte) c;
+            } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(s.charAt(i + 1))) {
+                ensure(4 + (to - i) * 3);
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                bytes[size++] = (byte) (0xF0 | (cp >> 18));
+                bytes[size++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                bytes[size++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (cp & 0x3F));
+            } else {
+                escaped(c);
+                ensure((to - i) * 3);
+            }
+        }
+    }
+
+    /** One char, escaped, without quotes. An unpaired surrogate becomes {@code ?}. */
+    void escaped(char c) {
+        ensure(6);
+        if (c >= 0x20 && c < 0x80) {
+            if (c == '"' || c == '\\') bytes[size++] = '\\';
+            bytes[size++] = (byte) c;
+        } else if (c < 0x20) {
+            bytes[size++] = '\\';
+            switch (c) {
+                case '\n': bytes[size++] = 'n'; break;
+                case '\r': bytes[size++] = 'r'; break;
+                case '\t': bytes[size++] = 't'; break;
+                case '\b': bytes[size++] = 'b'; break;
+                case '\f': bytes[size++] = 'f'; break;
+                default:
+                    bytes[size++] = 'u';
+                    bytes[size++] = '0';
+                    bytes[size++] = '0';
+                    bytes[size++] = HEX[c >> 4];
+                    bytes[size++] = HEX[c & 0xF];
+            }
+        } else if (c < 0x800) {
+            bytes[size++] = (byte) (0xC0 | (c >> 6));
+            bytes[size++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            bytes[size++] = '?';
+        } else {
+            bytes[size++] = (byte) (0xE0 | (c >> 12));
+            bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            bytes[size++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    void number(long v) {
+        ensure(20);
+        if (v == Long.MIN_VALUE) {
+            ascii("-9223372036854775808");
+            return;
+        }
+        if (v < 0) {
+            bytes[size++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (long p = 10; digits < 19 && v >= p; p *= 10) digits++;
+        for (int i = size + digits - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        size += digits;
+    }
+
+    /** {@code "yyyy-MM-ddTHH:mm:ss.SSSZ"} in UTC, for years 0 to 9999. */
+    void isoTimestamp(long epochMillis) {
+        long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(epochMillis, MILLIS_PER_DAY);
+        // Civil date from days since 1970-01-01 (proleptic Gregorian)
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+
+        ensure(26);
+        bytes[size++] = '"';
+        digits(year, 4);
+        bytes[size++] = '-';
+        digits(month, 2);
+        bytes[size++] = '-';
+        digits(day, 2);
+        bytes[size++] = 'T';
+        digits(millisOfDay / 3_600_000, 2);
+        bytes[size++] = ':';
+        digits(millisOfDay / 60_000 % 60, 2);
+        bytes[size++] = ':';
+        digits(millisOfDay / 1000 % 60, 2);
+        bytes[size++] = '.';
+        digits(millisOfDay % 1000, 3);
+        bytes[size++] = 'Z';
+        bytes[size++] = '"';
+    }
+
+    private void digits(int v, int width) {
+        for (int i = size + width - 1; i >= size; i--) {
+            bytes[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        size += width;
+    }
+}
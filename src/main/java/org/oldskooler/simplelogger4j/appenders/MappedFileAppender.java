@@ -0,0 +1,197 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes to the log file through a memory-mapped region, so writing a line is a copy into the
+ * page cache and the OS takes care of write-back.
+ * <p>
+ * The file is mapped {@code mapChunkSize} bytes at a time; when a region is full the next one is
+ * mapped from where it ended. While open, the file is therefore longer than what has been logged
+ * (the tail is zero-filled); {@link #close()} truncates it to the real length. If the JVM dies
+ * without closing the appender the zero-filled tail stays. {@link #flush()} does nothing, as the
+ * bytes are already visible to readers of the file.
+ * <p>
+ * {@link RollingMappedFileAppender} finishes the current file the same way and continues in a new
+ * one. Methods take a lock, so a close from a shutdown hook cannot race the writer thread. It is a
+ * ReentrantLock rather than {@code synchronized} so that a virtual thread writing under CALLER_RUNS
+ * does not pin its carrier.
+ */
+public class MappedFileAppender extends EncodingAppender {
+    private final long chunkSize;
+    private FileChannel channel;
+    /** File offset of the start of the current region. */
+    private long base;
+    private boolean closed;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public MappedFileAppender(LogConfig config) throws IOException {
+        this(new File(config.getFilePath()), config.isFileAppend(), config.getFileMapChunkSize());
+    }
+
+    public MappedFileAppender(File file, boolean append, long chunkSize) throws IOException {
+        this.chunkSize = Math.max(4096, (chunkSize + 4095) / 4096 * 4096);
+        openFile(file, append);
+    }
+
+    /** Maps {@code logFile} as the destination; any previous file must have been closed with {@link #closeFile()}. */
+    protected void openFile(File logFile, boolean append) throws IOException {
+        lock.lock();
+        try {
+            if (!closed) open(logFile, append);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open(File logFile, boolean append) throws IOException {
+        File parentDir = logFile.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            if (!parentDir.mkdirs()) {
+                throw new FileNotFoundException("Could not create log directory: " + parentDir);
+            }
+        }
+        channel = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!append) channel.truncate(0);
+        base = channel.size();
+        buf = channel.map(FileChannel.MapMode.READ_WRITE, base, chunkSize);
+    }
+
+    /** Current length of the log, i.e. the size the file will be truncated to. */
+    public long length() {
+        lock.lock();
+        try {
+            return buf == null ? base : base + buf.position();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected void drain() throws IOException {
+        base += buf.position();
+        unmap(buf);
+        buf = null;
+        buf = channel.map(FileChannel.MapMode.READ_WRITE, base, chunkSize);
+    }
+
+    @Override
+    public void println(CharSequence line) {
+        lock.lock();
+        try {
+            if (buf != null) super.println(line);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void printStackTrace(Throwable t) {
+        lock.lock();
+        try {
+            if (buf != null) super.printStackTrace(t);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        // Mapped pages are written back by the OS
+    }
+
+    /** Truncates the current file to what was written and closes it. */
+    protected void closeFile() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) finish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            if (channel != null) finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish() throws IOException {
+        if (buf != null) {
+            base += buf.position();
+            unmap(buf);
+            buf = null;
+        }
+        try {
+            channel.truncate(base);
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Releases a mapping now instead of when it is garbage collected, so regions don't pile up and the
+     * file can be truncated on platforms that refuse while it is mapped. Best effort: Java 9+ has
+     * {@code Unsafe.invokeCleaner}, Java 8 the buffer's {@code cleaner()}; if neither works the GC does it.
+     */
+    private static void unmap(ByteBuffer b) {
+        if (!(b instanceof MappedByteBuffer) || UNMAPPER == null) return;
+        try {
+            UNMAPPER.unmap(b);
+        } catch (Throwable ignore) {
+            // Left to the garbage collector
+        }
+    }
+
+    private interface Unmapper {
+        void unmap(ByteBuffer b) throws Exception;
+    }
+
+    private static final Unmapper UNMAPPER = findUnmapper();
+
+    private static Unmapper findUnmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field f = unsafeClass.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            Object unsafe = f.get(null);
+            return b -> invokeCleaner.invoke(unsafe, b);
+        } catch (Throwable ignore) {
+            // Not Java 9+
+        }
+        try {
+            Method cleaner = Class.forName("java.nio.DirectByteBuffer").getMethod("cleaner");
+            cleaner.setAccessible(true);
+            Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            clean.setAccessible(true);
+            return b -> {
+                Object c = cleaner.invoke(b);
+                if (c != null) clean.invoke(c);
+            };
+        } catch (Throwable ignore) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.clock.LogClock;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A {@link ChannelFileAppender} that starts a new file when a time period ends or the file reaches
+ * {@code maxSize} bytes.
+ * <p>
+ * The check before each line compares the clock with a precomputed next-rollover time and a byte
+ * counter. On rollover the writer thread only closes the file, renames it if the new file would
+ * have the same name ({@code app.log} becomes {@code app.log.1}, {@code app.log.2}, ...) and opens
+ * the next one. Compressing the old file with gzip and deleting archives beyond {@code maxFiles}
+ * or {@code maxTotalSize} happen on a separate "Logger-Roller" thread. On start-up that thread also
+ * compresses archives left uncompressed by a previous run. {@link RollingMappedFileAppender} does
+ * the same for a memory-mapped file.
+ */
+public class RollingFileAppender extends ChannelFileAppender {
+    private final Rollover rollover;
+
+    public RollingFileAppender(LogConfig config) throws IOException {
+        this(new Rollover(config), config.getRollingBufferSize());
+    }
+
+    public RollingFileAppender(String pathPattern, int bufferSize, RolloverInterval interval, long maxSize,
+                               int maxFiles, long maxTotalSize, boolean compress, LogClock clock) throws IOException {
+        this(new Rollover(pathPattern, interval, maxSize, maxFiles, maxTotalSize, compress, clock), bufferSize);
+    }
+
+    private RollingFileAppender(Rollover rollover, int bufferSize) throws IOException {
+        super(rollover.getCurrentFile(), true, bufferSize);
+        this.rollover = rollover;
+        rollover.start(this::closeFile, next -> {
+            openFile(next, true);
+            return next.length();
+        }, rollover.getCurrentFile().length());
+    }
+
+    /** The file currently written to. */
+    public File getCurrentFile() {
+        return rollover.getCurrentFile();
+    }
+
+    @Override
+    public void println(CharSequence line) {
+        rollover.beforeLine();
+        super.println(line);
+    }
+
+    @Override
+    protected void written(int n) {
+        rollover.written(n);
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        rollover.close();
+    }
+}
@@ -0,0 +1,56 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.clock.LogClock;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A {@link MappedFileAppender} that rolls over like {@link RollingFileAppender}. Each file is
+ * truncated to what was written before it is renamed or compressed, so archives have no
+ * zero-filled tail.
+ */
+public class RollingMappedFileAppender extends MappedFileAppender {
+    private final Rollover rollover;
+
+    public RollingMappedFileAppender(LogConfig config) throws IOException {
+        this(new Rollover(config), config.getRollingMapChunkSize());
+    }
+
+    public RollingMappedFileAppender(String pathPattern, long chunkSize, RolloverInterval interval, long maxSize,
+                                     int maxFiles, long maxTotalSize, boolean compress, LogClock clock) throws IOException {
+        this(new Rollover(pathPattern, interval, maxSize, maxFiles, maxTotalSize, compress, clock), chunkSize);
+    }
+
+    private RollingMappedFileAppender(Rollover rollover, long chunkSize) throws IOException {
+        super(rollover.getCurrentFile(), true, chunkSize);
+        this.rollover = rollover;
+        rollover.start(this::closeFile, next -> {
+            openFile(next, true);
+            return length();
+        }, length());
+    }
+
+    /** The file currently written to. */
+    public File getCurrentFile() {
+        return rollover.getCurrentFile();
+    }
+
+    @Override
+    public void println(CharSequence line) {
+        rollover.beforeLine();
+        super.println(line);
+    }
+
+    @Override
+    protected void written(int n) {
+        rollover.written(n);
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        rollover.close();
+    }
+}
@@ -0,0 +1,278 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.clock.LogClock;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The rollover rules of {@link RollingFileAppender} and {@link RollingMappedFileAppender}: when to
+ * start a new file, what the old one is called, and the "Logger-Roller" thread that compresses and
+ * deletes archives. The appender says how its file is closed and opened.
+ */
+final class Rollover {
+    private static final long CLOSE_WAIT_SECONDS = 10;
+    private static final Pattern INDEXED = Pattern.compile("(.+)\\.\\d+");
+
+    /** Closes the appender's current file, writing out what it buffered. */
+    interface Closer {
+        void closeFile() throws IOException;
+    }
+
+    /** Opens a file for the appender to append to and returns its length. */
+    interface Opener {
+        long openFile(File next) throws IOException;
+    }
+
+    private final String pathPattern;
+    private final RolloverInterval interval;
+    private final long maxSize;
+    private final int maxFiles;
+    private final long maxTotalSize;
+    private final boolean compress;
+    private final LogClock clock;
+    private final ZoneId zone = ZoneId.systemDefault();
+    /** The file name pattern around its date, and the date format (roller thread only); null if the name has no date. */
+    private final String namePrefix;
+    private final String nameSuffix;
+    private final SimpleDateFormat nameDate;
+    /** What the other appenders of the config write to, which housekeeping must leave alone. */
+    private final Set<File> otherFiles = new HashSet<>();
+    private ExecutorService roller;
+    private Closer closer;
+    private Opener opener;
+
+    private volatile File current;
+    private long bytes;
+    private long nextRollover;
+    private int lastIndex;
+
+    Rollover(LogConfig config) {
+        this(config.getRollingPath(), config.getRollingInterval(), config.getRollingMaxSize(),
+                config.getRollingMaxFiles(), config.getRollingMaxTotalSize(), config.isRollingCompress(), config.getClock());
+        if (config.isFileEnabled()) otherFiles.add(new File(config.getFilePath()).getAbsoluteFile());
+        if (config.isBinaryEnabled()) otherFiles.add(new File(config.getBinaryPath()).getAbsoluteFile());
+        if (config.isJsonEnabled()) otherFiles.add(new File(config.getJsonPath()).getAbsoluteFile());
+    }
+
+    Rollover(String pathPattern, RolloverInterval interval, long maxSize, int maxFiles, long maxTotalSize,
+             boolean compress, LogClock clock) {
+        this.pathPattern = pathPattern;
+        this.interval = interval;
+        this.maxSize = maxSize;
+        this.maxFiles = maxFiles;
+        this.maxTotalSize = maxTotalSize;
+        this.compress = compress;
+        this.clock = clock;
+        String name = new File(pathPattern).getName();
+        int start = name.indexOf("%d{");
+        int end = start < 0 ? -1 : name.indexOf('}', start);
+        if (end > start) {
+            this.namePrefix = name.substring(0, start);
+            this.nameSuffix = name.substring(end + 1);
+            this.nameDate = new SimpleDateFormat(name.substring(start + 3, end));
+            nameDate.setLenient(false);
+        } else {
+            this.namePrefix = name;
+            this.nameSuffix = "";
+            this.nameDate = null;
+        }
+        long now = clock.currentTimeMillis();
+        this.current = fileFor(pathPattern, now);
+        this.nextRollover = interval.next(now, zone);
+    }
+
+    /** Called once the appender has opened {@link #getCurrentFile()}, {@code length} bytes long; starts the roller thread. */
+    void start(Closer closer, Opener opener, long length) {
+        this.closer = closer;
+        this.opener = opener;
+        this.bytes = length;
+        this.roller = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Logger-Roller");
+            t.setDaemon(true);
+            return t;
+        });
+        roller.submit(this::housekeeping);
+    }
+
+    private static File fileFor(String pathPattern, long epochMillis) {
+        return new File(LogConfig.formatPath(pathPattern, new Date(epochMillis)));
+    }
+
+    File getCurrentFile() {
+        return current;
+    }
+
+    /** Rolls over first if the current file is full or its period is over; writer thread only. */
+    void beforeLine() {
+        if ((maxSize > 0 && bytes >= maxSize) || clock.currentTimeMillis() >= nextRollover) {
+            try {
+                rollOver();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    void written(int n) {
+        bytes += n;
+    }
+
+    private void rollOver() throws IOException {
+        long now = clock.currentTimeMillis();
+        File old = current;
+        File next = fileFor(pathPattern, now);
+        nextRollover = interval.next(now, zone);
+
+        closer.closeFile();
+        File archive = old;
+        if (next.equals(old)) {
+            archive = nextArchiveName(old);
+            try {
+                Files.move(old.toPath(), archive.toPath());
+            } catch (IOException e) {
+                System.err.println("Logger rollover failed, continuing in " + old + ": " + e.getMessage());
+                archive = null;
+            }
+        } else {
+            lastIndex = 0;
+        }
+        bytes = opener.openFile(next);
+        current = next;
+
+        if (archive != null) {
+            File toArchive = archive;
+            roller.submit(() -> archive(toArchive));
+        }
+    }
+
+    private File nextArchiveName(File f) {
+        for (int i = lastIndex + 1; ; i++) {
+            File candidate = new File(f.getPath() + "." + i);
+            if (!candidate.exists() && !new File(candidate.getPath() + ".gz").exists()) {
+                lastIndex = i;
+                return candidate;
+            }
+        }
+    }
+
+    /** Waits for the roller thread to finish compressing; after the appender has closed its file. */
+    void close() {
+        if (roller == null) return;
+        roller.shutdown();
+        try {
+            roller.awaitTermination(CLOSE_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===== Roller thread =====
+
+    private void archive(File f) {
+        try {
+            if (compress) gzip(f);
+            applyRetention();
+        } catch (Exception e) {
+            System.err.println("Logger archive error for " + f + ": " + e.getMessage());
+        }
+    }
+
+    /** Compresses archives a previous run left behind, then applies retention. */
+    private void housekeeping() {
+        try {
+            if (compress) {
+                for (File f : archives()) {
+                    if (!f.getName().endsWith(".gz")) gzip(f);
+                }
+            }
+            applyRetention();
+        } catch (Exception e) {
+            System.err.println("Logger housekeeping error: " + e.getMessage());
+        }
+    }
+
+    private static void gzip(File f) throws IOException {
+        File tmp = new File(f.getPath() + ".gz.tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp.toPath()), 65536)) {
+            Files.copy(f.toPath(), out);
+        }
+        Files.move(tmp.toPath(), new File(f.getPath() + ".gz").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.delete(f.toPath());
+    }
+
+    private void applyRetention() throws IOException {
+        if (maxFiles <= 0 && maxTotalSize <= 0) return;
+        List<File> files = archives();
+        files.sort(Comparator.comparingLong(File::lastModified).thenComparing(File::getName));
+        long total = 0;
+        for (File f : files) total += f.length();
+        int count = files.size();
+        for (File f : files) {
+            if ((maxFiles <= 0 || count <= maxFiles) && (maxTotalSize <= 0 || total <= maxTotalSize)) break;
+            long len = f.length();
+            Files.deleteIfExists(f.toPath());
+            count--;
+            total -= len;
+        }
+    }
+
+    /**
+     * The archives in the log directory: files named by the pattern with a date it produces, or with
+     * the current name, then ".N", either of them possibly with ".gz". The file being written and
+     * those of the other appenders are left out, as is anything else that merely looks similar.
+     */
+    private List<File> archives() {
+        File active = current;
+        File dir = active.getAbsoluteFile().getParentFile();
+        File[] all = dir == null ? null : dir.listFiles();
+        if (all == null) return new ArrayList<>();
+        List<File> out = new ArrayList<>(all.length);
+        for (File f : all) {
+            if (f.isFile() && !f.getName().equals(active.getName()) && !otherFiles.contains(f.getAbsoluteFile())
+                    && isArchive(f.getName())) {
+                out.add(f);
+            }
+        }
+        return out;
+    }
+
+    private boolean isArchive(String name) {
+        if (name.endsWith(".gz")) name = name.substring(0, name.length() - 3);
+        Matcher m = INDEXED.matcher(name);
+        return (m.matches() && isLogName(m.group(1), true)) || isLogName(name, false);
+    }
+
+    /** Whether {@code name} is a name this pattern gives a file; without a date only an indexed one counts. */
+    private boolean isLogName(String name, boolean indexed) {
+        if (nameDate == null) return indexed && name.equals(namePrefix);
+        if (name.length() <= namePrefix.length() + nameSuffix.length()
+                || !name.startsWith(namePrefix) || !name.endsWith(nameSuffix)) {
+            return false;
+        }
+        String date = name.substring(namePrefix.length(), name.length() - nameSuffix.length());
+        ParsePosition pos = new ParsePosition(0);
+        Date d = nameDate.parse(date, pos);
+        return d != null && pos.getIndex() == date.length() && nameDate.format(d).equals(date);
+    }
+}
@@ -0,0 +1,33 @@
+package org.oldskooler.simplelogger4j.appenders;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Objects;
+
+/** How often {@link RollingFileAppender} starts a new file regardless of size. */
+public enum RolloverInterval {
+    NONE(null),
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RolloverInterval(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /** @return the start of the next period after {@code epochMillis}, or Long.MAX_VALUE for NONE */
+    public long next(long epochMillis, ZoneId zone) {
+        if (unit == null) return Long.MAX_VALUE;
+        ZonedDateTime t = Instant.ofEpochMilli(epochMillis).atZone(zone).truncatedTo(unit).plus(1, unit);
+        return t.toInstant().toEpochMilli();
+    }
+
+    public static RolloverInterval parse(String s) {
+        return RolloverInterval.valueOf(Objects.requireNonNull(s).trim().toUpperCase(Locale.ROOT));
+    }
+}
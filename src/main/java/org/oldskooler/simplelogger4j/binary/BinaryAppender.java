@@ -0,0 +1,252 @@
+package org.oldskooler.simplelogger4j.binary;
+
+import org.oldskooler.simplelogger4j.ImmutableArg;
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.LogLevel;
+import org.oldskooler.simplelogger4j.PrintJob;
+import org.oldskooler.simplelogger4j.appenders.EventAppender;
+import org.oldskooler.simplelogger4j.formatters.StackTraceFormatter;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Writes events in the {@link BinaryFormat binary format} instead of rendered lines: no pattern, no
+ * timestamp formatting, and thread names, logger names and templates are written once and then
+ * referred to by id. Read the files back with {@link BinaryLogReader} or render them with
+ * {@link BinaryLogDecoder}.
+ * <p>
+ * The dictionary holds up to {@code dictionarySize} strings per file; further strings are written
+ * inline. Records go through a direct ByteBuffer written by a FileChannel, like
+ * {@link org.oldskooler.simplelogger4j.appenders.ChannelFileAppender}. Writer thread only. Lines
+ * given to {@link #println} and {@link #printStackTrace} are kept as untemplated INFO events.
+ */
+public class BinaryAppender implements EventAppender {
+    private static final int BLOCK = 4096;
+    private static final AtomicLongFieldUpdater<BinaryAppender> BYTES_WRITTEN =
+            AtomicLongFieldUpdater.newUpdater(BinaryAppender.class, "bytesWritten");
+
+    private final FileChannel channel;
+    private final ByteBuffer buf;
+    private final int dictionarySize;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private int nextId = BinaryFormat.FIRST_ID;
+    private long lastMillis;
+    private long lastSequence = -1;
+    /** The event being encoded, and the dictionary entries it introduces, which go first. */
+    private final RecordBuffer event = new RecordBuffer(512);
+    private final RecordBuffer dict = new RecordBuffer(256);
+    private final StringBuilder trace = new StringBuilder(1024);
+    /** Added to by the writer thread only, with an ordered store, as in EncodingAppender. */
+    private volatile long bytesWritten;
+
+    public BinaryAppender(LogConfig config) throws IOException {
+        this(new File(config.getBinaryPath()), config.isBinaryAppend(), config.getBinaryBufferSize(), config.getBinaryDictionarySize());
+    }
+
+    public BinaryAppender(File file, boolean append, int bufferSize, int dictionarySize) throws IOException {
+        this.dictionarySize = Math.max(0, dictionarySize);
+        this.buf = ByteBuffer.allocateDirect(Math.max(BLOCK, (bufferSize + BLOCK - 1) / BLOCK * BLOCK));
+        File parentDir = file.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            if (!parentDir.mkdirs()) {
+                throw new FileNotFoundException("Could not create log directory: " + parentDir);
+            }
+        }
+        channel = append
+                ? FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                : FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        lastMillis = System.currentTimeMillis();
+        event.writeByte(BinaryFormat.HEADER);
+        for (byte b : BinaryFormat.MAGIC) event.writeByte(b);
+        event.writeByte(BinaryFormat.VERSION);
+        event.writeVarLong(lastMillis);
+        put(event);
+    }
+
+    @Override
+    public int append(PrintJob e) {
+        event.reset();
+        dict.reset();
+        int firstNew = nextId;
+        try {
+            encode(e);
+        } catch (RuntimeException ex) {
+            // Nothing was written, so neither were the dictionary entries this event added
+            if (nextId != firstNew) {
+                ids.values().removeIf(id -> id >= firstNew);
+                nextId = firstNew;
+            }
+            throw ex;
+        }
+        put(dict);
+        put(event);
+        lastMillis = e.getTimeMillis();
+        lastSequence = e.getSequence();
+        return dict.size + event.size;
+    }
+
+    private void encode(PrintJob e) {
+        String template = e.getTemplate();
+        Object[] args = template != null ? e.getArguments() : null;
+        boolean templated = args != null && args.length > 0;
+        Throwable throwable = e.getThrowable();
+
+        event.writeByte(BinaryFormat.EVENT);
+        event.writeByte(e.getLevel().ordinal());
+        event.writeByte((templated ? BinaryFormat.FLAG_TEMPLATE : 0) | (throwable != null ? BinaryFormat.FLAG_THROWABLE : 0));
+        event.writeZigZag(e.getTimeMillis() - lastMillis);
+        event.writeZigZag(e.getSequence() - lastSequence - 1);
+        writeRef(e.getThread());
+        writeRef(e.getName());
+        if (templated) {
+            writeRef(template);
+            event.writeVarLong(args.length);
+            for (Object a : args) writeArg(a);
+        } else {
+            event.writeString(template != null ? template : e.getMessage());
+        }
+        if (throwable != null) {
+            trace.setLength(0);
+            StackTraceFormatter.appendTo(throwable, trace, "\n");
+            event.writeString(trace);
+        }
+    }
+
+    /** Refers to {@code s} by its dictionary id, adding it while there is room, or else writes it inline. */
+    private void writeRef(String s) {
+        if (s == null) {
+            event.writeVarLong(BinaryFormat.REF_NULL);
+            return;
+        }
+        Integer id = ids.get(s);
+        if (id == null && ids.size() < dictionarySize) {
+            id = nextId++;
+            ids.put(s, id);
+            dict.writeByte(BinaryFormat.DICT);
+            dict.writeString(s);
+        }
+        if (id != null) {
+            event.writeVarLong(id);
+        } else {
+            event.writeVarLong(BinaryFormat.REF_INLINE);
+            event.writeString(s);
+        }
+    }
+
+    /** Keeps the types the decoder formats exactly as the writer would have; anything else becomes its String form. */
+    private void writeArg(Object a) {
+        if (a instanceof ImmutableArg) a = ((ImmutableArg) a).get();
+        if (a == null) {
+            event.writeByte(BinaryFormat.ARG_NULL);
+        } else if (a instanceof Integer || a instanceof Long || a instanceof Short || a instanceof Byte) {
+            event.writeByte(BinaryFormat.ARG_LONG);
+            event.writeZigZag(((Number) a).longValue());
+        } else if (a instanceof Double) {
+            event.writeByte(BinaryFormat.ARG_DOUBLE);
+            event.writeLong(Double.doubleToRawLongBits((Double) a));
+        } else if (a instanceof Boolean) {
+            event.writeByte((Boolean) a ? BinaryFormat.ARG_TRUE : BinaryFormat.ARG_FALSE);
+        } else if (a instanceof Character) {
+            event.writeByte(BinaryFormat.ARG_CHAR);
+            event.writeVarLong((Character) a);
+        } else {
+            event.writeByte(BinaryFormat.ARG_STRING);
+            event.writeString(a instanceof CharSequence ? (CharSequence) a : a.toString());
+        }
+    }
+
+    private void put(RecordBuffer r) {
+        try {
+            for (int off = 0; off < r.size; ) {
+                if (!buf.hasRemaining()) drain();
+                int n = Math.min(buf.remaining(), r.size - off);
+                buf.put(r.bytes, off, n);
+                off += n;
+            }
+            BYTES_WRITTEN.lazySet(this, bytesWritten + r.size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void drain() throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        buf.clear();
+    }
+
+    /**
+     * Writes {@code line} as an INFO event with no thread or logger name. The writer hands this
+     * appender events, so only code driving it as a plain {@code Appender} gets here.
+     */
+    @Override
+    public void println(String line) {
+        text(line, null);
+    }
+
+    /** As {@link #println}, an event whose message is null and whose stack trace is {@code t}'s. */
+    @Override
+    public void printStackTrace(Throwable t) {
+        text(null, t);
+    }
+
+    /** Takes the previous event's sequence number, so a decoder puts the record right after it. */
+    private void text(String message, Throwable t) {
+        long now = System.currentTimeMillis();
+        event.reset();
+        event.writeByte(BinaryFormat.EVENT);
+        event.writeByte(LogLevel.INFO.ordinal());
+        event.writeByte(t != null ? BinaryFormat.FLAG_THROWABLE : 0);
+        event.writeZigZag(now - lastMillis);
+        event.writeZigZag(-1);
+        event.writeVarLong(BinaryFormat.REF_NULL);
+        event.writeVarLong(BinaryFormat.REF_NULL);
+        event.writeString(message);
+        if (t != null) {
+            trace.setLength(0);
+            StackTraceFormatter.appendTo(t, trace, "\n");
+            event.writeString(trace);
+        }
+        put(event);
+        lastMillis = now;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void flush() {
+        if (buf.position() == 0) return;
+        try {
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            try {
+                if (buf.position() > 0) drain();
+            } finally {
+                channel.close();
+            }
+        } catch (Exception ignore) {
+            // Ignore close exceptions
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.oldskooler.simplelogger4j.binary;
+
+/**
+ * The layout of a binary log file: a sequence of records, each starting with a tag byte.
+ * <pre>
+ * HEADER  'H' "SL4J" version:u8 baseMillis:varint
+ * DICT    'D' string                      defines the next dictionary id, from 2 up
+ * EVENT   'E' level:u8 flags:u8
+ *             timeDelta:zigzag            milliseconds since the previous event (the header's base for the first)
+ *             sequenceDelta:zigzag        sequence minus the previous sequence minus one, so 0 when consecutive
+ *             thread:ref name:ref
+ *             TEMPLATE flag: template:ref argc:varint arg*   otherwise: message:string
+ *             THROWABLE flag: stackTrace:string              lines ended by '\n'
+ * </pre>
+ * A {@code varint} is unsigned LEB128 and a {@code zigzag} a signed value mapped onto one. A
+ * {@code string} is a varint of its UTF-8 length plus one, 0 for null, then the bytes. A
+ * {@code ref} is 0 for null, 1 for a string that follows inline, or a dictionary id. Each arg is a
+ * type byte followed by its value; values of other types are stored as their {@code toString()}.
+ * <p>
+ * Every time a file is opened for writing a header is written, which starts the dictionary and the
+ * deltas over, so a file appended to across restarts reads back whole.
+ */
+final class BinaryFormat {
+    static final byte[] MAGIC = {'S', 'L', '4', 'J'};
+    static final int VERSION = 1;
+
+    static final int HEADER = 'H';
+    static final int DICT = 'D';
+    static final int EVENT = 'E';
+
+    static final int FLAG_TEMPLATE = 1;
+    static final int FLAG_THROWABLE = 2;
+
+    static final int REF_NULL = 0;
+    static final int REF_INLINE = 1;
+    static final int FIRST_ID = 2;
+
+    static final int ARG_NULL = 0;
+    static final int ARG_STRING = 1;
+    static final int ARG_LONG = 2;
+    static final int ARG_DOUBLE = 3;
+    static final int ARG_TRUE = 4;
+    static final int ARG_FALSE = 5;
+    static final int ARG_CHAR = 6;
+
+    private BinaryFormat() {
+    }
+}
@@ -0,0 +1,119 @@
+package org.oldskooler.simplelogger4j.binary;
+
+import org.oldskooler.simplelogger4j.CompiledPattern;
+import org.oldskooler.simplelogger4j.LogConfig;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Renders binary log files back into text with any pattern {@link org.oldskooler.simplelogger4j.PatternEngine}
+ * understands. Several files, such as one per shard, are merged by sequence number; as in a shard
+ * file events are in the order they were queued, up to {@value #REORDER_WINDOW} events are held
+ * back to put them in order. A single file is rendered in the order it was written.
+ * <pre>
+ * java -cp SimpleLogger4j.jar org.oldskooler.simplelogger4j.binary.BinaryLogDecoder \
+ *      [--pattern "%{timestamp} %{level} %{message}"] [--timeFormat "HH:mm:ss.SSS"] [--colour] file...
+ * </pre>
+ * Without {@code --pattern} and {@code --timeFormat} the defaults of {@link LogConfig} are used.
+ */
+public final class BinaryLogDecoder {
+    private static final int REORDER_WINDOW = 65536;
+
+    private BinaryLogDecoder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LogConfig defaults = new LogConfig();
+        String pattern = defaults.getPattern();
+        String timeFormat = defaults.getTimeFormat();
+        boolean colour = false;
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--pattern") && i + 1 < args.length) {
+                pattern = args[++i];
+            } else if (args[i].equals("--timeFormat") && i + 1 < args.length) {
+                timeFormat = args[++i];
+            } else if (args[i].equals("--colour")) {
+                colour = true;
+            } else {
+                files.add(new File(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: BinaryLogDecoder [--pattern pattern] [--timeFormat format] [--colour] file...");
+            System.exit(2);
+        }
+        CompiledPattern plan = CompiledPattern.compile(pattern, DateTimeFormatter.ofPattern(timeFormat), defaults.getLevelPalette());
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        decode(files, plan, colour, out);
+        out.flush();
+    }
+
+    /**
+     * Writes the events of {@code files} to {@code out}, one rendered line each followed by any
+     * stack trace, merged by sequence number. Returns the number of events.
+     */
+    public static long decode(List<File> files, CompiledPattern plan, boolean coloured, Appendable out) throws IOException {
+        Comparator<BinaryLogEvent> bySequence = Comparator.comparingLong(BinaryLogEvent::getSequence);
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, files.size()), (a, b) -> bySequence.compare(a.event, b.event));
+        PriorityQueue<BinaryLogEvent> window = new PriorityQueue<>(bySequence);
+        int windowSize = files.size() > 1 ? REORDER_WINDOW : 0;
+        StringBuilder line = new StringBuilder(256);
+        long n = 0;
+        try {
+            for (File f : files) {
+                Head h = new Head(new BinaryLogReader(f));
+                try {
+                    if (h.advance()) heads.add(h);
+                } catch (IOException | RuntimeException e) {
+                    h.reader.close();
+                    throw e;
+                }
+            }
+            for (Head h; (h = heads.poll()) != null; ) {
+                window.add(h.event);
+                if (h.advance()) heads.add(h);
+                if (window.size() > windowSize) n += write(window.poll(), plan, coloured, line, out);
+            }
+            while (!window.isEmpty()) n += write(window.poll(), plan, coloured, line, out);
+            return n;
+        } finally {
+            for (Head h : heads) h.reader.close();
+        }
+    }
+
+    private static int write(BinaryLogEvent e, CompiledPattern plan, boolean coloured, StringBuilder line, Appendable out) throws IOException {
+        String nl = System.lineSeparator();
+        line.setLength(0);
+        plan.render(e.toPrintJob(), line, coloured);
+        out.append(line).append(nl);
+        if (e.getStackTrace() != null) out.append(nl.equals("\n") ? e.getStackTrace() : e.getStackTrace().replace("\n", nl));
+        return 1;
+    }
+
+    /** A reader and the event it is at. */
+    private static final class Head {
+        final BinaryLogReader reader;
+        BinaryLogEvent event;
+
+        Head(BinaryLogReader reader) {
+            this.reader = reader;
+        }
+
+        boolean advance() throws IOException {
+            event = reader.next();
+            if (event == null) reader.close();
+            return event != null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.oldskooler.simplelogger4j.binary;
+
+import org.oldskooler.simplelogger4j.LogLevel;
+import org.oldskooler.simplelogger4j.ParameterFormatter;
+import org.oldskooler.simplelogger4j.PrintJob;
+
+/** One event read back by {@link BinaryLogReader}. */
+public final class BinaryLogEvent {
+    private final LogLevel level;
+    private final long timeMillis;
+    private final long sequence;
+    private final String thread;
+    private final String name;
+    private final String template;
+    private final Object[] arguments;
+    private String message;
+    private final String stackTrace;
+
+    BinaryLogEvent(LogLevel level, long timeMillis, long sequence, String thread, String name,
+                   String template, Object[] arguments, String message, String stackTrace) {
+        this.level = level;
+        this.timeMillis = timeMillis;
+        this.sequence = sequence;
+        this.thread = thread;
+        this.name = name;
+        this.template = template;
+        this.arguments = arguments;
+        this.message = message;
+        this.stackTrace = stackTrace;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** The {@code {}} template, when the event was written with one; otherwise null. */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * The arguments for {@link #getTemplate()}: Strings, Longs, Doubles, Booleans, Characters and
+     * nulls, other types having been written as their String form.
+     */
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    /** The message, with the arguments substituted into the template. */
+    public String getMessage() {
+        if (message == null && template != null) message = ParameterFormatter.format(template, arguments);
+        return message;
+    }
+
+    /** The stack trace as {@link Throwable#printStackTrace()} printed it, lines ended by {@code '\n'}; null if none. */
+    public String getStackTrace() {
+        return stackTrace;
+    }
+
+    /** A job to render with a {@link org.oldskooler.simplelogger4j.CompiledPattern}; it has no throwable, use {@link #getStackTrace()}. */
+    public PrintJob toPrintJob() {
+        return new PrintJob(name, sequence, level, getMessage(), thread, timeMillis, null, false);
+    }
+}
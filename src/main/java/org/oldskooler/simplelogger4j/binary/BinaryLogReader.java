@@ -0,0 +1,175 @@
+package org.oldskooler.simplelogger4j.binary;
+
+import org.oldskooler.simplelogger4j.LogLevel;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the events of a file written by {@link BinaryAppender}, in the order they were written.
+ * <pre>
+ * try (BinaryLogReader r = new BinaryLogReader(new File("logs/app.sl4j"))) {
+ *     for (BinaryLogEvent e; (e = r.next()) != null; ) System.out.println(e.getMessage());
+ * }
+ * </pre>
+ * A record cut short at the end of the file, as a crash can leave, ends it quietly.
+ */
+public final class BinaryLogReader implements Closeable {
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final InputStream in;
+    private final List<String> dictionary = new ArrayList<>();
+    private boolean started;
+    private long lastMillis;
+    private long lastSequence;
+    private byte[] scratch = new byte[256];
+
+    public BinaryLogReader(File file) throws IOException {
+        this(new FileInputStream(file));
+    }
+
+    public BinaryLogReader(InputStream in) {
+        this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in, 65536);
+    }
+
+    /** The next event, or null at the end of the file. */
+    public BinaryLogEvent next() throws IOException {
+        try {
+            while (true) {
+                int tag = in.read();
+                if (tag < 0) return null;
+                if (tag == BinaryFormat.HEADER) {
+                    readHeader();
+                } else if (!started) {
+                    throw new IOException("Not a binary log file: no header");
+                } else if (tag == BinaryFormat.DICT) {
+                    dictionary.add(readString());
+                } else if (tag == BinaryFormat.EVENT) {
+                    return readEvent();
+                } else {
+                    throw new IOException("Corrupt binary log: unknown record tag " + tag);
+                }
+            }
+        } catch (EOFException truncated) {
+            return null;
+        }
+    }
+
+    private void readHeader() throws IOException {
+        for (byte b : BinaryFormat.MAGIC) {
+            if (readByte() != b) throw new IOException("Not a binary log file: bad magic");
+        }
+        int version = readByte();
+        if (version != BinaryFormat.VERSION) throw new IOException("Unsupported binary log version " + version);
+        lastMillis = readVarLong();
+        lastSequence = -1;
+        dictionary.clear();
+        started = true;
+    }
+
+    private BinaryLogEvent readEvent() throws IOException {
+        int level = readByte();
+        if (level >= LEVELS.length) throw new IOException("Corrupt binary log: level " + level);
+        int flags = readByte();
+        long time = lastMillis + readZigZag();
+        long sequence = lastSequence + 1 + readZigZag();
+        String thread = readRef();
+        String name = readRef();
+        String template = null;
+        Object[] args = null;
+        String message = null;
+        if ((flags & BinaryFormat.FLAG_TEMPLATE) != 0) {
+            template = readRef();
+            args = new Object[(int) readVarLong()];
+            for (int i = 0; i < args.length; i++) args[i] = readArg();
+        } else {
+            message = readString();
+        }
+        String stackTrace = (flags & BinaryFormat.FLAG_THROWABLE) != 0 ? readString() : null;
+        lastMillis = time;
+        lastSequence = sequence;
+        return new BinaryLogEvent(LEVELS[level], time, sequence, thread, name, template, args, message, stackTrace);
+    }
+
+    private String readRef() throws IOException {
+        long ref = readVarLong();
+        if (ref == BinaryFormat.REF_NULL) return null;
+        if (ref == BinaryFormat.REF_INLINE) return readString();
+        long index = ref - BinaryFormat.FIRST_ID;
+        if (index >= dictionary.size()) throw new IOException("Corrupt binary log: undefined dictionary id " + ref);
+        return dictionary.get((int) index);
+    }
+
+    private Object readArg() throws IOException {
+        int type = readByte();
+        switch (type) {
+            case BinaryFormat.ARG_NULL:
+                return null;
+            case BinaryFormat.ARG_STRING:
+                return readString();
+            case BinaryFormat.ARG_LONG:
+                return readZigZag();
+            case BinaryFormat.ARG_DOUBLE: {
+                long bits = 0;
+                for (int i = 0; i < 8; i++) bits = (bits << 8) | readByte();
+                return Double.longBitsToDouble(bits);
+            }
+            case BinaryFormat.ARG_TRUE:
+                return Boolean.TRUE;
+            case BinaryFormat.ARG_FALSE:
+                return Boolean.FALSE;
+            case BinaryFormat.ARG_CHAR:
+                return (char) readVarLong();
+            default:
+                throw new IOException("Corrupt binary log: argument type " + type);
+        }
+    }
+
+    private String readString() throws IOException {
+        long n = readVarLong();
+        if (n == 0) return null;
+        if (--n > Integer.MAX_VALUE - 8) throw new IOException("Corrupt binary log: string of " + n + " bytes");
+        int len = (int) n;
+        if (scratch.length < len) scratch = new byte[Math.max(len, scratch.length * 2)];
+        for (int off = 0; off < len; ) {
+            int r = in.read(scratch, off, len - off);
+            if (r < 0) throw new EOFException();
+            off += r;
+        }
+        return new String(scratch, 0, len, StandardCharsets.UTF_8);
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+        if (b < 0) throw new EOFException();
+        return b;
+    }
+
+    private long readVarLong() throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Corrupt binary log: varint too long");
+    }
+
+    private long readZigZag() throws IOException {
+        long v = readVarLong();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,42 @@
+package org.oldskooler.simplelogger4j.clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A coarse clock: a background thread refreshes a volatile field about once a millisecond, so
+ * reading the time is a single field load. Timestamps can lag the real time by roughly a millisecond.
+ */
+public final class CachedClock implements LogClock {
+    private static volatile CachedClock instance;
+
+    private volatile long now = System.currentTimeMillis();
+
+    private CachedClock() {
+        Thread t = new Thread(() -> {
+            while (true) {
+                now = System.currentTimeMillis();
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }, "Logger-Clock");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** The shared clock; its update thread is started on first use. */
+    public static CachedClock instance() {
+        CachedClock c = instance;
+        if (c == null) {
+            synchronized (CachedClock.class) {
+                c = instance;
+                if (c == null) instance = c = new CachedClock();
+            }
+        }
+        return c;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+}
@@ -0,0 +1,117 @@
+package org.oldskooler.simplelogger4j.clock;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats epoch-millis timestamps with a {@link DateTimeFormatter}, caching the text per second.
+ * <p>
+ * When a new second starts, the text is rendered twice with different millisecond values. The
+ * characters that differ are where the millisecond digits go. The text before and after them is
+ * kept, so every other event in that second only writes the prefix, one to three digits and the
+ * suffix. Patterns without a milliseconds field reuse the whole text. If the digits cannot be
+ * located (e.g. the millis appear twice), that second falls back to formatting every event.
+ * <p>
+ * Safe for concurrent use: each cache entry is immutable and replaced as a whole.
+ */
+public final class CachedTimestampFormatter {
+    private static final int PROBE_A = 123;
+    private static final int PROBE_B = 456;
+
+    private final DateTimeFormatter formatter;
+    private final ZoneId zone;
+    private Entry cache;
+
+    public CachedTimestampFormatter(DateTimeFormatter formatter) {
+        this(formatter, ZoneId.systemDefault());
+    }
+
+    public CachedTimestampFormatter(DateTimeFormatter formatter, ZoneId zone) {
+        this.formatter = formatter;
+        this.zone = zone;
+    }
+
+    public DateTimeFormatter getFormatter() {
+        return formatter;
+    }
+
+    public void formatTo(long epochMillis, StringBuilder out) {
+        long second = Math.floorDiv(epochMillis, 1000L);
+        Entry e = cache;
+        if (e == null || e.second != second) {
+            cache = e = entryFor(second);
+        }
+        if (e.digits < 0) {
+            formatter.formatTo(toLocal(epochMillis), out);
+            return;
+        }
+
+        out.append(e.prefix);
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+        switch (e.digits) {
+            case 3:
+                out.append((char) ('0' + millis / 100))
+                   .append((char) ('0' + millis / 10 % 10))
+                   .append((char) ('0' + millis % 10));
+                break;
+            case 2:
+                out.append((char) ('0' + millis / 100))
+                   .append((char) ('0' + millis / 10 % 10));
+                break;
+            case 1:
+                out.append((char) ('0' + millis / 100));
+                break;
+            default:
+                break;
+        }
+        out.append(e.suffix);
+    }
+
+    public String format(long epochMillis) {
+        StringBuilder sb = new StringBuilder(32);
+        formatTo(epochMillis, sb);
+        return sb.toString();
+    }
+
+    private Entry entryFor(long second) {
+        String a = formatter.format(toLocal(second * 1000L + PROBE_A));
+        String b = formatter.format(toLocal(second * 1000L + PROBE_B));
+        if (a.equals(b)) {
+            return new Entry(second, a, "", 0);
+        }
+        if (a.length() == b.length()) {
+            int start = 0;
+            while (a.charAt(start) == b.charAt(start)) start++;
+            int end = a.length();
+            while (a.charAt(end - 1) == b.charAt(end - 1)) end--;
+            int digits = end - start;
+            if (digits <= 3
+                    && a.regionMatches(start, Integer.toString(PROBE_A), 0, digits)
+                    && b.regionMatches(start, Integer.toString(PROBE_B), 0, digits)) {
+                return new Entry(second, a.substring(0, start), a.substring(end), digits);
+            }
+        }
+        return new Entry(second, null, null, -1);
+    }
+
+    private LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+
+    private static final class Entry {
+        final long second;
+        final String prefix;
+        final String suffix;
+        /** Millisecond digits to write between prefix and suffix; -1 to format every event. */
+        final int digits;
+
+        Entry(long second, String prefix, String suffix, int digits) {
+            this.second = second;
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.digits = digits;
+        }
+    }
+}
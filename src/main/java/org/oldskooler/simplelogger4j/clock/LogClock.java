@@ -0,0 +1,30 @@
+package org.oldskooler.simplelogger4j.clock;
+
+import java.util.Locale;
+
+/**
+ * Source of event timestamps, read on the logging thread for every event.
+ */
+public interface LogClock {
+    /** @return the current time in epoch milliseconds */
+    long currentTimeMillis();
+
+    /**
+     * Resolves a {@code <clock>} setting: {@code SYSTEM}, {@code CACHED}, or the class name of a
+     * {@link LogClock} implementation with a public no-arg constructor.
+     */
+    static LogClock forName(String name) {
+        switch (name.trim().toUpperCase(Locale.ROOT)) {
+            case "SYSTEM":
+                return SystemClock.INSTANCE;
+            case "CACHED":
+                return CachedClock.instance();
+            default:
+                try {
+                    return (LogClock) Class.forName(name.trim()).getConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("Unknown clock: " + name, e);
+                }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.oldskooler.simplelogger4j.clock;
+
+/** Reads {@link System#currentTimeMillis()} on every call. */
+public final class SystemClock implements LogClock {
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,98 @@
+package org.oldskooler.simplelogger4j.formatters;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Renders a throwable into a StringBuilder in the same layout as {@link Throwable#printStackTrace()}:
+ * causes and suppressed exceptions, "... n more" for frames shared with the enclosing trace,
+ * and circular reference markers. Every line, including the last, ends with {@code lineSeparator}.
+ */
+public final class StackTraceFormatter {
+    private StackTraceFormatter() {
+    }
+
+    public static void appendTo(Throwable t, StringBuilder sb, String lineSeparator) {
+        appendTo(t, sb, lineSeparator, 0, 0);
+    }
+
+    /**
+     * As {@link #appendTo(Throwable, StringBuilder, String)}, printing at most {@code maxFrames}
+     * frames per exception and {@code maxDepth} levels of causes and suppressed exceptions below
+     * {@code t} (0 for no limit); what is left out is counted instead.
+     */
+    public static void appendTo(Throwable t, StringBuilder sb, String lineSeparator, int maxFrames, int maxDepth) {
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.add(t);
+        sb.append(t).append(lineSeparator);
+        StackTraceElement[] trace = t.getStackTrace();
+        appendFrames(trace, trace.length - 1, sb, lineSeparator, "", maxFrames);
+        appendNested(t, sb, lineSeparator, trace, "", seen, maxFrames, maxDepth, 1);
+    }
+
+    public static String toString(Throwable t) {
+        StringBuilder sb = new StringBuilder(1024);
+        appendTo(t, sb, System.lineSeparator());
+        return sb.toString();
+    }
+
+    private static void appendNested(Throwable t, StringBuilder sb, String nl, StackTraceElement[] trace, String prefix,
+                                     Set<Throwable> seen, int maxFrames, int maxDepth, int depth) {
+        Throwable[] suppressed = t.getSuppressed();
+        Throwable cause = t.getCause();
+        if (maxDepth > 0 && depth > maxDepth) {
+            if (suppressed.length != 0) {
+                sb.append(prefix).append("\t... ").append(suppressed.length).append(" suppressed").append(nl);
+            }
+            int causes = 0;
+            for (Throwable c = cause; c != null && seen.add(c); c = c.getCause()) {
+                causes++;
+            }
+            if (causes != 0) {
+                sb.append(prefix).append("\t... ").append(causes).append(causes == 1 ? " more cause" : " more causes").append(nl);
+            }
+            return;
+        }
+        for (Throwable s : suppressed) {
+            appendEnclosed(s, sb, nl, trace, "Suppressed: ", prefix + "\t", seen, maxFrames, maxDepth, depth);
+        }
+        if (cause != null) {
+            appendEnclosed(cause, sb, nl, trace, "Caused by: ", prefix, seen, maxFrames, maxDepth, depth);
+        }
+    }
+
+    /** Frames 0 to {@code last}, or the first {@code maxFrames} of them and a count of the rest. */
+    private static void appendFrames(StackTraceElement[] trace, int last, StringBuilder sb, String nl, String prefix, int maxFrames) {
+        int shown = maxFrames > 0 ? Math.min(last + 1, maxFrames) : last + 1;
+        for (int i = 0; i < shown; i++) {
+            sb.append(prefix).append("\tat ").append(trace[i]).append(nl);
+        }
+        if (shown <= last) {
+            sb.append(prefix).append("\t... ").append(last + 1 - shown).append(" frames omitted").append(nl);
+        }
+    }
+
+    private static void appendEnclosed(Throwable t, StringBuilder sb, String nl, StackTraceElement[] enclosing,
+                                       String caption, String prefix, Set<Throwable> seen, int maxFrames, int maxDepth, int depth) {
+        if (!seen.add(t)) {
+            sb.append(prefix).append(caption).append("[CIRCULAR REFERENCE: ").append(t).append(']').append(nl);
+            return;
+        }
+        StackTraceElement[] trace = t.getStackTrace();
+        int m = trace.length - 1;
+        int n = enclosing.length - 1;
+        while (m >= 0 && n >= 0 && trace[m].equals(enclosing[n])) {
+            m--;
+            n--;
+        }
+        int inCommon = trace.length - 1 - m;
+
+        sb.append(prefix).append(caption).append(t).append(nl);
+        appendFrames(trace, m, sb, nl, prefix, maxFrames);
+        if (inCommon != 0) {
+            sb.append(prefix).append("\t... ").append(inCommon).append(" more").append(nl);
+        }
+        appendNested(t, sb, nl, trace, prefix, seen, maxFrames, maxDepth, depth + 1);
+    }
+}
@@ -7,4 +7,9 @@ public class StringFormatter implements Formatter {
     public String formatMessage(String message) {
         return message;
     }
+
+    @Override
+    public void formatMessage(StringBuilder message) {
+        // unchanged
+    }
 }
@@ -0,0 +1,112 @@
+package org.oldskooler.simplelogger4j.metrics;
+
+import org.oldskooler.simplelogger4j.appenders.Appender;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What one appender has done: events written, the time each {@code println} and {@code flush}
+ * took, how many of those threw, and the bytes it has written, as the appender counts them
+ * ({@link Appender#getBytesWritten()}: UTF-8, stack traces and line separators included). The
+ * console cannot tell, as {@code System.out} encodes, so its bytes are -1. For an appender with
+ * its own thread ({@code async="true"}) the times are those of the hand-off to its buffer, and
+ * the bytes those its thread has written so far. Kept by name, so an appender reopened by a
+ * config reload carries on counting.
+ */
+public final class AppenderMetrics {
+    private final String name;
+    private final LongAdder events = new LongAdder();
+    /** The appender counting bytes, and what the appenders it replaced wrote. */
+    private Appender source;
+    private long retiredBytes;
+    private final LongAdder errors = new LongAdder();
+    // Recorded by the one writer thread that owns the appender
+    private final LogHistogram writeNanos = new LogHistogram(1);
+    private final LogHistogram flushNanos = new LogHistogram(1);
+
+    AppenderMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void recordWrite(long nanos) {
+        events.increment();
+        writeNanos.record(nanos);
+    }
+
+    /** Takes the bytes written from {@code appender} from now on, on top of those of the appender it replaces. */
+    public synchronized void countBytesOf(Appender appender) {
+        if(appender == source) return;
+        if(source != null) retiredBytes += Math.max(0, source.getBytesWritten());
+        source = appender;
+    }
+
+    private synchronized long bytes() {
+        long n = source != null ? source.getBytesWritten() : -1;
+        return n < 0 ? -1 : retiredBytes + n;
+    }
+
+    public void recordFlush(long nanos) {
+        flushNanos.record(nanos);
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(name, events.sum(), bytes(), errors.sum(), writeNanos.snapshot(), flushNanos.snapshot());
+    }
+
+    public static final class Snapshot {
+        private final String name;
+        private final long events;
+        private final long bytes;
+        private final long errors;
+        private final LogHistogram.Snapshot writeNanos;
+        private final LogHistogram.Snapshot flushNanos;
+
+        Snapshot(String name, long events, long bytes, long errors, LogHistogram.Snapshot writeNanos, LogHistogram.Snapshot flushNanos) {
+            this.name = name;
+            this.events = events;
+            this.bytes = bytes;
+            this.errors = errors;
+            this.writeNanos = writeNanos;
+            this.flushNanos = flushNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getEvents() {
+            return events;
+        }
+
+        /** UTF-8 bytes written, or -1 if the appender cannot tell. */
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public LogHistogram.Snapshot getWriteNanos() {
+            return writeNanos;
+        }
+
+        public LogHistogram.Snapshot getFlushNanos() {
+            return flushNanos;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": events=" + events + " bytes=" + bytes + " errors=" + errors
+                    + "\n  write ns: " + writeNanos + "\n  flush ns: " + flushNanos;
+        }
+    }
+}
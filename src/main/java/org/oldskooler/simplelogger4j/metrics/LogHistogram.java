@@ -0,0 +1,118 @@
+package org.oldskooler.simplelogger4j.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative longs (latencies in nanoseconds) with log-spaced buckets: values
+ * below 8 are counted exactly, and every power of two above is split into 8 buckets, so a reported
+ * value is within 12.5% of the recorded one. 488 buckets cover the whole long range.
+ * <p>
+ * Recording is one atomic increment on a row of buckets picked by the calling thread, so threads
+ * recording at the same time mostly touch different rows. Rows are summed when a
+ * {@link #snapshot()} is taken. Nothing is allocated after construction.
+ */
+public final class LogHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+    private final int stripeMask;
+    private final AtomicLongArray counts;
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /** A histogram for many recording threads: one row per processor, up to 16. */
+    public LogHistogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /** @param stripes rows of buckets, rounded up to a power of two; 1 for a single recording thread */
+    public LogHistogram(int stripes) {
+        int n = Integer.highestOneBit(Math.max(1, Math.min(16, stripes)) * 2 - 1);
+        stripeMask = n - 1;
+        counts = new AtomicLongArray(n * BUCKETS);
+    }
+
+    public void record(long value) {
+        if(value < 0) value = 0;
+        int stripe = stripeMask == 0 ? 0 : mix(System.identityHashCode(Thread.currentThread())) & stripeMask;
+        counts.getAndIncrement(stripe * BUCKETS + bucket(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int bucket(long value) {
+        if(value < SUB) return (int) value;
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB - 1);
+        return (exp - SUB_BITS + 1) * SUB + sub;
+    }
+
+    /** The largest value that falls in the bucket. */
+    static long upperBound(int bucket) {
+        if(bucket < SUB) return bucket;
+        int exp = bucket / SUB + SUB_BITS - 1;
+        long lower = (long) (SUB + bucket % SUB) << (exp - SUB_BITS);
+        return lower + (1L << (exp - SUB_BITS)) - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        for(int i = 0; i < counts.length(); i++) merged[i % BUCKETS] += counts.get(i);
+        return new Snapshot(merged, sum.sum(), max.get());
+    }
+
+    /** The counts at one moment. Values recorded while it was taken may be partly included. */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] counts, long sum, long max) {
+            long n = 0;
+            for(long c : counts) n += c;
+            this.counts = counts;
+            this.count = n;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        /** The value that {@code percent}% of recorded values are at or below, e.g. 99 or 99.9; 0 when empty. */
+        public long getPercentile(double percent) {
+            if(count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percent)) / 100 * count));
+            long seen = 0;
+            for(int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if(seen >= rank) return Math.min(upperBound(i), max);
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.0f p50=%d p90=%d p99=%d p99.9=%d max=%d",
+                    count, getMean(), getPercentile(50), getPercentile(90), getPercentile(99), getPercentile(99.9), max);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.oldskooler.simplelogger4j.metrics;
+
+import org.oldskooler.simplelogger4j.LogLevel;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bus-wide metrics, kept when {@code <metrics enabled="true">}: events per level, how long
+ * logging calls take to queue an event, how long events take from the call to the appenders,
+ * queue depth, writer throughput and {@link AppenderMetrics per appender}. Counters are
+ * {@link LongAdder}s and latencies {@link LogHistogram}s, both striped, so many threads can record
+ * at once without contending on one cache line.
+ * <p>
+ * Read it with {@link #snapshot()}, or over JMX as {@value #OBJECT_NAME}.
+ */
+public final class LoggerMetrics implements LoggerMetricsMXBean {
+    public static final String OBJECT_NAME = "org.oldskooler.simplelogger4j:type=LoggerMetrics";
+    private static final LogLevel[] LEVELS = LogLevel.values();
+    private static final long RATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LongAdder[] levelCounts = new LongAdder[LEVELS.length];
+    private final LogHistogram enqueueNanos = new LogHistogram();
+    private final LogHistogram endToEndNanos = new LogHistogram();
+    private final LongAdder written = new LongAdder();
+    private final LongAccumulator highWaterMark = new LongAccumulator(Math::max, 0);
+    private final ConcurrentMap<String, AppenderMetrics> appenders = new ConcurrentSkipListMap<>();
+    private final LongSupplier queueDepth;
+    private final long queueCapacity;
+    // Writer rate, measured between reads at least a second apart
+    private long rateSince = System.nanoTime();
+    private long rateWritten;
+    private double rate;
+
+    /**
+     * @param queueDepth    events currently queued, over all shards
+     * @param queueCapacity total queue capacity
+     */
+    public LoggerMetrics(LongSupplier queueDepth, long queueCapacity) {
+        for(int i = 0; i < levelCounts.length; i++) levelCounts[i] = new LongAdder();
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /** A logging call that got past its level check, and the time it took to queue the event. */
+    public void recordEnqueue(LogLevel level, long nanos) {
+        levelCounts[level.ordinal()].increment();
+        enqueueNanos.record(nanos);
+    }
+
+    /** A writer wrote an event; {@code nanos} since the logging call, or negative if unknown. */
+    public void recordWritten(long nanos) {
+        written.increment();
+        if(nanos >= 0) endToEndNanos.record(nanos);
+    }
+
+    /** The queue depth a writer saw when it took a batch. */
+    public void recordQueueDepth(long depth) {
+        highWaterMark.accumulate(depth);
+    }
+
+    /** The metrics of the appender called {@code name}, created on first use. */
+    public AppenderMetrics appender(String name) {
+        AppenderMetrics m = appenders.get(name);
+        return m != null ? m : appenders.computeIfAbsent(name, AppenderMetrics::new);
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<LogLevel, Long> levels = new EnumMap<>(LogLevel.class);
+        for(LogLevel l : LEVELS) levels.put(l, levelCounts[l.ordinal()].sum());
+        List<AppenderMetrics.Snapshot> perAppender = new ArrayList<>();
+        for(AppenderMetrics m : appenders.values()) perAppender.add(m.snapshot());
+        return new MetricsSnapshot(getQueueDepth(), getQueueHighWaterMark(), queueCapacity, written.sum(), getWriterEventsPerSecond(),
+                levels, enqueueNanos.snapshot(), endToEndNanos.snapshot(), perAppender);
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return queueDepth.getAsLong();
+    }
+
+    /** The deepest the queues have been when a writer took a batch. */
+    @Override
+    public long getQueueHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    @Override
+    public long getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    public long getEventsWritten() {
+        return written.sum();
+    }
+
+    /** Events written per second over the last interval of at least a second between two reads; 0 before that. */
+    @Override
+    public synchronized double getWriterEventsPerSecond() {
+        long now = System.nanoTime();
+        long elapsed = now - rateSince;
+        if(elapsed >= RATE_INTERVAL_NANOS) {
+            long n = written.sum();
+            rate = (n - rateWritten) * 1e9 / elapsed;
+            rateWritten = n;
+            rateSince = now;
+        }
+        return rate;
+    }
+
+    @Override
+    public Map<String, Long> getLevelCounts() {
+        Map<String, Long> m = new LinkedHashMap<>();
+        for(LogLevel l : LEVELS) m.put(l.name(), levelCounts[l.ordinal()].sum());
+        return m;
+    }
+
+    @Override
+    public Map<String, Double> getEnqueueLatencyNanos() {
+        return summary(enqueueNanos.snapshot());
+    }
+
+    @Override
+    public Map<String, Double> getEndToEndLatencyNanos() {
+        return summary(endToEndNanos.snapshot());
+    }
+
+    @Override
+    public Map<String, Long> getAppenderStats() {
+        Map<String, Long> m = new LinkedHashMap<>();
+        for(AppenderMetrics a : appenders.values()) {
+            AppenderMetrics.Snapshot s = a.snapshot();
+            m.put(s.getName() + ".events", s.getEvents());
+            m.put(s.getName() + ".bytes", s.getBytes());
+            m.put(s.getName() + ".errors", s.getErrors());
+            m.put(s.getName() + ".writeP99Nanos", s.getWriteNanos().getPercentile(99));
+            m.put(s.getName() + ".flushP99Nanos", s.getFlushNanos().getPercentile(99));
+        }
+        return m;
+    }
+
+    private static Map<String, Double> summary(LogHistogram.Snapshot s) {
+        Map<String, Double> m = new LinkedHashMap<>();
+        m.put("count", (double) s.getCount());
+        m.put("mean", s.getMean());
+        m.put("p50", (double) s.getPercentile(50));
+        m.put("p90", (double) s.getPercentile(90));
+        m.put("p99", (double) s.getPercentile(99));
+        m.put("p99.9", (double) s.getPercentile(99.9));
+        m.put("max", (double) s.getMax());
+        return m;
+    }
+}
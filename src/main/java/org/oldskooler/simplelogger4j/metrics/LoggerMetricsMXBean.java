@@ -0,0 +1,30 @@
+package org.oldskooler.simplelogger4j.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link LoggerMetrics}, registered as {@value LoggerMetrics#OBJECT_NAME}.
+ * Latencies are in nanoseconds, as {@code count}, {@code mean}, {@code p50}, {@code p90},
+ * {@code p99}, {@code p99.9} and {@code max}.
+ */
+public interface LoggerMetricsMXBean {
+    long getQueueDepth();
+
+    long getQueueHighWaterMark();
+
+    long getQueueCapacity();
+
+    long getEventsWritten();
+
+    double getWriterEventsPerSecond();
+
+    /** Events logged per level, whether or not they were queued. */
+    Map<String, Long> getLevelCounts();
+
+    Map<String, Double> getEnqueueLatencyNanos();
+
+    Map<String, Double> getEndToEndLatencyNanos();
+
+    /** Per appender: {@code <name>.events}, {@code .bytes} (-1 if the appender cannot tell), {@code .errors}, {@code .writeP99Nanos} and {@code .flushP99Nanos}. */
+    Map<String, Long> getAppenderStats();
+}
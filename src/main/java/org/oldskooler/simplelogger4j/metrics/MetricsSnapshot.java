@@ -0,0 +1,94 @@
+package org.oldskooler.simplelogger4j.metrics;
+
+import org.oldskooler.simplelogger4j.LogLevel;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/** {@link LoggerMetrics} at one moment. Latencies are in nanoseconds. */
+public final class MetricsSnapshot {
+    private final long queueDepth;
+    private final long queueHighWaterMark;
+    private final long queueCapacity;
+    private final long eventsWritten;
+    private final double writerEventsPerSecond;
+    private final Map<LogLevel, Long> levelCounts;
+    private final LogHistogram.Snapshot enqueueNanos;
+    private final LogHistogram.Snapshot endToEndNanos;
+    private final List<AppenderMetrics.Snapshot> appenders;
+
+    MetricsSnapshot(long queueDepth, long queueHighWaterMark, long queueCapacity, long eventsWritten, double writerEventsPerSecond,
+                    Map<LogLevel, Long> levelCounts, LogHistogram.Snapshot enqueueNanos, LogHistogram.Snapshot endToEndNanos,
+                    List<AppenderMetrics.Snapshot> appenders) {
+        this.queueDepth = queueDepth;
+        this.queueHighWaterMark = queueHighWaterMark;
+        this.queueCapacity = queueCapacity;
+        this.eventsWritten = eventsWritten;
+        this.writerEventsPerSecond = writerEventsPerSecond;
+        this.levelCounts = Collections.unmodifiableMap(levelCounts);
+        this.enqueueNanos = enqueueNanos;
+        this.endToEndNanos = endToEndNanos;
+        this.appenders = Collections.unmodifiableList(appenders);
+    }
+
+    public long getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getQueueHighWaterMark() {
+        return queueHighWaterMark;
+    }
+
+    public long getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getEventsWritten() {
+        return eventsWritten;
+    }
+
+    public double getWriterEventsPerSecond() {
+        return writerEventsPerSecond;
+    }
+
+    /** Events logged per level, whether or not they were queued. */
+    public Map<LogLevel, Long> getLevelCounts() {
+        return levelCounts;
+    }
+
+    /** Time logging calls took to queue an event (including any overflow wait). */
+    public LogHistogram.Snapshot getEnqueueNanos() {
+        return enqueueNanos;
+    }
+
+    /** Time from the logging call until the writer had written the event to every appender (handed it to the merge stage, with merged shards). */
+    public LogHistogram.Snapshot getEndToEndNanos() {
+        return endToEndNanos;
+    }
+
+    public List<AppenderMetrics.Snapshot> getAppenders() {
+        return appenders;
+    }
+
+    /** The appender called {@code name}, e.g. {@code file} or {@code file-0} with shards; null if there is none. */
+    public AppenderMetrics.Snapshot getAppender(String name) {
+        for(AppenderMetrics.Snapshot a : appenders) {
+            if(a.getName().equals(name)) return a;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("queue: depth=").append(queueDepth).append(" high-water=").append(queueHighWaterMark)
+                .append(" capacity=").append(queueCapacity).append('\n');
+        sb.append("written: ").append(eventsWritten).append(String.format(" (%.0f/s)", writerEventsPerSecond)).append('\n');
+        sb.append("levels: ").append(levelCounts).append('\n');
+        sb.append("enqueue ns: ").append(enqueueNanos).append('\n');
+        sb.append("end-to-end ns: ").append(endToEndNanos);
+        for(AppenderMetrics.Snapshot a : appenders) sb.append('\n').append(a);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,205 @@
+package org.oldskooler.simplelogger4j.queue;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sequencing shared by the ring buffers: bounded, lock-free claim for many producers and in-order
+ * consumption for a single consumer.
+ * <p>
+ * Producers claim a position by CAS on the tail counter, fill the slot, then publish it by
+ * advancing that slot's sequence. The consumer takes slots in order and hands each one back to
+ * producers by moving its sequence a full lap ahead. Head and tail sit on their own cache lines.
+ * Capacity is rounded up to a power of two.
+ * <p>
+ * The consumer parks while the ring is empty, for as long as its timeout, and producers only pay
+ * for an unpark when it is actually waiting. Producers waiting for space queue up and park; each
+ * slot handed back wakes one of them, so thousands of waiting threads cost next to nothing until
+ * there is room. Slots are handed back with a lazy store, so a waiting producer also checks again
+ * every {@value #PRODUCER_PARK_MILLIS} ms in case it missed its wake-up. Waits use
+ * {@link LockSupport} only, which does not pin virtual threads to their carrier.
+ */
+abstract class AbstractRingBuffer<E> implements LogQueue<E> {
+    static final int SPINS = 64;
+    static final long PRODUCER_PARK_MILLIS = 1;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AbstractRingBuffer, Thread> WAITER =
+            AtomicReferenceFieldUpdater.newUpdater(AbstractRingBuffer.class, Thread.class, "waitingConsumer");
+
+    final int capacity;
+    final int mask;
+    private final AtomicLongArray sequences;
+    private final PaddedAtomicLong tail = new PaddedAtomicLong(0);
+    private final PaddedAtomicLong head = new PaddedAtomicLong(0);
+    private volatile Thread waitingConsumer;
+    /** Producers waiting for space, oldest first; entries that gave up stay until the consumer skips them. */
+    private final ConcurrentLinkedQueue<Waiter> waitingProducers = new ConcurrentLinkedQueue<>();
+    /** Number of waiters in {@link #waitingProducers} that still want waking. */
+    private final AtomicInteger producersWaiting = new AtomicInteger();
+
+    private static final class Waiter {
+        private static final AtomicIntegerFieldUpdater<Waiter> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Waiter.class, "state");
+        static final int WAITING = 0, WOKEN = 1, GONE = 2;
+
+        final Thread thread = Thread.currentThread();
+        volatile int state;
+
+        boolean leave(int newState) {
+            return STATE.compareAndSet(this, WAITING, newState);
+        }
+    }
+
+    AbstractRingBuffer(int requestedCapacity) {
+        int cap = 1;
+        while (cap < Math.max(2, requestedCapacity)) cap <<= 1;
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.sequences = new AtomicLongArray(cap);
+        for (int i = 0; i < cap; i++) sequences.set(i, i);
+    }
+
+    /** @return the claimed position, or -1 if the ring is full */
+    final long claimPosition() {
+        long pos = tail.get();
+        for (;;) {
+            long dif = sequences.get((int) (pos & mask)) - pos;
+            if (dif == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) return pos;
+                pos = tail.get();
+            } else if (dif < 0) {
+                return -1; // slot still holds an element from the previous lap: full
+            } else {
+                pos = tail.get(); // another producer got here first
+            }
+        }
+    }
+
+    final void publishPosition(long pos) {
+        sequences.set((int) (pos & mask), pos + 1);
+
+        // Only the first producer to see a parked consumer pays for the unpark
+        Thread waiter = waitingConsumer;
+        if (waiter != null && WAITER.compareAndSet(this, waiter, null)) LockSupport.unpark(waiter);
+    }
+
+    /**
+     * Like {@link #claimPosition()}, but waits for a free position: yields a few times, then queues
+     * up and parks until a slot is handed back.
+     * @param timeoutNanos how long to wait; negative to wait until there is space
+     * @return the claimed position, or -1 if the ring was still full when the time ran out
+     */
+    final long claimPosition(long timeoutNanos) throws InterruptedException {
+        long pos = claimPosition();
+        if (pos >= 0) return pos;
+        long deadline = System.nanoTime() + timeoutNanos;
+        for (int i = 0; i < SPINS; i++) {
+            Thread.yield();
+            if ((pos = claimPosition()) >= 0) return pos;
+            if (timeoutNanos >= 0 && deadline - System.nanoTime() <= 0) return -1;
+        }
+        Waiter w = null;
+        try {
+            for (;;) {
+                if (w == null || w.state != Waiter.WAITING) {
+                    w = new Waiter();
+                    producersWaiting.incrementAndGet();
+                    waitingProducers.add(w);
+                }
+                if ((pos = claimPosition()) >= 0) return pos;
+                if (Thread.interrupted()) throw new InterruptedException();
+                long park = TimeUnit.MILLISECONDS.toNanos(PRODUCER_PARK_MILLIS);
+                if (timeoutNanos >= 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) return -1;
+                    park = Math.min(park, remaining);
+                }
+                // Bounded, in case a wake-up raced with queuing up or went to a producer that had just left
+                LockSupport.parkNanos(this, park);
+            }
+        } finally {
+            if (w != null && w.leave(Waiter.GONE)) producersWaiting.decrementAndGet();
+        }
+    }
+
+    /** Wakes the longest-waiting producer, if any, after a slot has been handed back. */
+    private void wakeProducer() {
+        Waiter w;
+        while ((w = waitingProducers.poll()) != null) {
+            if (w.leave(Waiter.WOKEN)) {
+                producersWaiting.decrementAndGet();
+                LockSupport.unpark(w.thread);
+                return;
+            }
+        }
+    }
+
+    /** Consumer only. @return the next published position, or -1 if there is none yet */
+    final long consumePosition() {
+        long pos = head.get();
+        if (sequences.get((int) (pos & mask)) != pos + 1) return -1;
+        head.lazySet(pos + 1);
+        return pos;
+    }
+
+    /**
+     * Like {@link #consumePosition()}, but safe to call from any thread: the head moves by CAS, so a
+     * producer can take the oldest element away from the consumer. Queues that use this must not
+     * mix it with {@code consumePosition}.
+     */
+    final long takePosition() {
+        for (;;) {
+            long pos = head.get();
+            if (sequences.get((int) (pos & mask)) != pos + 1) return -1;
+            if (head.compareAndSet(pos, pos + 1)) return pos;
+        }
+    }
+
+    /** Hands a consumed position back to producers. */
+    final void freePosition(long pos) {
+        sequences.lazySet((int) (pos & mask), pos + capacity);
+        if (producersWaiting.get() > 0) wakeProducer();
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        if (e != null) return e;
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int i = 0; i < SPINS; i++) {
+            if ((e = poll()) != null) return e;
+        }
+        Thread current = Thread.currentThread();
+        try {
+            for (;;) {
+                waitingConsumer = current;
+                if ((e = poll()) != null) return e;
+                if (Thread.interrupted()) throw new InterruptedException();
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return null;
+                // Publishing stores the sequence, then reads waitingConsumer: no wake-up can be missed
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+
+    @Override
+    public int size() {
+        long h = head.get();
+        long t = tail.get();
+        return (int) Math.max(0, Math.min(capacity, t - h));
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+}
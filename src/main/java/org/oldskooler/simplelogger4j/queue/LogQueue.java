@@ -0,0 +1,80 @@
+package org.oldskooler.simplelogger4j.queue;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded hand-off between logging threads and the writer.
+ * Any number of threads may offer; only the writer thread polls.
+ */
+public interface LogQueue<E> {
+    /** @return false if the queue is full */
+    boolean offer(E e);
+
+    /** Waits for space if the queue is full. */
+    void put(E e) throws InterruptedException;
+
+    /**
+     * Waits up to {@code timeout} for space: yields for a while, then parks in short steps.
+     * @return false if the queue was still full when the time ran out
+     */
+    default boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        if (offer(e)) return true;
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int spins = 0; ; spins++) {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (System.nanoTime() - deadline >= 0) return false;
+            if (spins < 64) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, 50_000);
+            }
+            if (offer(e)) return true;
+        }
+    }
+
+    /**
+     * Removes the oldest element to make room for a new one; may be called by producers.
+     * @return the removed element, or null if there is none or the queue cannot evict
+     */
+    default E pollOldest() {
+        return null;
+    }
+
+    /** @return the next element, or null if the queue is empty */
+    E poll();
+
+    /** @return the next element, or null if none arrived before the timeout */
+    E poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Moves up to {@code max} available elements into {@code c}, without waiting.
+     * Each one must still be {@link #release(Object) released}.
+     * @return the number of elements added
+     */
+    default int drainTo(Collection<? super E> c, int max) {
+        int n = 0;
+        E e;
+        while (n < max && (e = poll()) != null) {
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Called by the consumer once it has finished with an element returned by {@code poll},
+     * in poll order. Only queues that recycle their elements need to do anything here.
+     */
+    default void release(E e) {
+    }
+
+    int size();
+
+    int capacity();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,65 @@
+package org.oldskooler.simplelogger4j.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free, bounded multi-producer/single-consumer ring buffer of element references.
+ * See {@link AbstractRingBuffer} for how slots are claimed and published. The consumer takes the head
+ * by CAS rather than a plain store, so producers can evict the oldest element when the ring is full.
+ */
+public class MpscRingBuffer<E> extends AbstractRingBuffer<E> {
+    private final AtomicReferenceArray<E> buffer;
+
+    public MpscRingBuffer(int requestedCapacity) {
+        super(requestedCapacity);
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) throw new NullPointerException();
+        long pos = claimPosition();
+        if (pos < 0) return false;
+        buffer.lazySet((int) (pos & mask), e);
+        publishPosition(pos);
+        return true;
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        return offerWithin(e, Math.max(0, unit.toNanos(timeout)));
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        offerWithin(e, -1);
+    }
+
+    private boolean offerWithin(E e, long timeoutNanos) throws InterruptedException {
+        if (e == null) throw new NullPointerException();
+        long pos = claimPosition(timeoutNanos);
+        if (pos < 0) return false;
+        buffer.lazySet((int) (pos & mask), e);
+        publishPosition(pos);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long pos = takePosition();
+        if (pos < 0) return null;
+
+        int idx = (int) (pos & mask);
+        E e = buffer.get(idx);
+        buffer.lazySet(idx, null);
+        freePosition(pos);
+        return e;
+    }
+
+    /** Any thread may evict: the head is claimed by CAS, the same way {@link #poll()} takes it. */
+    @Override
+    public E pollOldest() {
+        return poll();
+    }
+}
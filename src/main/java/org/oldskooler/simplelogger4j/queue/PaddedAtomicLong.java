@@ -0,0 +1,15 @@
+package org.oldskooler.simplelogger4j.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** An AtomicLong padded out to its own cache line, so hot counters don't false-share. */
+class PaddedAtomicLong extends AtomicLong {
+    private static final long serialVersionUID = 1L;
+
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7 = 7L;
+
+    PaddedAtomicLong(long initialValue) {
+        super(initialValue);
+    }
+}
@@ -0,0 +1,25 @@
+package org.oldskooler.simplelogger4j.queue;
+
+import java.util.Locale;
+import java.util.Objects;
+
+public enum QueueType {
+    /** Lock-free multi-producer/single-consumer ring buffer. */
+    MPSC,
+    /** {@link java.util.concurrent.ArrayBlockingQueue}, one lock shared by all producers. */
+    BLOCKING;
+
+    public <E> LogQueue<E> create(int capacity) {
+        switch (this) {
+            case BLOCKING:
+                return new BlockingLogQueue<>(capacity);
+            case MPSC:
+            default:
+                return new MpscRingBuffer<>(capacity);
+        }
+    }
+
+    public static QueueType parse(String s) {
+        return QueueType.valueOf(Objects.requireNonNull(s).trim().toUpperCase(Locale.ROOT));
+    }
+}
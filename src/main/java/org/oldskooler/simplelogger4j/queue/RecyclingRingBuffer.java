@@ -0,0 +1,94 @@
+package org.oldskooler.simplelogger4j.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Ring buffer of preallocated, mutable slots that are reused instead of allocated per element.
+ * <p>
+ * Producers {@link #claim()} a position, fill {@link #slot(long)} in place and {@link #publish(long)} it.
+ * The consumer gets slots back from {@link #poll()} and must {@link #release(Object)} each one, in the
+ * same order, once it is done with it; only then can producers overwrite it.
+ * {@link #offer(Object)} copies an existing element into a slot for callers that already have one.
+ */
+public class RecyclingRingBuffer<E> extends AbstractRingBuffer<E> {
+    private final Object[] slots;
+    private final BiConsumer<E, E> copier;
+    private final Consumer<E> recycler;
+    /** Consumer-local: next polled position that has not been released yet. */
+    private long releaseCursor;
+
+    /**
+     * @param factory  creates each slot once, up front
+     * @param copier   copies an offered element (first arg) into a slot (second arg)
+     * @param recycler clears a slot on release, e.g. to drop references
+     */
+    public RecyclingRingBuffer(int requestedCapacity, Supplier<E> factory, BiConsumer<E, E> copier, Consumer<E> recycler) {
+        super(requestedCapacity);
+        this.copier = copier;
+        this.recycler = recycler;
+        this.slots = new Object[capacity];
+        for (int i = 0; i < capacity; i++) slots[i] = factory.get();
+    }
+
+    /** @return a position to fill and publish, or -1 if the ring is full */
+    public long claim() {
+        return claimPosition();
+    }
+
+    /**
+     * Like {@link #claim()}, but waits up to {@code timeout} for a free slot.
+     * @return a position to fill and publish, or -1 if the ring stayed full
+     */
+    public long claim(long timeout, TimeUnit unit) throws InterruptedException {
+        return claimPosition(Math.max(0, unit.toNanos(timeout)));
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        long pos = claimPosition(-1);
+        try {
+            copier.accept(e, slot(pos));
+        } finally {
+            publishPosition(pos);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E slot(long position) {
+        return (E) slots[(int) (position & mask)];
+    }
+
+    /** Makes a claimed slot visible to the consumer. Must be called for every successful claim. */
+    public void publish(long position) {
+        publishPosition(position);
+    }
+
+    @Override
+    public boolean offer(E e) {
+        long pos = claimPosition();
+        if (pos < 0) return false;
+        try {
+            copier.accept(e, slot(pos));
+        } finally {
+            publishPosition(pos);
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long pos = consumePosition();
+        return pos < 0 ? null : (E) slots[(int) (pos & mask)];
+    }
+
+    @Override
+    public void release(E e) {
+        long pos = releaseCursor++;
+        recycler.accept(slot(pos));
+        freePosition(pos);
+    }
+}
@@ -0,0 +1,18 @@
+package org.oldskooler.simplelogger4j;
+
+/**
+ * Thread queries that differ between Java versions: the Java 21 version, loaded from
+ * {@code META-INF/versions/21} of the multi-release jar.
+ */
+final class Threads {
+    private Threads() {
+    }
+
+    static boolean isVirtual(Thread t) {
+        return t.isVirtual();
+    }
+
+    static long id(Thread t) {
+        return t.threadId();
+    }
+}
@@ -0,0 +1,60 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.ansi.AnsiStripper;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+
+/**
+ * Compares both forms of {@link AnsiStripper#strip} with the regular expression they replaced,
+ * on complete SGR sequences and on the malformed or foreign ones that must be left alone.
+ */
+public class AnsiStripping {
+    private static final String SGR = "\u001B\\[[;\\d]*m";
+    private static final String E = "\u001B";
+
+    public static void main(String[] args) {
+        String[] cases = {
+                "",
+                "plain text",
+                E + "[31mred" + E + "[0m",
+                E + "[1;31;40mbold red on black" + E + "[m",
+                E,
+                E + "lone escape",
+                "ends with escape" + E,
+                "ends with " + E + "[",
+                E + "[31 no closing m",
+                "cut off " + E + "[1;",
+                E + "[1;3",
+                E + "[2J cleared screen",
+                E + "[0K" + E + "[31mred" + E + "[0m",
+                E + "[31m" + E + "[1m" + E + "[4mback to back" + E + "[0m" + E + "[0m",
+                E + "[" + E + "[0m",
+                E + E + "[0m" + E,
+                "[31m no escape",
+                E + "[;m" + E + "[m",
+                "caf\u00e9 " + E + "[32m\u00fcnicode\uD83D\uDE00" + E + "[0m",
+        };
+        for (String s : cases) {
+            String expected = s.replaceAll(SGR, "");
+            check(AnsiStripper.strip(s).equals(expected), "strip(String) of " + visible(s));
+            for (int from = 0; from <= s.length(); from++) {
+                StringBuilder sb = new StringBuilder(s);
+                AnsiStripper.strip(sb, from);
+                String fromExpected = s.substring(0, from) + s.substring(from).replaceAll(SGR, "");
+                check(sb.toString().equals(fromExpected), "strip(StringBuilder, " + from + ") of " + visible(s));
+            }
+        }
+
+        String plain = "nothing to strip";
+        check(AnsiStripper.strip(plain) == plain, "text without ESC is returned as it is");
+        StringBuilder prefixed = new StringBuilder(E + "[31mkept" + E + "[0m " + E + "[32mstripped" + E + "[0m");
+        AnsiStripper.strip(prefixed, 14);
+        check(prefixed.toString().equals(E + "[31mkept" + E + "[0m stripped"), "sequences before from are kept");
+
+        System.out.println("AnsiStripping OK");
+    }
+
+    private static String visible(String s) {
+        return '"' + s.replace(E, "ESC") + '"';
+    }
+}
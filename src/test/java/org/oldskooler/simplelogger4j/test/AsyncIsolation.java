@@ -0,0 +1,140 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.OverflowPolicy;
+import org.oldskooler.simplelogger4j.SimpleLog;
+import org.oldskooler.simplelogger4j.appenders.Appender;
+import org.oldskooler.simplelogger4j.appenders.AsyncAppender;
+import org.oldskooler.simplelogger4j.appenders.AsyncSettings;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.channelFile;
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.childJvm;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * AsyncAppender in front of a deliberately slow appender with each buffer policy, keeping each
+ * stack trace with its line even when the oldest entries are evicted, then a child JVM
+ * whose stdout is a pipe nobody reads: with the console appender async, the file still gets every event.
+ */
+public class AsyncIsolation {
+    private static final int LINES = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("child")) {
+            child(args[1], new File(args[2]));
+            return;
+        }
+        for (OverflowPolicy policy : new OverflowPolicy[]{OverflowPolicy.DROP, OverflowPolicy.BLOCK, OverflowPolicy.DROP_OLDEST}) {
+            SlowAppender slow = new SlowAppender(20_000);
+            AsyncAppender a = new AsyncAppender(slow, new AsyncSettings(256, policy, 60_000), "slow");
+            long t0 = System.nanoTime();
+            for (int i = 0; i < LINES; i++) {
+                if (i % 1000 == 0) {
+                    a.println("line " + i, new RuntimeException("trace " + i), null);
+                } else {
+                    a.println("line " + i);
+                }
+            }
+            long t1 = System.nanoTime();
+            int maxDepth = a.getMaxQueueDepth();
+            a.close();
+            check(a.getLag() == 0, policy + ": lag after close " + a.getLag());
+            check(a.getWrittenCount() + a.getDroppedCount() == LINES, policy + ": written + dropped");
+            check(slow.lines.size() == a.getWrittenCount() && slow.closed, policy + ": delegate got every written line and was closed");
+            check(slow.lines.get(slow.lines.size() - 1).equals("line " + (LINES - 1)) || policy == OverflowPolicy.DROP, policy + ": newest line kept");
+            if (policy == OverflowPolicy.BLOCK) check(a.getDroppedCount() == 0, "BLOCK loses nothing");
+            check(isOrdered(slow.lines), policy + ": order kept");
+            long withTrace = slow.lines.stream().filter(l -> Integer.parseInt(l.substring(5)) % 1000 == 0).count();
+            check(slow.traces.size() == withTrace, policy + ": " + slow.traces.size() + " traces for " + withTrace + " lines");
+            for (String t : slow.traces) {
+                String[] lineAndTrace = t.split(" / ");
+                check(lineAndTrace[1].equals("trace " + lineAndTrace[0].substring(5)), policy + ": trace under its own line: " + t);
+            }
+            System.out.printf("%-12s writer spent %6.1f ms for %d lines; written %5d, dropped %5d, max depth %d%n",
+                    policy, (t1 - t0) / 1e6, LINES, a.getWrittenCount(), a.getDroppedCount(), maxDepth);
+        }
+
+        // Nobody reads the child's stdout: the console blocks once the pipe is full
+        File dir = tempDir("sl4j-async");
+        File log = new File(dir, "out.log");
+        File stats = new File(dir, "stats.txt");
+        File xml = write(new File(dir, "cfg.xml"), "<config><pattern>%{message}</pattern><consoleColour>false</consoleColour><overflow policy=\"BLOCK\" timeoutMs=\"60000\"/>"
+                + "<appenders><console async=\"true\" asyncQueueSize=\"1024\" asyncOverflow=\"DROP\"/>" + channelFile(log)
+                + "</appenders></config>");
+        Process p = childJvm(AsyncIsolation.class, xml.getAbsolutePath(), stats.getAbsolutePath())
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        check(p.waitFor() == 0, "child exit code");
+        List<String> lines = Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+        String childStats = new String(Files.readAllBytes(stats.toPath()), StandardCharsets.UTF_8).trim();
+        System.out.println("stdout never read: " + childStats + "; file has " + lines.size() + " lines");
+        check(lines.size() == 100_000, "file appender unaffected by the blocked console");
+        p.getInputStream().close();
+        deleteDir(dir);
+        System.out.println("AsyncIsolation OK");
+    }
+
+    private static void child(String xml, File stats) throws Exception {
+        SimpleLog log = SimpleLog.fromXml(xml, "async");
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 100_000; i++) log.info("event {}", i);
+        long millis = (System.nanoTime() - t0) / 1_000_000;
+        // The writer is not held up by the console, so the queue drains quickly; exiting runs the bus shutdown
+        Thread.sleep(500);
+        AsyncAppender console = (AsyncAppender) log.getAppenders().get(0);
+        Files.write(stats.toPath(), ("logged 100000 in " + millis + " ms, console wrote " + console.getWrittenCount()
+                + " and dropped " + console.getDroppedCount() + ", bus dropped " + log.getTotalDroppedCount()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isOrdered(List<String> lines) {
+        int last = -1;
+        for (String l : lines) {
+            int i = Integer.parseInt(l.substring(5));
+            if (i <= last) return false;
+            last = i;
+        }
+        return true;
+    }
+
+    /** Takes about {@code nanosPerLine} per line, like a console piped into a slow reader. */
+    private static final class SlowAppender implements Appender {
+        final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        /** Each stack trace as "the line before it / its message". */
+        final List<String> traces = Collections.synchronizedList(new ArrayList<>());
+        final long nanosPerLine;
+        volatile boolean closed;
+
+        SlowAppender(long nanosPerLine) {
+            this.nanosPerLine = nanosPerLine;
+        }
+
+        @Override
+        public void println(String line) {
+            LockSupport.parkNanos(nanosPerLine);
+            lines.add(line);
+        }
+
+        @Override
+        public void printStackTrace(Throwable t) {
+            traces.add(lines.get(lines.size() - 1) + " / " + t.getMessage());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
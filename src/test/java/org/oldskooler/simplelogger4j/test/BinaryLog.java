@@ -0,0 +1,210 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.CompiledPattern;
+import org.oldskooler.simplelogger4j.ImmutableArg;
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.LogLevel;
+import org.oldskooler.simplelogger4j.PrintJob;
+import org.oldskooler.simplelogger4j.SimpleLog;
+import org.oldskooler.simplelogger4j.binary.BinaryAppender;
+import org.oldskooler.simplelogger4j.binary.BinaryLogDecoder;
+import org.oldskooler.simplelogger4j.binary.BinaryLogEvent;
+import org.oldskooler.simplelogger4j.binary.BinaryLogReader;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * The binary appender and its decoder: a file written next to a text file and decoded with the
+ * same pattern must match it exactly; sections appended after a restart, an overflowing
+ * dictionary and a truncated tail must read back; shard files decode merged in sequence order.
+ * Last, the writer's throughput with only a text file and with only a binary file.
+ */
+public class BinaryLog {
+    private static final String PATTERN = "%{timestamp} [%{level:LEVEL}] [%{thread}] %{name} #%{sequence} %{message}";
+    private static final String TIME_FORMAT = "yyyy-MM-dd HH:mm:ss.SSS";
+    private static final int THREADS = 3;
+    private static final int PER_THREAD = 20_000;
+    private static final int SPEED_EVENTS = 500_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("child")) {
+            child(args[1], args[2]);
+            return;
+        }
+        File dir = tempDir("sl4j-binary");
+        CompiledPattern plan = CompiledPattern.compile(PATTERN, DateTimeFormatter.ofPattern(TIME_FORMAT), null);
+        appenderApi(dir, plan);
+
+        // Same events to a text file and a binary file, then decoded with the text file's pattern
+        File text = new File(dir, "events.log");
+        File binary = new File(dir, "events.sl4j");
+        run(dir, "mixed", "<file type=\"channel\" append=\"false\" path=\"" + text.getAbsolutePath() + "\"/>"
+                + "<binary append=\"false\" path=\"" + binary.getAbsolutePath() + "\"/>", "");
+        StringBuilder decoded = new StringBuilder();
+        long n = BinaryLogDecoder.decode(Collections.singletonList(binary), plan, false, decoded);
+        String expected = new String(Files.readAllBytes(text.toPath()), StandardCharsets.UTF_8);
+        check(decoded.toString().equals(expected), "decoded text differs from the text file:\n" + firstDifference(expected, decoded.toString()));
+        System.out.printf("mixed: %d events, text %d bytes, binary %d bytes (%.1fx smaller)%n",
+                n, text.length(), binary.length(), (double) text.length() / binary.length());
+        int templated = 0;
+        try (BinaryLogReader r = new BinaryLogReader(binary)) {
+            for (BinaryLogEvent e; (e = r.next()) != null; ) if (e.getTemplate() != null) templated++;
+        }
+        check(templated > 0, "templates kept separate");
+
+        // Two shards, binary only: the decoder merges the shard files back into sequence order
+        String shardPath = new File(dir, "shards.sl4j").getAbsolutePath();
+        run(dir, "threads", "<file enabled=\"false\"/><binary append=\"false\" path=\"" + shardPath + "\"/>", "<shards count=\"2\" partition=\"THREAD\"/>");
+        List<File> shards = Arrays.asList(new File(LogConfig.shardPath(shardPath, 0)), new File(LogConfig.shardPath(shardPath, 1)));
+        StringBuilder merged = new StringBuilder();
+        CompiledPattern seq = CompiledPattern.compile("%{sequence} %{thread} %{message}", DateTimeFormatter.ofPattern(TIME_FORMAT), null);
+        check(BinaryLogDecoder.decode(shards, seq, false, merged) == THREADS * PER_THREAD, "shard event count");
+        long lastSeq = -1;
+        int[] next = new int[THREADS];
+        for (String line : merged.toString().split(System.lineSeparator())) {
+            String[] p = line.split(" ");
+            long s = Long.parseLong(p[0]);
+            check(s > lastSeq, "merged out of sequence order at " + line);
+            lastSeq = s;
+            int t = Integer.parseInt(p[1].substring("producer-".length()));
+            check(p[3].equals(Integer.toString(next[t]++)), "producer " + t + " out of order at " + line);
+        }
+
+        // Writer throughput, text file only against binary file only
+        for (String kind : new String[]{"text", "binary"}) {
+            String appender = kind.equals("text")
+                    ? "<file type=\"channel\" append=\"false\" bufferSize=\"65536\" path=\"" + new File(dir, "speed.log").getAbsolutePath() + "\"/>"
+                    : "<file enabled=\"false\"/><binary append=\"false\" path=\"" + new File(dir, "speed.sl4j").getAbsolutePath() + "\"/>";
+            System.out.println(kind + ": " + run(dir, "speed", appender, ""));
+        }
+        System.out.printf("speed files: text %d bytes, binary %d bytes%n", new File(dir, "speed.log").length(), new File(dir, "speed.sl4j").length());
+
+        deleteDir(dir);
+        System.out.println("BinaryLog OK");
+    }
+
+    /** Appending after a restart, a dictionary of one entry, and a file cut off mid-record. */
+    private static void appenderApi(File dir, CompiledPattern plan) throws Exception {
+        File f = new File(dir, "api.sl4j");
+        List<String> lines = new ArrayList<>();
+        long seq = 100;
+        for (int section = 0; section < 2; section++) {
+            BinaryAppender a = new BinaryAppender(f, section > 0, 4096, 1);
+            for (int i = 0; i < 200; i++) {
+                PrintJob j = new PrintJob("api." + (i % 3), seq, LogLevel.values()[i % LogLevel.values().length],
+                        "message " + i + " ünïcödé 😀", "thread-" + (i % 2), 1_700_000_000_000L + i * 7 - (i % 5) * 13, null, false);
+                seq += i % 4 == 0 ? 5 : 1;
+                check(a.append(j) > 0, "bytes counted");
+                lines.add(plan.renderPlain(j));
+            }
+            a.close();
+        }
+        List<String> read = new ArrayList<>();
+        try (BinaryLogReader r = new BinaryLogReader(f)) {
+            for (BinaryLogEvent e; (e = r.next()) != null; ) read.add(plan.renderPlain(e.toPrintJob()));
+        }
+        check(read.equals(lines), "appended sections read back");
+
+        File cut = new File(dir, "cut.sl4j");
+        byte[] bytes = Files.readAllBytes(f.toPath());
+        Files.write(cut.toPath(), Arrays.copyOf(bytes, bytes.length - 5));
+        int count = 0;
+        try (BinaryLogReader r = new BinaryLogReader(cut)) {
+            while (r.next() != null) count++;
+        }
+        check(count == lines.size() - 1, "truncated file: " + count + " events");
+
+        // Lines given to the text methods come back as plain events after the one before them
+        File textCalls = new File(dir, "text.sl4j");
+        BinaryAppender a = new BinaryAppender(textCalls, false, 4096, 8);
+        a.append(new PrintJob("api", 7, LogLevel.WARN, "before", "main", 1_700_000_000_000L, null, false));
+        a.println("a line");
+        a.printStackTrace(new IllegalStateException("boom"));
+        a.close();
+        List<BinaryLogEvent> events = new ArrayList<>();
+        try (BinaryLogReader r = new BinaryLogReader(textCalls)) {
+            for (BinaryLogEvent e; (e = r.next()) != null; ) events.add(e);
+        }
+        check(events.size() == 3, "text calls: " + events.size() + " events");
+        check("a line".equals(events.get(1).getMessage()) && events.get(1).getSequence() == 7, "println record");
+        check(events.get(2).getStackTrace().startsWith("java.lang.IllegalStateException: boom\n"), "printStackTrace record");
+        StringBuilder out = new StringBuilder();
+        check(BinaryLogDecoder.decode(Collections.singletonList(textCalls), plan, false, out) == 3, "text calls decode");
+    }
+
+    private static String run(File dir, String mode, String appenders, String extra) throws Exception {
+        File xml = write(new File(dir, mode + ".xml"), config("<pattern>" + PATTERN + "</pattern><timeFormat>" + TIME_FORMAT + "</timeFormat>"
+                + "<minLevel>DEBUG</minLevel><queueSize>8192</queueSize><overflow policy=\"BLOCK\" timeoutMs=\"600000\"/>"
+                + "<metrics enabled=\"true\" jmx=\"false\"/>" + extra, appenders));
+        return String.join("", runChild(BinaryLog.class, mode, xml.getAbsolutePath()));
+    }
+
+    /** Logs, then exits; the bus shutdown hook writes out what is queued. */
+    private static void child(String mode, String xml) throws Exception {
+        SimpleLog log = SimpleLog.fromXml(xml, "binary.test");
+        if (mode.equals("mixed")) {
+            SimpleLog other = SimpleLog.fromXml(xml, "other.component");
+            StringBuilder mutable = new StringBuilder("builder");
+            for (int i = 0; i < 500; i++) {
+                log.info("ints {} {} longs {} doubles {} floats {}", i, -i, (long) i << 40, i / 3.0, i / 7f);
+                log.debug("bools {} {} chars {} nulls {} text {}", true, i % 2 == 0, 'x', null, "ünïcödé 😀");
+                other.warn("objects {} {} {} immutable {}", mutable, Arrays.asList(i, i + 1), LogLevel.ERROR, ImmutableArg.of(i));
+                other.success("too few {} {}", i);
+                other.info("too many {}", i, i + 1);
+                log.info("plain message " + i);
+                log.critical("{}", "only an argument");
+                if (i % 50 == 0) log.error("failed {}", new IllegalStateException("outer", new RuntimeException("cause " + i)), i);
+                if (i % 100 == 0) log.warn("no args", new IllegalArgumentException("bad"));
+            }
+            return;
+        }
+        if (mode.equals("threads")) {
+            Thread[] producers = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                producers[t] = new Thread(() -> {
+                    for (int i = 0; i < PER_THREAD; i++) log.info("event {}", i);
+                }, "producer-" + t);
+                producers[t].start();
+            }
+            for (Thread t : producers) t.join();
+            return;
+        }
+        long t0 = System.nanoTime();
+        for (int i = 0; i < SPEED_EVENTS; i++) log.info("order {} for {} at {}", i, "customer", i * 1.5);
+        while (log.getMetrics().getEventsWritten() < SPEED_EVENTS) Thread.sleep(1);
+        long nanos = System.nanoTime() - t0;
+        long writerCpu = 0;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (Map.Entry<Thread, StackTraceElement[]> t : Thread.getAllStackTraces().entrySet()) {
+            if (t.getKey().getName().equals("Logger-Writer")) writerCpu = threads.getThreadCpuTime(t.getKey().getId());
+        }
+        System.out.printf("%d events written in %d ms (%.0f ns/event), writer thread CPU %.0f ns/event",
+                SPEED_EVENTS, nanos / 1_000_000, (double) nanos / SPEED_EVENTS, (double) writerCpu / SPEED_EVENTS);
+    }
+
+    private static String firstDifference(String a, String b) {
+        String[] x = a.split(System.lineSeparator(), -1);
+        String[] y = b.split(System.lineSeparator(), -1);
+        for (int i = 0; i < Math.min(x.length, y.length); i++) {
+            if (!x[i].equals(y[i])) return "line " + i + "\n  text:    " + x[i] + "\n  decoded: " + y[i];
+        }
+        return x.length + " lines against " + y.length;
+    }
+}
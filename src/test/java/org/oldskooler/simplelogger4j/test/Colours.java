@@ -14,7 +14,6 @@ public class Colours {
         // Fake PrintJob
         PrintJob j = new PrintJob(
                 "com.example.Demo",
-                "com.example",
                 42L,
                 LogLevel.INFO,
                 "Hello, World ttttttttttttttttttttttttttttttttt hfghtghfghhtr4 4 324324322132122222222!",
@@ -0,0 +1,93 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.ImmutableArg;
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.channelFile;
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * Messages are formatted on the writer thread: an argument changed after the call is logged as it
+ * is then by default, and as it was at the call with {@code <snapshotArgs>true</snapshotArgs>}.
+ * An {@link ImmutableArg} is never copied on the calling thread in either mode. The writer is held
+ * up by a gate argument until the argument has been changed, so the outcome does not depend on timing.
+ */
+public class DeferredFormatting {
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("child")) {
+            child(args[1]);
+            return;
+        }
+        File dir = tempDir("sl4j-deferred");
+
+        List<String> byReference = run(dir, "reference", "");
+        check(byReference.equals(Arrays.asList("gate writer", "mutable after", "immutable writer")),
+                "by reference: " + byReference);
+
+        List<String> snapshot = run(dir, "snapshot", "<snapshotArgs>true</snapshotArgs>");
+        check(snapshot.equals(Arrays.asList("gate writer", "mutable before", "immutable writer")),
+                "snapshot: " + snapshot);
+
+        deleteDir(dir);
+        System.out.println("DeferredFormatting OK");
+    }
+
+    private static List<String> run(File dir, String name, String settings) throws Exception {
+        File log = new File(dir, name + ".log");
+        File xml = write(new File(dir, name + ".xml"), config("<pattern>%{message}</pattern>" + settings, channelFile(log)));
+        runChild(DeferredFormatting.class, xml.getAbsolutePath());
+        return Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static void child(String xml) {
+        SimpleLog log = SimpleLog.fromXml(xml, "deferred");
+        Thread caller = Thread.currentThread();
+        CountDownLatch changed = new CountDownLatch(1);
+
+        log.info("gate {}", ImmutableArg.of(new Probe(caller, changed)));
+        StringBuilder mutable = new StringBuilder("before");
+        log.info("mutable {}", mutable);
+        log.info("immutable {}", ImmutableArg.of(new Probe(caller, null)));
+
+        mutable.setLength(0);
+        mutable.append("after");
+        changed.countDown();
+    }
+
+    /** Says which thread formatted it; a gate also keeps the writer waiting until it is opened. */
+    private static final class Probe {
+        private final Thread caller;
+        private final CountDownLatch gate;
+
+        Probe(Thread caller, CountDownLatch gate) {
+            this.caller = caller;
+            this.gate = gate;
+        }
+
+        @Override
+        public String toString() {
+            if (Thread.currentThread() == caller) return "caller";
+            if (gate != null) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "writer";
+        }
+    }
+}
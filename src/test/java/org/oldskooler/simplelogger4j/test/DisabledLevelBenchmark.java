@@ -0,0 +1,62 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+
+/**
+ * Cost of DEBUG calls while the minimum level is INFO, in time and bytes allocated per call.
+ */
+public class DisabledLevelBenchmark {
+    private static final int WARMUP = 5_000_000;
+    private static final int CALLS = 50_000_000;
+
+    interface Call {
+        void run(SimpleLog logger, int i);
+    }
+
+    public static void main(String[] args) throws Exception {
+        File dir = tempDir("simplelogger4j-disabled");
+        File xml = new File(dir, "disabled.xml");
+        try (PrintWriter w = new PrintWriter(xml, "UTF-8")) {
+            w.println("<config>");
+            w.println("    <minLevel>INFO</minLevel>");
+            w.println("    <appenders><console enabled=\"true\"/><file enabled=\"false\"/></appenders>");
+            w.println("</config>");
+        }
+        SimpleLog logger = SimpleLog.fromXml(xml.getPath(), "disabled");
+        Object user = "alice";
+
+        bench(logger, "debug(String)", (l, i) -> l.debug("constant message"));
+        bench(logger, "debug(String, Object...) x2", (l, i) -> l.debug("a={} b={}", new Object[]{user, i}));
+        bench(logger, "debug(String, Object, Object)", (l, i) -> l.debug("a={} b={}", user, user));
+        bench(logger, "debug(String, int)", (l, i) -> l.debug("i={}", i));
+        bench(logger, "debug(String, long)", (l, i) -> l.debug("i={}", (long) i * 1_000_003L));
+        bench(logger, "debug(Supplier)", (l, i) -> l.debug(() -> "i=" + i));
+        bench(logger, "isDebugEnabled() guard", (l, i) -> {
+            if (l.isDebugEnabled()) l.debug("i=" + i);
+        });
+        deleteDir(dir);
+    }
+
+    private static void bench(SimpleLog logger, String label, Call call) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP; i++) call.run(logger, i);
+
+        long bytes0 = threads.getThreadAllocatedBytes(tid);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) call.run(logger, i);
+        long t1 = System.nanoTime();
+        long bytes = threads.getThreadAllocatedBytes(tid) - bytes0;
+
+        System.out.printf("%-32s %6.2f ns/call  %6.2f bytes/call%n",
+                label, (t1 - t0) / (double) CALLS, bytes / (double) CALLS);
+    }
+}
@@ -0,0 +1,94 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.appenders.Appender;
+import org.oldskooler.simplelogger4j.appenders.FileAppenderType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+
+/**
+ * Writes the same lines and stack traces through each file appender type, checks the files are
+ * byte-for-byte identical, then compares throughput.
+ * Pass a directory as the first argument to benchmark somewhere other than the temp dir (e.g. a tmpfs).
+ */
+public class FileAppenderBenchmark {
+    private static final int WARMUP = 200_000;
+    private static final int LINES = 2_000_000;
+    private static final int TRACE_EVERY = 10_000;
+    private static final int FLUSH_EVERY = Integer.getInteger("flushEvery", 10);
+
+    public static void main(String[] args) throws Exception {
+        File dir = args.length > 0 ? new File(args[0]) : tempDir("sl4j-bench");
+        String[] lines = {
+                "[12:00:00.123] [INFO    ] (com.example.Demo) #42 Hello, World! The quick brown fox jumps over the lazy dog",
+                "[12:00:00.124] [WARN    ] (com.example.Demo) #43 Connection pool at 95% capacity, 19 of 20 in use",
+                "[12:00:00.125] [DEBUG   ] (com.example.Demo) #44 Grüße aus München — naïve café ✓ 日本語 😀",
+        };
+        Exception trace = new IllegalStateException("outer", new RuntimeException("inner"));
+        trace.addSuppressed(new IllegalArgumentException("suppressed"));
+
+        byte[] expected = null;
+        for (FileAppenderType type : FileAppenderType.values()) {
+            File f = new File(dir, "check-" + type.name().toLowerCase() + ".log");
+            try (Appender a = type.create(config(dir, f))) {
+                for (int i = 0; i < 10_000; i++) {
+                    a.println(lines[i % lines.length]);
+                    if (i % 1000 == 0) a.printStackTrace(trace);
+                }
+            }
+            byte[] bytes = Files.readAllBytes(f.toPath());
+            if (expected == null) {
+                expected = bytes;
+            } else if (!Arrays.equals(expected, bytes)) {
+                throw new AssertionError(type + " output differs from " + FileAppenderType.STREAM);
+            }
+            f.delete();
+        }
+        System.out.println("Output identical across appender types (" + expected.length + " bytes)");
+
+        for (String[] set : new String[][]{{lines[0], lines[1]}, lines}) {
+            System.out.println(set.length == 2 ? "ASCII lines:" : "Mixed ASCII/UTF-8 lines:");
+            for (int round = 0; round < 2; round++) {
+                for (FileAppenderType type : FileAppenderType.values()) {
+                    run(type, dir, set, trace, WARMUP, false);
+                    run(type, dir, set, trace, LINES, round == 1);
+                }
+            }
+        }
+        new File(dir, "bench.xml").delete();
+        if (args.length == 0) deleteDir(dir);
+    }
+
+    private static void run(FileAppenderType type, File dir, String[] lines, Throwable trace, int n, boolean report) throws IOException {
+        File f = new File(dir, "bench-" + type.name().toLowerCase() + ".log");
+        long t0 = System.nanoTime();
+        try (Appender a = type.create(config(dir, f))) {
+            for (int i = 0; i < n; i++) {
+                a.println(lines[i % lines.length]);
+                if (i % TRACE_EVERY == 0) a.printStackTrace(trace);
+                if (i % FLUSH_EVERY == 0) a.flush();
+            }
+        }
+        long t1 = System.nanoTime();
+        long bytes = f.length();
+        f.delete();
+        if (report) {
+            double secs = (t1 - t0) / 1e9;
+            System.out.printf("  %-8s %8.1f ns/line  %8.1f MB/s%n", type, (t1 - t0) / (double) n, bytes / secs / 1e6);
+        }
+    }
+
+    private static LogConfig config(File dir, File log) throws IOException {
+        File xml = new File(dir, "bench.xml");
+        String s = "<config><appenders><file path=\"" + log.getAbsolutePath() + "\" bufferSize=\"65536\" append=\"false\"/></appenders></config>";
+        Files.write(xml.toPath(), s.getBytes(StandardCharsets.UTF_8));
+        return LogConfig.fromXml(xml.getAbsolutePath());
+    }
+}
@@ -0,0 +1,60 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * Checks the writer's flush triggers against a channel file appender with a large buffer, so
+ * nothing reaches the file until the bus flushes: time, level and byte triggers, then a burst to
+ * show batch sizes. Idle flushing is off here, otherwise every single event would be flushed.
+ */
+public class FlushPolicy {
+    public static void main(String[] args) throws Exception {
+        File dir = tempDir("sl4j-flush");
+        File log = new File(dir, "flush.log");
+        File xml = write(new File(dir, "flush.xml"), config("<pattern>%{level} %{message}</pattern><batchSize>128</batchSize>"
+                + "<flush bytes=\"4096\" intervalMs=\"300\" onIdle=\"false\" immediateLevel=\"ERROR\"/>",
+                "<file type=\"channel\" bufferSize=\"1048576\" append=\"false\" path=\"" + log.getAbsolutePath() + "\"/>"));
+        SimpleLog logger = SimpleLog.fromXml(xml.getAbsolutePath(), "flush");
+
+        logger.info("first");
+        Thread.sleep(100);
+        check(log.length() == 0, "info flushed before the interval");
+        Thread.sleep(500);
+        check(content(log).equals("INFO first\n"), "interval flush");
+
+        long flushes = logger.getFlushCount();
+        logger.error("boom");
+        Thread.sleep(100);
+        check(content(log).endsWith("ERROR boom\n"), "immediate flush for ERROR");
+        check(logger.getFlushCount() == flushes + 1, "one flush for ERROR");
+
+        long before = log.length();
+        for (int i = 0; i < 100; i++) logger.info("padding line number {} to get past the byte threshold", i);
+        Thread.sleep(100);
+        check(log.length() - before >= 4096, "byte threshold flush");
+
+        long batches = logger.getBatchCount();
+        for (int i = 0; i < 200_000; i++) logger.info("burst {}", i);
+        logger.flush();
+        Thread.sleep(1000);
+        System.out.printf("burst of 200k: %d batches, average %.1f events, max %d; %d flushes in total%n",
+                logger.getBatchCount() - batches, logger.getAverageBatchSize(), logger.getMaxBatchSize(), logger.getFlushCount());
+        check(logger.getMaxBatchSize() <= 128, "batch size limit");
+        deleteDir(dir);
+        System.out.println("FlushPolicy OK");
+    }
+
+    private static String content(File f) throws Exception {
+        return new String(Files.readAllBytes(f.toPath()), StandardCharsets.UTF_8).replace(System.lineSeparator(), "\n");
+    }
+}
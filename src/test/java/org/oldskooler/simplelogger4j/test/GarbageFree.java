@@ -0,0 +1,97 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.LogLevel;
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * Checks that garbage-free mode allocates nothing on the logging thread once warmed up,
+ * using per-thread allocation counters from {@link com.sun.management.ThreadMXBean}. Nothing may
+ * be dropped while measuring, so the counted calls are the ones that reach the queue. Calls are
+ * measured in bursts that fit in the queue, with a pause between them for the writer to catch up:
+ * a producer that has to park on a full queue allocates its wait node, which is back-pressure
+ * rather than the cost of the call, so a burst in which a producer blocked is not counted. The calls
+ * are written as an application would write them: no arguments, the primitive overloads, and up
+ * to three object arguments, with and without an exception. (A primitive in an Object position is
+ * boxed by the compiler before the call, so it is not among them.)
+ */
+public class GarbageFree {
+    private static final int WARMUP_BURSTS = 100;
+    private static final int BURSTS = 100;
+    private static final int ROUNDS_PER_BURST = 2_000;
+    private static final int CALLS_PER_ROUND = 10;
+
+    public static void main(String[] args) throws Exception {
+        File dir = tempDir("simplelogger4j-gc");
+        // BLOCK, so that every measured call goes all the way into the queue instead of being dropped
+        File xml = write(new File(dir, "garbagefree.xml"), config("<minLevel>INFO</minLevel><garbageFree>true</garbageFree>"
+                        + "<pattern>[%{timestamp}] [%{level}] [%{thread}] %{message}</pattern>"
+                        + "<queueSize>65536</queueSize><overflow policy=\"BLOCK\" timeoutMs=\"600000\"/>",
+                "<file enabled=\"true\" path=\"" + new File(dir, "gc.log").getAbsolutePath() + "\"/>"));
+
+        SimpleLog logger = SimpleLog.fromXml(xml.getPath(), "gc-test");
+        String user = "alice";
+        Exception failure = new IllegalStateException("connection reset");
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        long dropped = 0;
+        long allocated = 0;
+        int measured = 0;
+        long pauseMillis = 20;
+        // Warm up in the same loop, so that the measured bursts run the code the JIT settled on
+        int burst = -WARMUP_BURSTS;
+        for (; measured < BURSTS && burst < 10 * BURSTS; burst++) {
+            Thread.sleep(pauseMillis);
+            if (burst == 0) dropped = logger.getDroppedMessageCount();
+            long blocked = logger.getBlockedCount();
+            long before = threads.getThreadAllocatedBytes(tid);
+            for (int i = 0; i < ROUNDS_PER_BURST; i++) {
+                logCalls(logger, i, user, failure);
+            }
+            long bytes = threads.getThreadAllocatedBytes(tid) - before;
+            if (logger.getBlockedCount() != blocked) {
+                // The writer did not catch up in time; give it longer
+                pauseMillis = Math.min(pauseMillis * 2, 1000);
+            } else {
+                pauseMillis = Math.max(pauseMillis / 2, 20);
+                if (burst >= 0) {
+                    allocated += bytes;
+                    measured++;
+                }
+            }
+        }
+        dropped = logger.getDroppedMessageCount() - dropped;
+
+        long calls = (long) measured * ROUNDS_PER_BURST * CALLS_PER_ROUND;
+        double perCall = allocated / (double) calls;
+        System.out.printf("Allocated %d bytes over %d log calls (%.4f bytes/call), %d dropped%n",
+                allocated, calls, perCall, dropped);
+        check(measured == BURSTS, "Only " + measured + " of " + BURSTS + " bursts ran without blocking on a full queue");
+        check(dropped == 0, dropped + " messages dropped while measuring");
+        check(allocated == 0, "Garbage-free logging allocated " + allocated + " bytes");
+        deleteDir(dir);
+    }
+
+    private static void logCalls(SimpleLog logger, int i, String user, Exception failure) {
+        logger.info("Plain message without arguments");
+        logger.info("Request {}", i);
+        logger.info("Took {} ms", i * 1_000_003L);
+        logger.warn("Load {}", i * 0.25);
+        logger.info("Cached {}", (i & 1) == 0);
+        logger.info("{} logged in", user);
+        logger.info("{} moved to {}", user, LogLevel.WARN);
+        logger.warn("{} {} {}", user, LogLevel.INFO, user);
+        logger.error("Request from {} failed", failure, user);
+        logger.debug("Disabled: {}", i);
+    }
+}
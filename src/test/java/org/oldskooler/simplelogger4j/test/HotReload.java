@@ -0,0 +1,116 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.channelFile;
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * {@code <reload enabled="true">}: a child JVM rewrites its own config file while a producer thread
+ * logs without pause. The first rewrite changes the pattern, the levels and the log file; the
+ * second only changes a level, so the file appender must be kept open; the third is not valid XML
+ * and must be ignored. Checks that no event is lost and that each file holds only its own pattern.
+ */
+public class HotReload {
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("child")) {
+            child(new File(args[1]), new File(args[2]));
+            return;
+        }
+        File dir = tempDir("sl4j-reload");
+        File xml = new File(dir, "reload.xml");
+        write(xml, config("A", new File(dir, "a.log"), "<levels><logger name=\"com.acme\" level=\"WARN\"/></levels>"));
+        List<String> output = runChild(HotReload.class, xml.getAbsolutePath(), dir.getAbsolutePath());
+        String stats = output.isEmpty() ? null : output.get(output.size() - 1);
+        check(stats != null && stats.startsWith("produced "), "no stats from the child: " + output);
+        check(String.join("\n", output).contains("failed; keeping the running config"), "bad file not reported: " + output);
+        int produced = Integer.parseInt(stats.split(" ")[1]);
+
+        BitSet seen = new BitSet(produced);
+        List<String> a = Files.readAllLines(new File(dir, "a.log").toPath(), StandardCharsets.UTF_8);
+        List<String> b = Files.readAllLines(new File(dir, "b.log").toPath(), StandardCharsets.UTF_8);
+        check(!a.isEmpty() && !b.isEmpty(), "a.log " + a.size() + " lines, b.log " + b.size());
+        for (String line : a) count(line, "A ", seen);
+        for (String line : b) {
+            if (line.equals("B marker") || line.equals("B still B")) continue;
+            count(line, "B ", seen);
+        }
+        check(seen.cardinality() == produced && seen.nextSetBit(produced) < 0, seen.cardinality() + " of " + produced + " events written");
+        check(b.contains("B marker") && b.contains("B still B"), "events after the reloads");
+
+        deleteDir(dir);
+        System.out.println(stats);
+        System.out.println("HotReload OK");
+    }
+
+    private static void child(File xml, File dir) throws Exception {
+        SimpleLog log = SimpleLog.fromXml(xml.getAbsolutePath(), "app");
+        SimpleLog acme = SimpleLog.fromXml(xml.getAbsolutePath(), "com.acme.Service");
+        check(!acme.isInfoEnabled() && !log.isDebugEnabled(), "initial levels");
+
+        AtomicBoolean stop = new AtomicBoolean();
+        int[] produced = new int[1];
+        Thread producer = new Thread(() -> {
+            int i = 0;
+            while (!stop.get()) log.info("{}", i++);
+            produced[0] = i;
+        });
+        producer.start();
+        Thread.sleep(200);
+
+        write(xml, config("B", new File(dir, "b.log"), ""));
+        awaitReloads(log, 1);
+        log.info("marker");
+        check(acme.isDebugEnabled() && log.isDebugEnabled(), "levels after the first reload");
+        Thread.sleep(200);
+
+        Object appender = log.getAppenders().get(0);
+        write(xml, config("B", new File(dir, "b.log"), "<levels><logger name=\"com.acme\" level=\"ERROR\"/></levels>"));
+        awaitReloads(log, 2);
+        check(!acme.isWarnEnabled() && acme.isErrorEnabled(), "levels after the second reload");
+        // The writer rebuilds its group on the next batch, which the producer keeps coming
+        Thread.sleep(200);
+        check(log.getAppenders().get(0) == appender, "unchanged file appender was reopened");
+
+        write(xml, "<config><pattern>C %{message}</pattern");
+        Thread.sleep(1000);
+        check(log.getReloadCount() == 2, "a file that does not parse was applied");
+        log.info("still B");
+
+        stop.set(true);
+        producer.join();
+        System.out.println("produced " + produced[0] + " events over " + log.getReloadCount() + " reloads, dropped " + log.getTotalDroppedCount());
+    }
+
+    private static String config(String prefix, File log, String levels) {
+        return TestSupport.config("<minLevel>" + (prefix.equals("A") ? "INFO" : "DEBUG") + "</minLevel>"
+                + "<pattern>" + prefix + " %{message}</pattern><queueSize>1024</queueSize>"
+                + "<reload enabled=\"true\" delayMs=\"50\"/><overflow policy=\"BLOCK\" timeoutMs=\"600000\"/>" + levels, channelFile(log));
+    }
+
+    private static void awaitReloads(SimpleLog log, long n) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (log.getReloadCount() < n) {
+            check(System.currentTimeMillis() < deadline, "reload " + n + " not seen");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void count(String line, String prefix, BitSet seen) {
+        check(line.startsWith(prefix), "'" + line + "' should start with '" + prefix + "'");
+        int n = Integer.parseInt(line.substring(prefix.length()));
+        check(!seen.get(n), n + " written twice");
+        seen.set(n);
+    }
+}
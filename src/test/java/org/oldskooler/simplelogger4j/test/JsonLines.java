@@ -0,0 +1,245 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.ImmutableArg;
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * The JSON-lines appender: every line parses back (with a small parser here) to the logged fields,
+ * escaping round-trips control characters, quotes and non-ASCII text, templates are filled in as
+ * the text path would, context fields and nested throwables are present, with frames shared with
+ * the enclosing trace counted instead of repeated; and the writer thread
+ * allocates nothing per event in garbage-free mode.
+ */
+public class JsonLines {
+    private static final String TRICKY = "quote \" backslash \\ tab\t newline\n cr\r ctl\u0001\u001f ünïcödé 😀  ";
+    private static final int ALLOC_EVENTS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("child")) {
+            child(args[1], args[2]);
+            return;
+        }
+        File dir = tempDir("sl4j-json");
+        File json = new File(dir, "events.jsonl");
+        long before = System.currentTimeMillis();
+        run(dir, "events", "<json append=\"false\" path=\"" + json.getAbsolutePath() + "\">"
+                + "<field name=\"service\" value=\"orders\"/><field name=\"env\" value=\"q&quot;a\"/></json>", "");
+        long after = System.currentTimeMillis();
+
+        List<String> lines = Files.readAllLines(json.toPath(), StandardCharsets.UTF_8);
+        check(lines.size() == 7, lines.size() + " lines");
+        List<Map<String, Object>> events = new ArrayList<>();
+        long lastSeq = -1;
+        for (String line : lines) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> e = (Map<String, Object>) new Parser(line).parse();
+            events.add(e);
+            long ts = Instant.parse((String) e.get("timestamp")).toEpochMilli();
+            check(ts >= before && ts <= after, "timestamp " + e.get("timestamp"));
+            check(e.get("thread").equals("main") && e.get("name").equals("json.test"), "thread and name");
+            check(e.get("service").equals("orders") && e.get("env").equals("q\"a"), "context fields");
+            long seq = (Long) e.get("sequence");
+            check(seq > lastSeq, "sequence order");
+            lastSeq = seq;
+        }
+        String[] expected = {
+                "plain " + TRICKY,
+                "ints 7 -9223372036854775808 longs 9223372036854775807 bool true char \" null null",
+                "arg " + TRICKY + " and 1.5 and [a, b] and 42 and {}",
+                "too many x",
+                "too few y {}",
+                "failed",
+                "suppressed"};
+        for (int i = 0; i < expected.length; i++) {
+            check(expected[i].equals(events.get(i).get("message")), "message " + i + ": " + events.get(i).get("message"));
+        }
+        check(events.get(0).get("level").equals("INFO") && events.get(5).get("level").equals("ERROR"), "levels");
+        check(!events.get(0).containsKey("throwable"), "no throwable");
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> t = (Map<String, Object>) events.get(5).get("throwable");
+        check(t.get("class").equals(IllegalStateException.class.getName()) && t.get("message").equals("outer " + TRICKY), "throwable class and message");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> frames = (List<Map<String, Object>>) t.get("frames");
+        check(!frames.isEmpty() && frames.get(0).get("class").equals(JsonLines.class.getName())
+                && frames.get(0).get("method").equals("child") && frames.get(0).get("file").equals("JsonLines.java")
+                && (Long) frames.get(0).get("line") > 0, "first frame " + frames.get(0));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> cause = (Map<String, Object>) t.get("cause");
+        check(cause.get("class").equals(RuntimeException.class.getName()) && cause.get("message") == null
+                && (Long) cause.get("omitted") > 0 && ((List<?>) cause.get("frames")).size() + (Long) cause.get("omitted") == frames.size(), "cause " + cause);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> s = (Map<String, Object>) events.get(6).get("throwable");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> suppressed = (List<Map<String, Object>>) s.get("suppressed");
+        check(suppressed.size() == 1 && suppressed.get(0).get("message").equals("closing"), "suppressed");
+        int depth = 0;
+        for (Object c = s.get("cause"); c != null; c = ((Map<?, ?>) c).get("cause")) depth++;
+        check(depth == 8, "cause chain cut at 8, got " + depth);
+
+        File gf = new File(dir, "gf.jsonl");
+        String stats = run(dir, "alloc", "<json append=\"false\" timestamp=\"epoch\" path=\"" + gf.getAbsolutePath() + "\"/>",
+                "<garbageFree>true</garbageFree>");
+        System.out.println(stats);
+        check(stats.contains(" 0 bytes"), "writer allocated: " + stats);
+        List<String> gfLines = Files.readAllLines(gf.toPath(), StandardCharsets.UTF_8);
+        check(gfLines.size() == 2 * ALLOC_EVENTS, gfLines.size() + " lines in garbage-free mode");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> last = (Map<String, Object>) new Parser(gfLines.get(gfLines.size() - 1)).parse();
+        check(last.get("timestamp") instanceof Long && last.get("message").equals("order " + (ALLOC_EVENTS - 1) + " for alice"), "garbage-free line " + last);
+
+        deleteDir(dir);
+        System.out.println("JsonLines OK");
+    }
+
+    private static String run(File dir, String mode, String appenders, String extra) throws Exception {
+        File xml = write(new File(dir, mode + ".xml"), config("<minLevel>DEBUG</minLevel><queueSize>8192</queueSize><overflow policy=\"BLOCK\" timeoutMs=\"600000\"/>"
+                + extra, "<file enabled=\"false\"/>" + appenders));
+        return String.join("", runChild(JsonLines.class, mode, xml.getAbsolutePath()));
+    }
+
+    private static void child(String mode, String xml) throws Exception {
+        SimpleLog log = SimpleLog.fromXml(xml, "json.test");
+        if (mode.equals("events")) {
+            Exception failure = new IllegalStateException("outer " + TRICKY, new RuntimeException());
+            Exception chain = new RuntimeException("level 0");
+            Exception top = chain;
+            for (int i = 1; i < 12; i++) {
+                Exception next = new RuntimeException("level " + i);
+                chain.initCause(next);
+                chain = next;
+            }
+            top.addSuppressed(new IllegalArgumentException("closing"));
+            log.info("plain " + TRICKY);
+            log.info("ints {} {} longs {} bool {} char {} null {}", 7, Long.MIN_VALUE, Long.MAX_VALUE, true, '"', null);
+            log.warn("arg {} and {} and {} and {} and {}", TRICKY, 1.5, java.util.Arrays.asList("a", "b"), ImmutableArg.of(42));
+            log.debug("too many {}", "x", "unused");
+            log.success("too few {} {}", "y");
+            log.error("failed", failure);
+            log.critical("suppressed", top);
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String[] names = new String[ALLOC_EVENTS];
+        Integer[] values = new Integer[ALLOC_EVENTS];
+        for (int i = 0; i < ALLOC_EVENTS; i++) {
+            names[i] = "alice";
+            values[i] = i;
+        }
+        for (int i = 0; i < ALLOC_EVENTS; i++) log.info("order {} for {}", values[i], names[i]);
+        Thread writer = waitForWriter();
+        Thread.sleep(500);
+        long start = threads.getThreadAllocatedBytes(writer.getId());
+        for (int i = 0; i < ALLOC_EVENTS; i++) log.info("order {} for {}", values[i], names[i]);
+        log.flush();
+        Thread.sleep(500);
+        long allocated = threads.getThreadAllocatedBytes(writer.getId()) - start;
+        System.out.printf("writer thread: %d bytes over %d JSON events", allocated, ALLOC_EVENTS);
+    }
+
+    private static Thread waitForWriter() {
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().equals("Logger-Writer")) return t;
+        }
+        throw new AssertionError("no writer thread");
+    }
+
+    /** Just enough JSON for the appender's output: objects, arrays, strings, longs, booleans and null. */
+    private static final class Parser {
+        private final String s;
+        private int i;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        Object parse() {
+            Object v = value();
+            check(i == s.length(), "trailing text at " + i + " in " + s);
+            return v;
+        }
+
+        private Object value() {
+            char c = s.charAt(i);
+            if (c == '{') {
+                Map<String, Object> m = new LinkedHashMap<>();
+                i++;
+                while (s.charAt(i) != '}') {
+                    if (!m.isEmpty()) expect(',');
+                    String k = string();
+                    expect(':');
+                    check(m.put(k, value()) == null && !k.isEmpty(), "duplicate key " + k);
+                }
+                i++;
+                return m;
+            }
+            if (c == '[') {
+                List<Object> l = new ArrayList<>();
+                i++;
+                while (s.charAt(i) != ']') {
+                    if (!l.isEmpty()) expect(',');
+                    l.add(value());
+                }
+                i++;
+                return l;
+            }
+            if (c == '"') return string();
+            if (s.startsWith("null", i)) {
+                i += 4;
+                return null;
+            }
+            if (s.startsWith("true", i) || s.startsWith("false", i)) {
+                boolean b = c == 't';
+                i += b ? 4 : 5;
+                return b;
+            }
+            int start = i;
+            while (i < s.length() && (s.charAt(i) == '-' || Character.isDigit(s.charAt(i)))) i++;
+            return Long.parseLong(s.substring(start, i));
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            for (char c; (c = s.charAt(i++)) != '"'; ) {
+                check(c >= 0x20, "unescaped control character");
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = s.charAt(i++);
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u': sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16)); i += 4; break;
+                    default: sb.append(e);
+                }
+            }
+            return sb.toString();
+        }
+
+        private void expect(char c) {
+            check(s.charAt(i++) == c, "expected " + c + " at " + (i - 1) + " in " + s);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.LogLevel;
+import org.oldskooler.simplelogger4j.LoggerFactory;
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * Per-logger levels from {@code <levels>}: inherited along the package hierarchy, matched on whole
+ * name parts, and changed at runtime through the config or a logger.
+ */
+public class Levels {
+    public static void main(String[] args) throws Exception {
+        File dir = tempDir("sl4j-levels");
+        File xml = write(new File(dir, "levels.xml"), config("<minLevel>INFO</minLevel>"
+                + "<levels><logger name=\"com.acme\" level=\"WARN\"/><logger name=\"com.acme.db\" level=\"DEBUG\"/></levels>",
+                "<file append=\"false\" path=\"" + new File(dir, "levels.log").getAbsolutePath() + "\"/>"));
+        String path = xml.getAbsolutePath();
+
+        SimpleLog pool = SimpleLog.fromXml(path, "com.acme.db.Pool");
+        SimpleLog db = SimpleLog.fromXml(path, "com.acme.db");
+        SimpleLog web = SimpleLog.fromXml(path, "com.acme.web.Handler");
+        SimpleLog acmex = SimpleLog.fromXml(path, "com.acmex.Other");
+        SimpleLog other = SimpleLog.fromXml(path, "org.example.Main");
+
+        check(pool.getLevel() == LogLevel.DEBUG && pool.isDebugEnabled(), "com.acme.db.Pool inherits DEBUG");
+        check(db.isDebugEnabled(), "com.acme.db has DEBUG itself");
+        check(web.getLevel() == LogLevel.WARN && !web.isInfoEnabled() && web.isWarnEnabled(), "com.acme.web inherits WARN");
+        check(acmex.getLevel() == LogLevel.INFO, "com.acmex is not below com.acme");
+        check(other.getLevel() == LogLevel.INFO && !other.isDebugEnabled(), "others use minLevel");
+
+        LogConfig config = LoggerFactory.getConfig(path);
+        config.setLevel("com.acme.web", LogLevel.DEBUG);
+        check(web.isDebugEnabled(), "runtime change reaches a cached level");
+        check(!pool.isEnabled(LogLevel.TRACE), "unrelated loggers keep theirs");
+        web.setLevel(LogLevel.ERROR);
+        check(!web.isWarnEnabled() && web.isErrorEnabled(), "SimpleLog.setLevel");
+        web.setLevel(null);
+        check(web.isDebugEnabled(), "logger level cleared, com.acme.web DEBUG applies");
+        config.setLevel("com.acme.web", null);
+        check(web.getLevel() == LogLevel.WARN && web.isWarnEnabled() && !web.isInfoEnabled(), "cleared levels inherit again");
+        config.setLevel("", LogLevel.ERROR);
+        check(!other.isWarnEnabled() && other.isErrorEnabled() && pool.isDebugEnabled(), "root level change");
+        config.setLevel("", LogLevel.INFO);
+
+        long before = other.getTotalMessageCount();
+        other.debug("dropped before the queue");
+        check(other.getTotalMessageCount() == before, "disabled calls are not counted");
+
+        deleteDir(dir);
+        System.out.println("Levels OK");
+    }
+}
@@ -0,0 +1,80 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.LoggerFactory;
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+
+/**
+ * Cost of creating 10k loggers. "Before" repeats what every {@code SimpleLog.fromXml} call used to
+ * do: parse the XML file and register a shutdown hook. "After" is {@link LoggerFactory}: 10k new
+ * names, then the same 10k names again, which are cache hits.
+ */
+public class LoggerStartupBenchmark {
+    private static final int LOGGERS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        File dir = tempDir("sl4j-startup");
+        File xml = new File(dir, "startup.xml");
+        String cfg = "<config><minLevel>DEBUG</minLevel><pattern>%{level} %{name} %{message}</pattern>"
+                + "<flush bytes=\"65536\" intervalMs=\"1000\"/><overflow policy=\"DROP\"/>"
+                + "<appenders><console enabled=\"false\"/>"
+                + "<file type=\"channel\" append=\"false\" path=\"" + new File(dir, "startup.log").getAbsolutePath() + "\"/>"
+                + "</appenders></config>";
+        Files.write(xml.toPath(), cfg.getBytes(StandardCharsets.UTF_8));
+        String path = xml.getAbsolutePath();
+
+        // Warm up the parser and the factory on other names
+        for (int i = 0; i < 1000; i++) {
+            LogConfig.fromXml(path);
+            LoggerFactory.getLogger(path, "warmup." + i);
+        }
+
+        long t0 = System.nanoTime();
+        List<Thread> hooks = new ArrayList<>(LOGGERS);
+        for (int i = 0; i < LOGGERS; i++) {
+            LogConfig.fromXml(path);
+            Thread hook = new Thread(() -> { });
+            Runtime.getRuntime().addShutdownHook(hook);
+            hooks.add(hook);
+        }
+        long before = System.nanoTime() - t0;
+        for (Thread hook : hooks) Runtime.getRuntime().removeShutdownHook(hook);
+
+        t0 = System.nanoTime();
+        SimpleLog[] created = new SimpleLog[LOGGERS];
+        for (int i = 0; i < LOGGERS; i++) created[i] = LoggerFactory.getLogger(path, "com.example.Service" + i);
+        long first = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        for (int i = 0; i < LOGGERS; i++) {
+            if (LoggerFactory.getLogger(path, "com.example.Service" + i) != created[i]) throw new AssertionError("not cached: " + i);
+        }
+        long again = System.nanoTime() - t0;
+
+        // A cached logger is shared, so one caller's shutdown() must not silence it for the others
+        created[0].shutdown();
+        LoggerFactory.getLogger(path, "com.example.Service0").info("still logging");
+        if (created[0].getTotalMessageCount() != 1) throw new AssertionError("shutdown() disposed a cached logger");
+        SimpleLog unnamed = SimpleLog.fromXml(path, null);
+        if (LoggerFactory.getLogger(path, null) != unnamed) throw new AssertionError("null name not cached");
+        unnamed.info("no name");
+
+        System.out.printf("before (parse + hook per logger): %7.1f ms, %8.2f us/logger, %d hooks%n",
+                before / 1e6, before / 1e3 / LOGGERS, LOGGERS);
+        System.out.printf("after, new names:                 %7.1f ms, %8.2f us/logger, 1 hook%n",
+                first / 1e6, first / 1e3 / LOGGERS);
+        System.out.printf("after, cached names:              %7.1f ms, %8.2f us/logger%n",
+                again / 1e6, again / 1e3 / LOGGERS);
+        System.out.println(LoggerFactory.getLoggerCount() + " loggers cached");
+        deleteDir(dir);
+    }
+}
@@ -0,0 +1,101 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.SimpleLog;
+import org.oldskooler.simplelogger4j.appenders.MappedFileAppender;
+import org.oldskooler.simplelogger4j.appenders.RollingMappedFileAppender;
+import org.oldskooler.simplelogger4j.appenders.RolloverInterval;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * Checks the memory-mapped appenders: remapping across small chunks, truncation on close,
+ * rolling over by size, and truncation when the JVM shuts down through LoggerBus, for
+ * {@code <file type="mmap">} and {@code <rollingFile type="mmap">}.
+ */
+public class MappedFile {
+    private static final int LINES = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("child")) {
+            child(new File(args[1]));
+            return;
+        }
+        File dir = tempDir("sl4j-mmap");
+
+        // Several remaps with a 4 KiB chunk
+        File first = new File(dir, "first.log");
+        MappedFileAppender a = new MappedFileAppender(first, false, 4096);
+        for (int i = 0; i < LINES; i++) a.println("line " + i + " ünïcödé");
+        a.close();
+        a.close();
+        a.println("ignored after close");
+        expectLines(first, 0, LINES);
+
+        // Appending to an existing file starts at its current length
+        a = new MappedFileAppender(first, true, 4096);
+        a.println("appended");
+        a.close();
+        List<String> appended = Files.readAllLines(first.toPath(), StandardCharsets.UTF_8);
+        check(appended.size() == LINES + 1 && appended.get(LINES).equals("appended"), "append mode");
+
+        // Rolling over by size: each file is truncated before it is renamed to rolled.log.N
+        File rolled = new File(dir, "rolled.log");
+        RollingMappedFileAppender r = new RollingMappedFileAppender(rolled.getPath(), 4096, RolloverInterval.NONE,
+                64 * 1024, 0, 0, false, System::currentTimeMillis);
+        for (int i = 0; i < 2 * LINES; i++) r.println("line " + i + " ünïcödé");
+        r.close();
+        int from = 0;
+        int archives = 0;
+        for (File f; (f = new File(rolled.getPath() + "." + (archives + 1))).exists(); archives++) {
+            int n = Files.readAllLines(f.toPath(), StandardCharsets.UTF_8).size();
+            expectLines(f, from, from + n);
+            check(f.length() >= 64 * 1024 && f.length() < 64 * 1024 + 100, f.getName() + ": " + f.length() + " bytes");
+            from += n;
+        }
+        check(archives >= 3, archives + " archives");
+        expectLines(rolled, from, 2 * LINES);
+
+        // Logging through SimpleLog: the bus shutdown hook must truncate the file on exit
+        File log = new File(dir, "bus.log");
+        File rollingLog = new File(dir, "bus-rolling.log");
+        File xml = write(new File(dir, "mmap.xml"), config("<pattern>%{message}</pattern>",
+                "<file type=\"mmap\" mapChunkSize=\"65536\" append=\"false\" path=\"" + log.getAbsolutePath() + "\"/>"
+                        + "<rollingFile type=\"mmap\" mapChunkSize=\"65536\" interval=\"NONE\" compress=\"false\" path=\""
+                        + rollingLog.getAbsolutePath() + "\"/>"));
+        runChild(MappedFile.class, xml.getAbsolutePath());
+        expectLines(log, 0, LINES);
+        expectLines(rollingLog, 0, LINES);
+
+        deleteDir(dir);
+        System.out.println("MappedFile OK");
+    }
+
+    private static void child(File xml) {
+        SimpleLog log = SimpleLog.fromXml(xml.getAbsolutePath(), "mmap");
+        for (int i = 0; i < LINES; i++) log.info("line {} ünïcödé", i);
+    }
+
+    private static void expectLines(File f, int from, int to) throws Exception {
+        List<String> lines = Files.readAllLines(f.toPath(), StandardCharsets.UTF_8);
+        check(lines.size() == to - from, f.getName() + ": expected " + (to - from) + " lines, got " + lines.size());
+        for (int i = from; i < to; i++) {
+            check(lines.get(i - from).equals("line " + i + " ünïcödé"), f.getName() + ": bad line " + lines.get(i - from));
+        }
+        check(lastByte(f) == '\n', f.getName() + ": not truncated");
+    }
+
+    private static int lastByte(File f) throws Exception {
+        byte[] b = Files.readAllBytes(f.toPath());
+        return b.length == 0 ? -1 : b[b.length - 1];
+    }
+}
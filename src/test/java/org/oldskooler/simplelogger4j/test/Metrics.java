@@ -0,0 +1,128 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.LogLevel;
+import org.oldskooler.simplelogger4j.SimpleLog;
+import org.oldskooler.simplelogger4j.metrics.AppenderMetrics;
+import org.oldskooler.simplelogger4j.metrics.LogHistogram;
+import org.oldskooler.simplelogger4j.metrics.LoggerMetrics;
+import org.oldskooler.simplelogger4j.metrics.MetricsSnapshot;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.channelFile;
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * {@code <metrics enabled="true">}: histogram accuracy, the cost of a logging call with metrics off
+ * and on (each a child JVM), then counts, latencies, appender bytes and the JMX attributes after
+ * three threads have logged a known number of events.
+ */
+public class Metrics {
+    private static final int THREADS = 3;
+    private static final int PER_THREAD = 30_000;
+    private static final int CALLS = 2_000_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("child")) {
+            child(args[1]);
+            return;
+        }
+        histogram();
+        File dir = tempDir("sl4j-metrics");
+        for (String metrics : new String[]{"false", "true"}) {
+            File xml = write(new File(dir, "overhead.xml"), config("<pattern>%{level} %{message}</pattern><queueSize>65536</queueSize>"
+                    + "<metrics enabled=\"" + metrics + "\" jmx=\"false\"/><overflow policy=\"DROP\"/>", channelFile(new File(dir, "overhead.log"))));
+            List<String> output = runChild(Metrics.class, xml.getAbsolutePath());
+            check(!output.isEmpty(), "no stats from the child");
+            System.out.println("metrics " + (metrics.equals("true") ? "on:  " : "off: ") + output.get(0));
+        }
+
+        File log = new File(dir, "metrics.log");
+        File xml = new File(dir, "metrics.xml");
+        write(xml, config("<minLevel>INFO</minLevel><pattern>%{level} %{message}</pattern><queueSize>1024</queueSize>"
+                + "<metrics enabled=\"true\"/><overflow policy=\"BLOCK\" timeoutMs=\"600000\"/>", channelFile(log)));
+        SimpleLog logger = SimpleLog.fromXml(xml.getAbsolutePath(), "metrics");
+        LoggerMetrics metrics = logger.getMetrics();
+        check(metrics != null, "metrics enabled");
+        LogLevel[] levels = {LogLevel.INFO, LogLevel.WARN, LogLevel.ERROR};
+        Thread[] producers = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    logger.debug("below minLevel {}", i);
+                    logger.log(levels[i % levels.length], "event " + i);
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread t : producers) t.join();
+        int total = THREADS * PER_THREAD;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (metrics.getEventsWritten() < total) {
+            check(System.currentTimeMillis() < deadline, "written " + metrics.getEventsWritten() + " of " + total);
+            Thread.sleep(10);
+        }
+        logger.flush();
+        Thread.sleep(300);
+
+        MetricsSnapshot s = metrics.snapshot();
+        System.out.println(s);
+        for (LogLevel l : levels) check(s.getLevelCounts().get(l) == total / levels.length, l + " count " + s.getLevelCounts().get(l));
+        check(s.getLevelCounts().get(LogLevel.DEBUG) == 0, "disabled calls are not counted");
+        check(s.getEnqueueNanos().getCount() == total && s.getEndToEndNanos().getCount() == total, "latency counts");
+        LogHistogram.Snapshot e2e = s.getEndToEndNanos();
+        check(e2e.getPercentile(50) <= e2e.getPercentile(99) && e2e.getPercentile(99) <= e2e.getMax() && e2e.getMax() > 0, "percentiles in order");
+        check(s.getQueueHighWaterMark() >= 1 && s.getQueueHighWaterMark() <= s.getQueueCapacity(), "high-water mark " + s.getQueueHighWaterMark());
+        AppenderMetrics.Snapshot file = s.getAppender("file");
+        check(file != null && file.getEvents() == total && file.getErrors() == 0, "file appender events");
+        check(file.getBytes() == log.length(), file.getBytes() + " bytes counted, file has " + log.length());
+        check(file.getFlushNanos().getCount() > 0, "flushes timed");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(LoggerMetrics.OBJECT_NAME);
+        check(((Long) server.getAttribute(name, "EventsWritten")) == total, "JMX EventsWritten");
+        TabularData byLevel = (TabularData) server.getAttribute(name, "LevelCounts");
+        CompositeData warn = byLevel.get(new Object[]{"WARN"});
+        check(((Long) warn.get("value")) == total / levels.length, "JMX LevelCounts");
+        TabularData appenders = (TabularData) server.getAttribute(name, "AppenderStats");
+        check(((Long) appenders.get(new Object[]{"file.events"}).get("value")) == total, "JMX AppenderStats");
+
+        deleteDir(dir);
+        System.out.println("Metrics OK");
+    }
+
+    private static void histogram() {
+        LogHistogram h = new LogHistogram();
+        for (long v = 1; v <= 1_000_000; v++) h.record(v);
+        LogHistogram.Snapshot s = h.snapshot();
+        check(s.getCount() == 1_000_000 && s.getMax() == 1_000_000, "histogram count and max");
+        check(Math.abs(s.getMean() - 500_000.5) < 1, "histogram mean " + s.getMean());
+        for (double p : new double[]{1, 50, 90, 99, 99.9}) {
+            double exact = p / 100 * 1_000_000;
+            long got = s.getPercentile(p);
+            check(got >= exact && got <= exact * 1.125, "p" + p + " = " + got + ", exact " + exact);
+        }
+        check(new LogHistogram(1).snapshot().getPercentile(99) == 0, "empty histogram");
+    }
+
+    private static void child(String xml) throws Exception {
+        SimpleLog log = SimpleLog.fromXml(xml, "overhead");
+        for (int i = 0; i < CALLS / 10; i++) log.info("warmup {}", i);
+        Thread.sleep(200);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) log.info("event {}", i);
+        long nanos = System.nanoTime() - t0;
+        System.out.printf("%6.1f ns/call over %d calls, %d dropped%n", (double) nanos / CALLS, CALLS, log.getTotalDroppedCount());
+    }
+}
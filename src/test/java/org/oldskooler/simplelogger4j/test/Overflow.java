@@ -0,0 +1,107 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.channelFile;
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * Runs each overflow policy in its own JVM (the bus is configured once per JVM) with a tiny queue,
+ * four threads logging as fast as they can, then checks the counters against what reached the file.
+ */
+public class Overflow {
+    private static final int THREADS = 4;
+    private static final int PER_THREAD = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("child")) {
+            child(args[1]);
+            return;
+        }
+        File dir = tempDir("sl4j-overflow");
+        String[][] runs = {
+                {"DROP", "MPSC", "false"},
+                {"BLOCK", "MPSC", "false"},
+                {"BLOCK", "BLOCKING", "false"},
+                {"BLOCK", "MPSC", "true"},
+                {"DROP_OLDEST", "MPSC", "false"},
+                {"DROP_OLDEST", "BLOCKING", "false"},
+                {"DROP_BELOW", "MPSC", "false"},
+                {"CALLER_RUNS", "MPSC", "false"},
+                {"CALLER_RUNS", "MPSC", "true"},
+        };
+        int total = THREADS * PER_THREAD;
+        for (String[] run : runs) {
+            String policy = run[0];
+            File log = new File(dir, "out.log");
+            File xml = write(new File(dir, "cfg.xml"), config("<pattern>%{level} %{message}</pattern><queueSize>64</queueSize>"
+                    + "<queueType>" + run[1] + "</queueType><garbageFree>" + run[2] + "</garbageFree>"
+                    + "<overflow policy=\"" + policy + "\" timeoutMs=\"10000\" level=\"WARN\"/>", channelFile(log)));
+            List<String> output = runChild(Overflow.class, xml.getAbsolutePath());
+            check(!output.isEmpty(), policy + ": no stats from the child");
+
+            String[] f = output.get(0).split(" ");
+            long overflows = Long.parseLong(f[0]), blocked = Long.parseLong(f[1]), timedOut = Long.parseLong(f[2]);
+            long evicted = Long.parseLong(f[3]), callerRuns = Long.parseLong(f[4]), dropped = Long.parseLong(f[5]);
+            long millis = Long.parseLong(f[6]);
+            List<String> lines = Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+            long warns = lines.stream().filter(l -> l.startsWith("WARN")).count();
+
+            check(lines.size() == total - dropped - evicted, policy + ": lines " + lines.size() + " != total - dropped - evicted");
+            switch (policy) {
+                case "DROP":
+                    check(blocked == 0 && evicted == 0 && callerRuns == 0 && dropped == overflows, policy);
+                    break;
+                case "BLOCK":
+                    check(dropped == 0 && timedOut == 0 && blocked == overflows, policy);
+                    break;
+                case "DROP_OLDEST":
+                    check(evicted > 0 && blocked == 0, policy);
+                    break;
+                case "DROP_BELOW":
+                    check(warns == total / 2 && timedOut == 0, policy + ": all WARN events kept");
+                    break;
+                case "CALLER_RUNS":
+                    check(dropped == 0 && callerRuns == overflows && callerRuns > 0, policy);
+                    break;
+            }
+            System.out.printf("%-12s %-8s gf=%-5s %7d lines in %5d ms: overflows %6d, blocked %6d, evicted %6d, caller-runs %6d, dropped %6d%n",
+                    policy, run[1], run[2], lines.size(), millis, overflows, blocked, evicted, callerRuns, dropped);
+        }
+        deleteDir(dir);
+        System.out.println("Overflow OK");
+    }
+
+    private static void child(String xml) throws Exception {
+        SimpleLog log = SimpleLog.fromXml(xml, "overflow");
+        Thread[] threads = new Thread[THREADS];
+        long t0 = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    if ((i & 1) == 0) {
+                        log.info("thread {} event {}", id, i);
+                    } else {
+                        log.warn("thread {} event {}", id, i);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        long millis = (System.nanoTime() - t0) / 1_000_000;
+        System.out.println(log.getOverflowCount() + " " + log.getBlockedCount() + " " + log.getTimedOutCount() + " "
+                + log.getEvictedCount() + " " + log.getCallerRunsCount() + " " + log.getTotalDroppedCount() + " " + millis);
+    }
+}
@@ -0,0 +1,90 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.CompiledPattern;
+import org.oldskooler.simplelogger4j.LogLevel;
+import org.oldskooler.simplelogger4j.PatternEngine;
+import org.oldskooler.simplelogger4j.PrintJob;
+import org.oldskooler.simplelogger4j.ansi.AnsiColour;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+
+/**
+ * Compares the per-event PatternEngine against a CompiledPattern plan.
+ * Each iteration renders one plain and one coloured line, like the writer does; the plan does both in one pass.
+ */
+public class PatternBenchmark {
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    public static void main(String[] args) {
+        PrintJob j = new PrintJob(
+                "com.example.Demo",
+                42L,
+                LogLevel.WARN,
+                "Hello, World! The quick brown fox jumps over the lazy dog",
+                Thread.currentThread().getName(),
+                LocalDateTime.now(),
+                null,
+                false
+        );
+
+        EnumMap<LogLevel, AnsiColour> palette = new EnumMap<>(LogLevel.class);
+        palette.put(LogLevel.INFO, AnsiColour.GREEN);
+        palette.put(LogLevel.WARN, AnsiColour.BRIGHT_YELLOW);
+        DateTimeFormatter tf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+        String[] patterns = {
+                "[%{timestamp:BRIGHT_BLACK}] [%{level:LEVEL}] [%{thread:CYAN}] %{message}",
+                "[%{timestamp:datetime('HH:mm:ss')|padRight(12)}] [%{level:LEVEL|padRight(8)}] (%{name:CYAN}) #%{sequence:BRIGHT_BLACK} %{message}",
+                "%{timestamp:datetime('yyyy-MM-dd')|padRight(12)} %{level:LEVEL|padLeft(8,'.')} %{message:substring(0,40)|padRight(40,' ')} #%{sequence}",
+        };
+
+        for (String p : patterns) {
+            CompiledPattern plan = CompiledPattern.compile(p, tf, palette);
+            check(PatternEngine.renderPlain(p, tf, j), plan.renderPlain(j), p);
+            check(PatternEngine.renderColoured(p, tf, j, palette), plan.renderColoured(j), p);
+
+            StringBuilder plain = new StringBuilder(256);
+            StringBuilder coloured = new StringBuilder(256);
+
+            long sink = 0;
+            for (int i = 0; i < WARMUP; i++) {
+                sink += PatternEngine.renderPlain(p, tf, j).length();
+                sink += PatternEngine.renderColoured(p, tf, j, palette).length();
+                sink += renderBoth(plan, j, plain, coloured);
+            }
+
+            long t0 = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += PatternEngine.renderPlain(p, tf, j).length();
+                sink += PatternEngine.renderColoured(p, tf, j, palette).length();
+            }
+            long t1 = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += renderBoth(plan, j, plain, coloured);
+            }
+            long t2 = System.nanoTime();
+
+            double engineNs = (t1 - t0) / (double) ITERATIONS;
+            double planNs = (t2 - t1) / (double) ITERATIONS;
+            System.out.println(p);
+            System.out.printf("  PatternEngine   : %8.1f ns/event%n", engineNs);
+            System.out.printf("  CompiledPattern : %8.1f ns/event  (%.1fx)   [sink %d]%n", planNs, engineNs / planNs, sink);
+        }
+    }
+
+    private static int renderBoth(CompiledPattern plan, PrintJob j, StringBuilder plain, StringBuilder coloured) {
+        plain.setLength(0);
+        coloured.setLength(0);
+        plan.render(j, plain, coloured);
+        return plain.length() + coloured.length();
+    }
+
+    private static void check(String expected, String actual, String pattern) {
+        if (!expected.equals(actual)) {
+            throw new AssertionError("Render mismatch for " + pattern + "\n expected: " + expected + "\n actual:   " + actual);
+        }
+    }
+}
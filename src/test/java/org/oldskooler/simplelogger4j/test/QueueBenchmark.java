@@ -0,0 +1,62 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.queue.LogQueue;
+import org.oldskooler.simplelogger4j.queue.QueueType;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer contention on the writer queue: N threads offer into one queue while a single
+ * consumer drains it, for every {@link QueueType}.
+ */
+public class QueueBenchmark {
+    private static final int CAPACITY = 8192;
+    private static final int EVENTS = 4_000_000;
+    private static final int[] PRODUCERS = {1, 4, 16, 64};
+
+    public static void main(String[] args) throws Exception {
+        for (QueueType type : QueueType.values()) {
+            run(type, 4, EVENTS / 4); // warm-up
+        }
+        for (int producers : PRODUCERS) {
+            for (QueueType type : QueueType.values()) {
+                long nanos = run(type, producers, EVENTS);
+                System.out.printf("%-8s producers=%-3d %8.1f ns/event  %6.2f M events/s%n",
+                        type, producers, nanos / (double) EVENTS, EVENTS * 1e3 / nanos);
+            }
+        }
+    }
+
+    private static long run(QueueType type, int producers, int events) throws Exception {
+        LogQueue<Object> queue = type.create(CAPACITY);
+        Object item = new Object();
+        int perProducer = events / producers;
+        int total = perProducer * producers;
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        queue.put(item);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "producer-" + p);
+            threads[p].start();
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (int received = 0; received < total;) {
+            if (queue.poll(100, TimeUnit.MILLISECONDS) != null) received++;
+        }
+        long elapsed = System.nanoTime() - t0;
+        for (Thread t : threads) t.join();
+        return elapsed;
+    }
+}
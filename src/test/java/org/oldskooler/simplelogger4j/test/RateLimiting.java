@@ -0,0 +1,116 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.channelFile;
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * The {@code <limits>}: a rate limit shared by several threads lets through its burst plus the
+ * rate over the time taken, and leaves other levels alone; 1 in N is exact; probability is close;
+ * per-template buckets are separate; loggers without a limit lose nothing; and the summaries add
+ * up, with what got through, to every event logged.
+ */
+public class RateLimiting {
+    private static final int THREADS = 4;
+    private static final int PER_THREAD = 250_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("child")) {
+            child(args[1]);
+            return;
+        }
+        File dir = tempDir("sl4j-limits");
+        File log = new File(dir, "limits.log");
+        File xml = write(new File(dir, "limits.xml"), config("<pattern>%{name} %{level} %{message}</pattern><minLevel>DEBUG</minLevel>"
+                + "<queueSize>65536</queueSize><overflow policy=\"BLOCK\" timeoutMs=\"600000\"/>"
+                + "<limits summaryIntervalMs=\"300\">"
+                + "<limit logger=\"flood\" level=\"WARN\" rate=\"1000\" burst=\"50\"/>"
+                + "<limit logger=\"flood.sampled\" sample=\"10\"/>"
+                + "<limit logger=\"flood.templates\" rate=\"0.5\" burst=\"5\" perTemplate=\"true\"/>"
+                + "<limit logger=\"flood.coin\" probability=\"0.25\"/>"
+                + "</limits>", channelFile(log)));
+        String out = String.join("", runChild(RateLimiting.class, xml.getAbsolutePath()));
+        System.out.println(out);
+        long floodMs = Long.parseLong(out.substring(out.indexOf("in ") + 3, out.indexOf(" ms")));
+        List<String> lines = Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+
+        long hot = count(lines, "flood WARN hot ");
+        check(hot >= 50 && hot <= 50 + floodMs + 50, hot + " of " + THREADS * PER_THREAD + " let through in " + floodMs + " ms at 1000/s, burst 50");
+        check(hot + suppressed(lines, "flood WARN ") == THREADS * PER_THREAD, "flood summaries add up");
+        check(count(lines, "flood ERROR failed ") == 1000, "other levels are not limited");
+
+        check(count(lines, "flood.sampled INFO sampled ") == 1000, "1 in 10");
+        check(suppressed(lines, "flood.sampled INFO ") == 9000, "1 in 10 summaries");
+
+        long heads = count(lines, "flood.coin DEBUG coin ");
+        check(heads > 2000 && heads < 3000 && heads + suppressed(lines, "flood.coin DEBUG ") == 10_000, heads + " of 10000 at probability 0.25");
+
+        for (String t : new String[]{"a", "b", "c"}) {
+            check(count(lines, "flood.templates INFO template " + t + " ") == 5, "template " + t + " has its own burst");
+            check(suppressed(lines, "flood.templates INFO ", " of \"template " + t + " {}\"") == 95, "template " + t + " summaries");
+        }
+        check(count(lines, "other INFO free ") == 10_000, "loggers without a limit lose nothing");
+
+        deleteDir(dir);
+        System.out.println("RateLimiting OK");
+    }
+
+    private static long count(List<String> lines, String prefix) {
+        return lines.stream().filter(l -> l.startsWith(prefix)).count();
+    }
+
+    private static long suppressed(List<String> lines, String prefix) {
+        return suppressed(lines, prefix, "");
+    }
+
+    private static long suppressed(List<String> lines, String prefix, String suffix) {
+        long n = 0;
+        for (String l : lines) {
+            if (!l.startsWith(prefix + "Suppressed ") || !l.endsWith(suffix)) continue;
+            String rest = l.substring(prefix.length() + "Suppressed ".length());
+            n += Long.parseLong(rest.substring(0, rest.indexOf(' ')));
+        }
+        return n;
+    }
+
+    private static void child(String xml) throws Exception {
+        SimpleLog flood = SimpleLog.fromXml(xml, "flood");
+        Thread[] producers = new Thread[THREADS];
+        long t0 = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < PER_THREAD; i++) flood.warn("hot {}", i);
+            });
+            producers[t].start();
+        }
+        for (int i = 0; i < 1000; i++) flood.error("failed {}", i);
+        for (Thread t : producers) t.join();
+        long nanos = System.nanoTime() - t0;
+
+        SimpleLog sampled = SimpleLog.fromXml(xml, "flood.sampled");
+        for (int i = 0; i < 10_000; i++) sampled.info("sampled {}", i);
+        SimpleLog coin = SimpleLog.fromXml(xml, "flood.coin");
+        for (int i = 0; i < 10_000; i++) coin.debug("coin {}", i);
+        SimpleLog templates = SimpleLog.fromXml(xml, "flood.templates");
+        for (int i = 0; i < 100; i++) {
+            templates.info("template a {}", i);
+            templates.info("template b {}", i);
+            templates.info("template c {}", i);
+        }
+        SimpleLog other = SimpleLog.fromXml(xml, "other");
+        for (int i = 0; i < 10_000; i++) other.info("free {}", i);
+        System.out.printf("%d rate-limited calls on %d threads in %d ms (%.0f ns per call on each thread), %d suppressed so far",
+                THREADS * PER_THREAD, THREADS, nanos / 1_000_000, (double) nanos / PER_THREAD, flood.getSuppressedCount());
+    }
+}
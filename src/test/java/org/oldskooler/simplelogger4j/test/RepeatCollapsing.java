@@ -0,0 +1,103 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.channelFile;
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * The {@code <collapseRepeats>}: a run of the same message is written once and then counted, the
+ * count written when the run ends, when it has been held back for {@code maxHoldMs} and at
+ * shutdown; another logger, level or message ends a run; exceptions are always written; and the
+ * lines and counts add up to every event logged.
+ */
+public class RepeatCollapsing {
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("child")) {
+            child(args[1]);
+            return;
+        }
+        File dir = tempDir("sl4j-repeats");
+        File log = new File(dir, "repeats.log");
+        File xml = write(new File(dir, "repeats.xml"), config("<pattern>%{name} %{level} %{message}</pattern><minLevel>DEBUG</minLevel>"
+                + "<queueSize>65536</queueSize><overflow policy=\"BLOCK\" timeoutMs=\"600000\"/>"
+                + "<collapseRepeats enabled=\"true\" maxHoldMs=\"200\"/>", channelFile(log)));
+        runChild(RepeatCollapsing.class, xml.getAbsolutePath());
+        List<String> lines = Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+
+        List<String> head = lines.subList(0, 9);
+        check(head.equals(Arrays.asList(
+                "a INFO same",
+                "a INFO last message repeated 999 times",
+                "a INFO different",
+                "a WARN different",
+                "a WARN last message repeated 1 time",
+                "b WARN different",
+                "a WARN different",
+                "a WARN last message repeated 2 times",
+                "a INFO formatted 7")), "runs: " + head);
+        check(lines.get(9).equals("a INFO last message repeated 4 times"), "formatted messages compare by text: " + lines.get(9));
+
+        check(count(lines, "a ERROR failed") == 3, "exceptions are always written");
+        check(count(lines, "\tat ") >= 3, "with their stack traces");
+
+        check(count(lines, "slow INFO tick") == 1, "a slow run is written once");
+        long ticks = repeated(lines, "slow INFO ");
+        check(ticks == 59, ticks + " slow repeats counted");
+        long summaries = count(lines, "slow INFO last message repeated");
+        check(summaries >= 2, summaries + " summaries written while the run went on, every 200 ms");
+
+        check(lines.get(lines.size() - 2).equals("tail INFO last"), "end: " + lines.subList(lines.size() - 2, lines.size()));
+        check(lines.get(lines.size() - 1).equals("tail INFO last message repeated 4 times"), "held repeats are written at shutdown");
+
+        deleteDir(dir);
+        System.out.println("RepeatCollapsing OK: " + lines.size() + " lines for 1080 events");
+    }
+
+    private static long count(List<String> lines, String prefix) {
+        return lines.stream().filter(l -> l.startsWith(prefix)).count();
+    }
+
+    private static long repeated(List<String> lines, String prefix) {
+        long n = 0;
+        for (String l : lines) {
+            if (!l.startsWith(prefix + "last message repeated ")) continue;
+            String rest = l.substring(prefix.length() + "last message repeated ".length());
+            n += Long.parseLong(rest.substring(0, rest.indexOf(' ')));
+        }
+        return n;
+    }
+
+    private static void child(String xml) throws Exception {
+        SimpleLog a = SimpleLog.fromXml(xml, "a");
+        SimpleLog b = SimpleLog.fromXml(xml, "b");
+        for (int i = 0; i < 1000; i++) a.info("same");
+        a.info("different");
+        a.warn("different");
+        a.warn("different");
+        b.warn("different");
+        for (int i = 0; i < 3; i++) a.warn("different");
+        for (int i = 0; i < 5; i++) a.info("formatted {}", 7);
+
+        for (int i = 0; i < 3; i++) a.error("failed", new IllegalStateException("boom"));
+
+        SimpleLog slow = SimpleLog.fromXml(xml, "slow");
+        for (int i = 0; i < 60; i++) {
+            slow.info("tick");
+            Thread.sleep(10);
+        }
+        SimpleLog tail = SimpleLog.fromXml(xml, "tail");
+        for (int i = 0; i < 5; i++) tail.info("last");
+    }
+}
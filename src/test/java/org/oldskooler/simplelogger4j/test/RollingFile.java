@@ -0,0 +1,131 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.SimpleLog;
+import org.oldskooler.simplelogger4j.appenders.RollingFileAppender;
+import org.oldskooler.simplelogger4j.appenders.RolloverInterval;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * Drives RollingFileAppender with a hand-set clock: size rollovers within one minute, a time
+ * rollover to a new file name, gzip and retention on the roller thread, compression of files
+ * left over from an earlier run but not of files that only look like archives or that another
+ * appender writes, and how long the writing thread is held up by a rollover.
+ */
+public class RollingFile {
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("child")) {
+            SimpleLog.fromXml(args[1], "roll").info("written by both appenders");
+            return;
+        }
+        File dir = tempDir("sl4j-roll");
+        String pattern = new File(dir, "app-%d{yyyy-MM-dd-HH-mm}.log").getPath();
+        AtomicLong now = new AtomicLong(1_700_000_000_000L - 1_700_000_000_000L % 60_000);
+
+        // Left over from an earlier run: compressed at start-up
+        File leftover = new File(dir, "app-2000-01-01-00-00.log");
+        write(leftover, "old line\n");
+        // Named like it, but not by this pattern: left alone
+        List<String> decoys = Arrays.asList("app-notadate.log", "app-2000-01-01-00-00-shard1.log", "app-2000-13-45-00-00.log");
+        for (String d : decoys) write(new File(dir, d), "not an archive\n");
+
+        RollingFileAppender a = new RollingFileAppender(pattern, 4096, RolloverInterval.MINUTE, 10 * 1024,
+                3, 0, true, now::get);
+        File first = a.getCurrentFile();
+        int n = 0;
+        for (; n < 1000; n++) a.println(String.format("line %06d padded to about fifty bytes .......", n));
+        now.addAndGet(60_000);
+        for (; n < 1100; n++) a.println(String.format("line %06d padded to about fifty bytes .......", n));
+        File second = a.getCurrentFile();
+        a.close();
+
+        check(!first.equals(second), "time rollover changes the file name");
+        check(!leftover.exists(), "leftover compressed");
+        List<String> gz = names(dir, ".gz");
+        check(gz.size() == 3, "maxFiles keeps 3 archives, found " + gz);
+        List<String> plain = new ArrayList<>(decoys);
+        plain.add(second.getName());
+        plain.sort(null);
+        check(names(dir, ".log").equals(plain), "only the active file and the decoys are uncompressed: " + names(dir, ".log"));
+        for (String d : decoys) check(read(new File(dir, d), false).equals(Arrays.asList("not an archive")), d + " untouched");
+        for (String d : decoys) new File(dir, d).delete();
+
+        // What is left must be the newest lines, in order, ending with the last one
+        List<String> lines = new ArrayList<>();
+        for (String name : gz) lines.addAll(read(new File(dir, name), true));
+        lines.addAll(read(second, false));
+        lines.sort(null);
+        int last = -1;
+        for (String l : lines) {
+            int i = Integer.parseInt(l.substring(5, 11));
+            check(last < 0 || i == last + 1, "contiguous lines at " + i);
+            last = i;
+        }
+        check(last == n - 1, "last line kept");
+        System.out.println("kept lines " + lines.get(0).substring(5, 11) + ".." + last + " in " + gz + " + " + second.getName());
+
+        // Rollover cost on the writing thread, with 8 MiB files being compressed in the background
+        for (File f : dir.listFiles()) f.delete();
+        a = new RollingFileAppender(pattern, 65536, RolloverInterval.NONE, 8 << 20, 0, 0, true, now::get);
+        String line = "[12:00:00.123] [INFO    ] (com.example.Demo) #42 Hello, World! The quick brown fox jumps over the lazy dog";
+        long worst = 0;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < 1_000_000; i++) {
+            long s = System.nanoTime();
+            a.println(line);
+            worst = Math.max(worst, System.nanoTime() - s);
+        }
+        long t1 = System.nanoTime();
+        a.close();
+        long t2 = System.nanoTime();
+        System.out.printf("1M lines in %d ms, slowest println %.2f ms, %d archives, close waited %d ms for gzip%n",
+                (t1 - t0) / 1_000_000, worst / 1e6, names(dir, ".gz").size(), (t2 - t1) / 1_000_000);
+
+        deleteDir(dir);
+
+        // Through a config: the active file of another appender is not an archive, even if named like one
+        File other = tempDir("sl4j-roll-other");
+        File leftoverToo = write(new File(other, "app-2000-01-01-00-00.log"), "old line\n");
+        File fileLog = new File(other, "app-2000-01-02-00-00.log");
+        File xml = write(new File(other, "roll.xml"), config("<pattern>%{message}</pattern>",
+                "<file append=\"false\" path=\"" + fileLog.getAbsolutePath() + "\"/>"
+                        + "<rollingFile interval=\"MINUTE\" path=\"" + new File(other, "app-%d{yyyy-MM-dd-HH-mm}.log").getAbsolutePath() + "\"/>"));
+        runChild(RollingFile.class, xml.getAbsolutePath());
+        check(!leftoverToo.exists() && new File(leftoverToo.getPath() + ".gz").exists(), "leftover compressed");
+        check(read(fileLog, false).equals(Arrays.asList("written by both appenders")), "the file appender's file untouched");
+        deleteDir(other);
+        System.out.println("RollingFile OK");
+    }
+
+    private static List<String> names(File dir, String suffix) {
+        List<String> out = new ArrayList<>();
+        for (String s : dir.list()) if (s.endsWith(suffix)) out.add(s);
+        out.sort(null);
+        return out;
+    }
+
+    private static List<String> read(File f, boolean gzip) throws Exception {
+        List<String> out = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                gzip ? new GZIPInputStream(new FileInputStream(f)) : new FileInputStream(f), StandardCharsets.UTF_8))) {
+            for (String l; (l = r.readLine()) != null; ) out.add(l);
+        }
+        return out;
+    }
+}
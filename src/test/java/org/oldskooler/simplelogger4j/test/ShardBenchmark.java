@@ -0,0 +1,91 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * End-to-end throughput with 1, 2, 4, ... shards up to the number of CPUs (or the second argument),
+ * each run in its own JVM: eight threads log through 64 loggers into channel file appenders, and the
+ * clock stops when every byte is in the files. Runs each count with a file per shard and merged.
+ * Pass a directory as the first argument to write somewhere other than the temp dir (e.g. /dev/shm).
+ */
+public class ShardBenchmark {
+    private static final int THREADS = 8;
+    private static final int LOGGERS = 64;
+    private static final int EVENTS = 2_000_000;
+    /** "bench.logger.NN request NNNNNNN handled in NNN us" plus a newline; every field is fixed width. */
+    private static final int LINE_BYTES = "bench.logger.00 request 1000000 handled in 100 us".length() + System.lineSeparator().length();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 4 && args[0].equals("child")) {
+            child(args[1], args[2], Integer.parseInt(args[3]));
+            return;
+        }
+        File dir = args.length > 0 ? new File(args[0]) : TestSupport.tempDir("sl4j-shard-bench");
+        int max = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        System.out.println(Runtime.getRuntime().availableProcessors() + " CPUs, " + THREADS + " producer threads, "
+                + EVENTS + " events");
+        for (boolean merge : new boolean[]{false, true}) {
+            for (int shards = 1; shards <= max; shards *= 2) {
+                if (merge && shards == 1) continue;
+                for (int round = 0; round < 2; round++) {
+                    String stats = run(dir, shards, merge);
+                    if (round == 1) System.out.printf("%d shard(s)%s: %s%n", shards, merge ? ", merged" : "", stats);
+                }
+            }
+        }
+        if (args.length == 0) TestSupport.deleteDir(dir);
+    }
+
+    private static String run(File dir, int shards, boolean merge) throws Exception {
+        String path = new File(dir, "bench.log").getAbsolutePath();
+        File xml = TestSupport.write(new File(dir, "bench.xml"), TestSupport.config(
+                "<pattern>%{name} %{message}</pattern><queueSize>65536</queueSize>"
+                        + "<overflow policy=\"BLOCK\" timeoutMs=\"60000\"/>"
+                        + "<shards count=\"" + shards + "\" merge=\"" + merge + "\"/>",
+                "<file type=\"channel\" append=\"false\" bufferSize=\"262144\" path=\"" + path + "\"/>"));
+        List<String> output = TestSupport.runChild(ShardBenchmark.class,
+                xml.getAbsolutePath(), path, Integer.toString(merge ? 1 : shards));
+        TestSupport.check(!output.isEmpty(), "child printed nothing");
+        String stats = output.get(0);
+        for (File f : dir.listFiles()) {
+            if (f.getName().startsWith("bench")) f.delete();
+        }
+        return stats;
+    }
+
+    private static void child(String xml, String path, int files) throws Exception {
+        SimpleLog[] loggers = new SimpleLog[LOGGERS];
+        for (int i = 0; i < LOGGERS; i++) loggers[i] = SimpleLog.fromXml(xml, String.format("bench.logger.%02d", i));
+        File[] out = new File[files];
+        for (int i = 0; i < files; i++) out[i] = new File(files == 1 ? path : LogConfig.shardPath(path, i));
+
+        Thread[] threads = new Thread[THREADS];
+        long t0 = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = id; i < EVENTS; i += THREADS) {
+                    loggers[i % LOGGERS].info("request {} handled in {} us", 1_000_000 + i, 100 + i % 900);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        long produced = System.nanoTime() - t0;
+        long expected = (long) EVENTS * LINE_BYTES;
+        while (size(out) < expected) Thread.sleep(1);
+        long total = System.nanoTime() - t0;
+        System.out.printf("%5.2f M events/s end to end (producers done after %d ms, files complete after %d ms)%n",
+                EVENTS / (total / 1e3), produced / 1_000_000, total / 1_000_000);
+    }
+
+    private static long size(File[] files) {
+        long n = 0;
+        for (File f : files) n += f.length();
+        return n;
+    }
+}
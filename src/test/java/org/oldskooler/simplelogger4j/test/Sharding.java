@@ -0,0 +1,109 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.LogConfig;
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.channelFile;
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * Runs a four-shard bus in its own JVM per mode (the bus is configured once per JVM) and checks
+ * the output: partitioned by name each logger stays in one shard file, partitioned by thread each
+ * producer does, and per logger and thread the events keep their order. Merged, all events land in
+ * one file in sequence order.
+ */
+public class Sharding {
+    private static final int SHARDS = 4;
+    private static final int THREADS = 6;
+    private static final int LOGGERS = 10;
+    private static final int PER_THREAD = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("child")) {
+            child(args[1]);
+            return;
+        }
+        File dir = tempDir("sl4j-shards");
+        int total = THREADS * PER_THREAD;
+
+        for (String partition : new String[]{"NAME", "THREAD"}) {
+            String path = new File(dir, partition.toLowerCase() + ".log").getAbsolutePath();
+            run(dir, path, "<shards count=\"" + SHARDS + "\" partition=\"" + partition + "\"/>");
+            Map<String, Integer> owner = new HashMap<>();
+            int lines = 0;
+            for (int s = 0; s < SHARDS; s++) {
+                File f = new File(LogConfig.shardPath(path, s));
+                check(f.exists(), f + " missing");
+                List<String> content = Files.readAllLines(f.toPath(), StandardCharsets.UTF_8);
+                for (String line : content) {
+                    String[] p = line.split(" ");
+                    String key = partition.equals("NAME") ? p[1] : p[2];
+                    Integer prev = owner.putIfAbsent(key, s);
+                    check(prev == null || prev == s, key + " written by shards " + prev + " and " + s);
+                }
+                checkOrder(content, partition + " shard " + s);
+                lines += content.size();
+                System.out.printf("%-6s shard %d: %6d lines%n", partition, s, content.size());
+            }
+            check(lines == total, partition + ": " + lines + " lines, expected " + total);
+        }
+
+        String merged = new File(dir, "merged.log").getAbsolutePath();
+        String stats = run(dir, merged, "<shards count=\"" + SHARDS + "\" merge=\"true\" mergeWindowMs=\"60000\"/>");
+        List<String> content = Files.readAllLines(new File(merged).toPath(), StandardCharsets.UTF_8);
+        check(content.size() == total, "merged: " + content.size() + " lines, expected " + total);
+        for (int i = 0; i < content.size(); i++) {
+            check(Long.parseLong(content.get(i).split(" ")[0]) == i, "merged line " + i + " out of sequence: " + content.get(i));
+        }
+        checkOrder(content, "merged");
+        System.out.println("merged: " + content.size() + " lines in sequence order, late " + stats.split(" ")[1]);
+
+        deleteDir(dir);
+        System.out.println("Sharding OK");
+    }
+
+    private static String run(File dir, String path, String shards) throws Exception {
+        File xml = write(new File(dir, "cfg.xml"), config("<pattern>%{sequence} %{name} %{thread} %{message}</pattern><queueSize>1024</queueSize>"
+                + "<overflow policy=\"BLOCK\" timeoutMs=\"60000\"/>" + shards, channelFile(new File(path))));
+        List<String> output = runChild(Sharding.class, xml.getAbsolutePath());
+        check(!output.isEmpty(), "no stats from the child");
+        return output.get(0);
+    }
+
+    /** Messages are "n", counting up per logger and thread. */
+    private static void checkOrder(List<String> lines, String what) {
+        Map<String, Integer> last = new HashMap<>();
+        for (String line : lines) {
+            String[] p = line.split(" ");
+            int n = Integer.parseInt(p[3]);
+            Integer prev = last.put(p[1] + " " + p[2], n);
+            check(prev == null || prev < n, what + ": " + p[1] + " on " + p[2] + " wrote " + n + " after " + prev);
+        }
+    }
+
+    private static void child(String xml) throws Exception {
+        SimpleLog[] loggers = new SimpleLog[LOGGERS];
+        for (int i = 0; i < LOGGERS; i++) loggers[i] = SimpleLog.fromXml(xml, "logger" + i);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < PER_THREAD; i++) loggers[i % LOGGERS].info("{}", i);
+            }, "producer" + t);
+            threads[t].start();
+        }
+        for (Thread t : threads) t.join();
+        System.out.println(loggers[0].getTotalDroppedCount() + " " + loggers[0].getMergeLateCount());
+    }
+}
@@ -0,0 +1,130 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.SimpleLog;
+import org.oldskooler.simplelogger4j.ThrowableSnapshot;
+import org.oldskooler.simplelogger4j.formatters.StackTraceFormatter;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.channelFile;
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * Stack trace limits and deduplication: snapshots print as the exception they copy and do not keep
+ * it alive; frame and cause limits cut traces with a count of what was left out; within the dedup
+ * window a repeated trace is printed once in full and then only referred to, with a running count,
+ * and in full again once the window has passed.
+ */
+public class StackTraces {
+    private static final int REPEATS = 100;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("child")) {
+            child(args[1], args[2]);
+            return;
+        }
+        snapshots();
+
+        File dir = tempDir("sl4j-traces");
+        List<String> lines = run(dir, "dedup", "<stackTraces maxFrames=\"2\" maxCauses=\"1\" dedupWindowMs=\"60000\" snapshot=\"true\"/>");
+        int full = 0;
+        int references = 0;
+        String id = null;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.startsWith("java.lang.IllegalStateException: query failed [trace #")) {
+                full++;
+                id = line.substring(line.indexOf('#') + 1, line.length() - 1);
+                check(lines.get(i + 1).startsWith("\tat ") && lines.get(i + 2).startsWith("\tat ")
+                        && lines.get(i + 3).equals("\t... 1 frames omitted"), "frames cut at 2: " + lines.subList(i, i + 4));
+                check(lines.get(i + 4).equals("Caused by: java.io.IOException: connection reset"), "first cause: " + lines.get(i + 4));
+                int end = i + 5;
+                while (!lines.get(end).endsWith(" causes") && !lines.get(end).contains("[")) end++;
+                check(lines.get(end).equals("\t... 2 more causes"), "causes cut at 1: " + lines.get(end));
+            } else if (line.startsWith("java.lang.IllegalStateException: query failed [same as trace #")) {
+                references++;
+                check(line.equals("java.lang.IllegalStateException: query failed [same as trace #" + id + " (" + (references + 1) + " times)]"), line);
+            }
+        }
+        check(full == 1 && references == REPEATS - 1, full + " full traces, " + references + " references");
+        check(lines.stream().anyMatch(l -> l.startsWith("java.lang.IllegalArgumentException: other [trace #")), "a different trace printed in full");
+        check(lines.stream().noneMatch(l -> l.startsWith("Caused by: java.lang.RuntimeException")), "second cause left out");
+
+        lines = run(dir, "window", "<stackTraces dedupWindowMs=\"200\"/>");
+        long fullTraces = lines.stream().filter(l -> l.contains("[trace #")).count();
+        check(fullTraces == 2 && lines.stream().filter(l -> l.contains("[same as trace #")).count() == 1, "printed again after the window: " + lines);
+
+        deleteDir(dir);
+        System.out.println("StackTraces OK");
+    }
+
+    private static void snapshots() {
+        Exception root = new IllegalStateException("root");
+        Exception e = new RuntimeException("outer", new Wrapper("wrapped", root));
+        e.addSuppressed(new IllegalArgumentException("closing"));
+        Throwable s = ThrowableSnapshot.of(e);
+        check(s instanceof ThrowableSnapshot && ThrowableSnapshot.of(s) == s && ThrowableSnapshot.of(null) == null, "snapshot identity");
+        check(StackTraceFormatter.toString(s).equals(StackTraceFormatter.toString(e)), "snapshot prints as the original:\n" + StackTraceFormatter.toString(s));
+        StringWriter jdk = new StringWriter();
+        e.printStackTrace(new PrintWriter(jdk, true));
+        check(StackTraceFormatter.toString(e).equals(jdk.toString()), "formatter matches printStackTrace");
+
+        Wrapper heavy = new Wrapper("heavy", null);
+        WeakReference<byte[]> payload = new WeakReference<>(heavy.payload);
+        Throwable kept = ThrowableSnapshot.of(heavy);
+        heavy = null;
+        for (int i = 0; i < 10 && payload.get() != null; i++) System.gc();
+        check(payload.get() == null && kept.toString().equals(Wrapper.class.getName() + ": heavy"), "snapshot lets the exception go");
+    }
+
+    private static List<String> run(File dir, String mode, String traces) throws Exception {
+        File log = new File(dir, mode + ".log");
+        File xml = write(new File(dir, mode + ".xml"), config("<pattern>%{message}</pattern>" + traces, channelFile(log)));
+        runChild(StackTraces.class, mode, xml.getAbsolutePath());
+        return Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+    }
+
+    private static void child(String mode, String xml) throws Exception {
+        SimpleLog log = SimpleLog.fromXml(xml, "traces.test");
+        if (mode.equals("dedup")) {
+            for (int i = 0; i < REPEATS; i++) {
+                log.error("attempt " + i, failure());
+                if (i == REPEATS / 2) log.warn("unrelated", new IllegalArgumentException("other"));
+            }
+            return;
+        }
+        for (int i = 0; i < 3; i++) {
+            if (i == 2) Thread.sleep(400);
+            log.error("attempt " + i, failure());
+        }
+    }
+
+    /** The same trace every time: three levels of causes below the exception. */
+    private static Exception failure() {
+        Exception deepest = new IllegalStateException("pool exhausted");
+        Exception middle = new RuntimeException("socket closed", deepest);
+        Exception cause = new java.io.IOException("connection reset", middle);
+        return new IllegalStateException("query failed", cause);
+    }
+
+    private static final class Wrapper extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final byte[] payload = new byte[8 << 20];
+
+        Wrapper(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.oldskooler.simplelogger4j.test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What the test programs share: checks, a scratch directory, config files, and child JVMs for
+ * tests that need a bus of their own (the bus is configured once per JVM). A child runs the same
+ * class with {@code "child"} as its first argument.
+ */
+final class TestSupport {
+    private TestSupport() {
+    }
+
+    static void check(boolean ok, String what) {
+        if (!ok) throw new AssertionError(what);
+    }
+
+    static File tempDir(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix).toFile();
+    }
+
+    /** Deletes the files in {@code dir}, then the directory. */
+    static void deleteDir(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) for (File f : files) f.delete();
+        dir.delete();
+    }
+
+    /** Writes {@code content} as UTF-8 and returns {@code f}. */
+    static File write(File f, String content) throws IOException {
+        Files.write(f.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return f;
+    }
+
+    /** A config with {@code settings}, the console appender off and then {@code appenders}. */
+    static String config(String settings, String appenders) {
+        return "<config>" + settings + "<appenders><console enabled=\"false\"/>" + appenders + "</appenders></config>";
+    }
+
+    /** A channel file appender that starts {@code log} afresh. */
+    static String channelFile(File log) {
+        return "<file type=\"channel\" append=\"false\" path=\"" + log.getAbsolutePath() + "\"/>";
+    }
+
+    /** A JVM on this class path running {@code main} with {@code "child"} and then {@code args}. */
+    static ProcessBuilder childJvm(Class<?> main, String... args) {
+        List<String> command = new ArrayList<>(Arrays.asList(
+                new File(System.getProperty("java.home"), "bin/java").getPath(),
+                "-cp", System.getProperty("java.class.path"),
+                main.getName(), "child"));
+        command.addAll(Arrays.asList(args));
+        return new ProcessBuilder(command);
+    }
+
+    /** Runs a {@link #childJvm} to the end and returns what it printed, stderr included; it must exit with 0. */
+    static List<String> runChild(Class<?> main, String... args) throws IOException, InterruptedException {
+        return runChild(childJvm(main, args), main.getSimpleName() + " child " + Arrays.toString(args));
+    }
+
+    /** As {@link #runChild}, for a child with its own JVM options or arguments. */
+    static List<String> runChild(ProcessBuilder builder, String what) throws IOException, InterruptedException {
+        Process p = builder.redirectErrorStream(true).start();
+        List<String> output = new ArrayList<>();
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line; (line = r.readLine()) != null; ) output.add(line);
+        }
+        check(p.waitFor() == 0, what + " failed: " + output);
+        return output;
+    }
+}
@@ -0,0 +1,47 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.clock.CachedTimestampFormatter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Checks the per-second timestamp cache against plain DateTimeFormatter output.
+ */
+public class Timestamps {
+    public static void main(String[] args) {
+        String[] patterns = {
+                "yyyy-MM-dd HH:mm:ss.SSS",
+                "HH:mm:ss",
+                "HH:mm:ss.SS",
+                "HH:mm:ss.S",
+                "EEEE d MMM yyyy HH:mm:ss.SSS",
+                "SSS 'ms' HH:mm:ss",
+                "HH:mm:ss.SSS / SSS",
+                "A",
+                "HH:mm:ss.nnnnnnnnn",
+        };
+        ZoneId zone = ZoneId.systemDefault();
+        Random random = new Random(42);
+        long base = System.currentTimeMillis();
+
+        for (String p : patterns) {
+            DateTimeFormatter f = DateTimeFormatter.ofPattern(p, Locale.ENGLISH);
+            CachedTimestampFormatter cached = new CachedTimestampFormatter(f, zone);
+            long t = base;
+            for (int i = 0; i < 100_000; i++) {
+                t += random.nextInt(50); // mostly same second, with regular second and minute roll-overs
+                String expected = f.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(t), zone));
+                String actual = cached.format(t);
+                if (!expected.equals(actual)) {
+                    throw new AssertionError(p + " @" + t + ": expected '" + expected + "' but got '" + actual + "'");
+                }
+            }
+            System.out.println("OK  " + p + "  -> " + cached.format(t));
+        }
+    }
+}
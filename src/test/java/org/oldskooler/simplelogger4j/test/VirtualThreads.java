@@ -0,0 +1,127 @@
+package org.oldskooler.simplelogger4j.test;
+
+import org.oldskooler.simplelogger4j.SimpleLog;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.oldskooler.simplelogger4j.test.TestSupport.check;
+import static org.oldskooler.simplelogger4j.test.TestSupport.childJvm;
+import static org.oldskooler.simplelogger4j.test.TestSupport.config;
+import static org.oldskooler.simplelogger4j.test.TestSupport.deleteDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.runChild;
+import static org.oldskooler.simplelogger4j.test.TestSupport.tempDir;
+import static org.oldskooler.simplelogger4j.test.TestSupport.write;
+
+/**
+ * 100k virtual threads start together and log ten events each into a small queue, so most of them
+ * end up waiting for space. Each run is a child JVM with {@code -Djdk.tracePinnedThreads=full}, which
+ * prints a stack trace whenever a virtual thread blocks while pinned to its carrier; the test fails
+ * on any such output. Checks that no event is lost, that each thread's events are in order (under
+ * BLOCK; CALLER_RUNS may write an event ahead of queued ones) and that {@code %{thread}} shows
+ * {@code virtual-<id>} under {@code threadFormat VIRTUAL_ID}, and a platform thread by its name,
+ * the new one once it has been renamed. Only the channel and mmap appenders are checked: the console
+ * and stream file appenders write inside monitors, so under CALLER_RUNS they can pin (see README).
+ * <p>
+ * Needs Java 21 and the multi-release jar on the class path (not just the classes directory):
+ * {@code java -cp build/libs/SimpleLogger4j.jar:build/classes/java/test ...VirtualThreads}
+ */
+public class VirtualThreads {
+    private static final int THREADS = 100_000;
+    private static final int PER_THREAD = 10;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("child")) {
+            child(args[1]);
+            return;
+        }
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            System.out.println("VirtualThreads skipped: needs Java 21, running on " + System.getProperty("java.version"));
+            return;
+        }
+        File dir = tempDir("sl4j-virtual");
+        String[][] runs = {{"BLOCK", "channel"}, {"CALLER_RUNS", "mmap"}};
+        for (String[] run : runs) {
+            File log = new File(dir, "out.log");
+            File xml = write(new File(dir, "cfg.xml"), config("<pattern>%{thread} %{message}</pattern><queueSize>1024</queueSize>"
+                    + "<threadFormat>VIRTUAL_ID</threadFormat>"
+                    + "<overflow policy=\"" + run[0] + "\" timeoutMs=\"600000\"/>",
+                    "<file type=\"" + run[1] + "\" append=\"false\" path=\"" + log.getAbsolutePath() + "\"/>"));
+            ProcessBuilder pinning = childJvm(VirtualThreads.class, xml.getAbsolutePath());
+            pinning.command().add(1, "-Djdk.tracePinnedThreads=full");
+            List<String> output = runChild(pinning, run[0] + " child");
+            check(output.size() == 1, run[0] + ": child reported pinning: " + output);
+
+            List<String> lines = Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+            check(lines.size() == THREADS * PER_THREAD + 2, run[0] + ": " + lines.size() + " lines");
+            boolean ordered = run[0].equals("BLOCK");
+            Map<String, Integer> seen = new HashMap<>();
+            List<String> platform = new ArrayList<>();
+            for (String line : lines) {
+                if (line.endsWith(" rename")) {
+                    platform.add(line);
+                    continue;
+                }
+                int sp = line.indexOf(' ');
+                String thread = line.substring(0, sp);
+                check(thread.startsWith("virtual-"), "thread shown as '" + thread + "'; is the multi-release jar on the class path?");
+                int n = Integer.parseInt(line.substring(sp + 1));
+                // Ordered: the highest event so far. Otherwise: a bit per event.
+                Integer prev = seen.get(thread);
+                if (ordered) {
+                    check(prev == null ? n == 0 : n == prev + 1, thread + " wrote " + n + " after " + prev);
+                    seen.put(thread, n);
+                } else {
+                    int bits = prev == null ? 0 : prev;
+                    check((bits & (1 << n)) == 0, thread + " wrote " + n + " twice");
+                    seen.put(thread, bits | (1 << n));
+                }
+            }
+            check(seen.size() == THREADS, run[0] + ": " + seen.size() + " distinct threads");
+            check(platform.size() == 2 && platform.containsAll(Arrays.asList("main before rename", "renamed after rename")),
+                    run[0] + ": platform thread shown as " + platform);
+            System.out.printf("%-12s %-8s %s%n", run[0], run[1], output.get(0));
+            log.delete();
+        }
+        deleteDir(dir);
+        System.out.println("VirtualThreads OK");
+    }
+
+    private static void child(String xml) throws Exception {
+        SimpleLog log = SimpleLog.fromXml(xml, "virtual");
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        for (int t = 0; t < THREADS; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < PER_THREAD; i++) log.info("{}", i);
+            });
+        }
+        long t0 = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        if (!pool.awaitTermination(10, TimeUnit.MINUTES)) throw new AssertionError("producers did not finish");
+        long millis = (System.nanoTime() - t0) / 1_000_000;
+        log.info("before rename");
+        Thread.currentThread().setName("renamed");
+        log.info("after rename");
+        System.out.println(THREADS * PER_THREAD + " events from " + THREADS + " virtual threads in " + millis + " ms: blocked "
+                + log.getBlockedCount() + ", caller-runs " + log.getCallerRunsCount() + ", dropped " + log.getTotalDroppedCount());
+    }
+}